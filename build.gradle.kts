@@ -1,5 +1,6 @@
 plugins {
     java
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "swagger2sqlmap"
@@ -15,15 +16,50 @@ java {
 }
 
 dependencies {
-    compileOnly("net.portswigger.burp.extensions:montoya-api:2024.12")
+    compileOnly("net.portswigger.burp.extensions:montoya-api:2025.4")
 
     implementation("com.fasterxml.jackson.core:jackson-databind:2.17.2")
+
+    // benchmarks run outside Burp: API interfaces only, requests are stubbed
+    jmhImplementation("net.portswigger.burp.extensions:montoya-api:2025.4")
+
+    testImplementation("net.portswigger.burp.extensions:montoya-api:2025.4")
+    testImplementation(platform("org.junit:junit-bom:5.10.3"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<JavaCompile>().configureEach {
     options.encoding = "UTF-8"
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
+// ./gradlew jmh [-PjmhInclude=ExportBench]
+// Results: build/reports/jmh/results-<version>.json (keep them to compare releases)
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-${project.version}.json"))
+    findProperty("jmhInclude")?.let { includes.set(listOf(it.toString())) }
+}
+
+// Synthetic spec for load tests, e.g.
+// ./gradlew generateSpec -PspecArgs="build/specs/big.json paths=100000 dialect=swagger_2"
+tasks.register<JavaExec>("generateSpec") {
+    group = "benchmark"
+    description = "Writes a synthetic Swagger 2 / OpenAPI 3 spec (see SpecGenerator)"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("swagger2sqlmap.bench.SpecGenerator")
+    args((findProperty("specArgs")?.toString() ?: "build/specs/synthetic.json").split(" ").filter { it.isNotBlank() })
+}
+
 
 tasks.jar {
     duplicatesStrategy = DuplicatesStrategy.EXCLUDE
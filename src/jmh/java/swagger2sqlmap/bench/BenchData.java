@@ -0,0 +1,95 @@
+package swagger2sqlmap.bench;
+
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.model.SampleUrl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic inputs for the command and export benchmarks: endpoint rows and requests
+ * (specs come from {@link SpecGenerator}).
+ *
+ * Montoya's request factories need a running Burp, so requests are dynamic proxies that
+ * answer the four calls the sqlmap code makes (method, url, headers, bodyToString). The
+ * proxy dispatch is a constant overhead, comparable between versions.
+ */
+final class BenchData {
+
+  private BenchData() {}
+
+  /** Mix of GET / JSON POST / form PUT / DELETE rows, same for the same seed. */
+  static List<EndpointRow> rows(int count, long seed) {
+    Random rnd = new Random(seed);
+    List<EndpointRow> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String res = "/resource" + i;
+      switch (i % 4) {
+        case 0 -> out.add(new EndpointRow("GET", res + "/{id}", "get" + i, "Get " + i, null, null, List.of(
+            new EndpointRow.Param("id", EndpointRow.In.PATH, String.valueOf(rnd.nextInt(1000)), EndpointRow.Kind.NUMBER),
+            new EndpointRow.Param("page", EndpointRow.In.QUERY, "1", EndpointRow.Kind.NUMBER),
+            new EndpointRow.Param("sort", EndpointRow.In.QUERY, "name asc", EndpointRow.Kind.STRING),
+            new EndpointRow.Param("active", EndpointRow.In.QUERY, "true", EndpointRow.Kind.BOOLEAN),
+            new EndpointRow.Param("X-Tenant", EndpointRow.In.HEADER, "t" + i, EndpointRow.Kind.STRING))));
+        case 1 -> out.add(new EndpointRow("POST", res, "create" + i, "Create " + i, "application/json", jsonBody(rnd)));
+        case 2 -> out.add(new EndpointRow("PUT", res + "/{id}", "update" + i, "Update " + i,
+            "application/x-www-form-urlencoded", "name=it's&count=" + rnd.nextInt(1000) + "&tag=a+b"));
+        default -> out.add(new EndpointRow("DELETE", res + "/{id}", "delete" + i, "Delete " + i, null, null));
+      }
+    }
+    return out;
+  }
+
+  /** Like the UI's request builder: base + sample path and query, bearer token, header parameters, Content-Type and body. */
+  static Function<EndpointRow, HttpRequest> requestBuilder(String baseUrl, String token) {
+    String host = baseUrl.replaceFirst("^https?://", "").replaceFirst("/.*$", "");
+    return r -> {
+      List<HttpHeader> headers = new ArrayList<>();
+      headers.add(header("Host", host));
+      headers.add(header("User-Agent", "bench"));
+      headers.add(header("Accept", "application/json"));
+      headers.add(header("Authorization", "Bearer " + token));
+      headers.add(header("X-Request-Id", r.operationId()));
+      for (EndpointRow.Param p : r.params()) {
+        if (p.in() == EndpointRow.In.HEADER) headers.add(header(p.name(), p.sample()));
+      }
+      String body = r.bodyTemplate() == null ? "" : r.bodyTemplate();
+      if (!body.isEmpty()) headers.add(header("Content-Type", r.contentType()));
+      return request(r.method().toUpperCase(Locale.ROOT), baseUrl + SampleUrl.pathAndQuery(r), headers, body);
+    };
+  }
+
+  static HttpRequest request(String method, String url, List<HttpHeader> headers, String body) {
+    return (HttpRequest) Proxy.newProxyInstance(BenchData.class.getClassLoader(), new Class<?>[]{HttpRequest.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "method" -> method;
+          case "url" -> url;
+          case "headers" -> headers;
+          case "bodyToString" -> body;
+          case "toString" -> method + " " + url;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+
+  static HttpHeader header(String name, String value) {
+    return (HttpHeader) Proxy.newProxyInstance(BenchData.class.getClassLoader(), new Class<?>[]{HttpHeader.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "name" -> name;
+          case "value" -> value;
+          case "toString" -> name + ": " + value;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+
+  private static String jsonBody(Random rnd) {
+    return "{\"name\":\"it's \\\"quoted\\\"\",\"count\":" + rnd.nextInt(1000)
+        + ",\"email\":\"user" + rnd.nextInt(1000) + "@example.com\""
+        + ",\"tags\":[\"a\",\"b\",\"$HOME\"],\"nested\":{\"id\":" + rnd.nextInt(1000) + ",\"note\":\"line\\nbreak\"}}";
+  }
+}
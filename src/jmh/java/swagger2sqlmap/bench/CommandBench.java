@@ -0,0 +1,64 @@
+package swagger2sqlmap.bench;
+
+import burp.api.montoya.http.message.requests.HttpRequest;
+import org.openjdk.jmh.annotations.*;
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.sqlmap.SqlmapCommandBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** One sqlmap command per call, cycling through 1024 mixed requests. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CommandBench {
+
+  @Param({"IMPORTANT_ONLY", "ALL"})
+  public SqlmapCommandBuilder.Options.HeadersMode headersMode;
+
+  private EndpointRow[] rows;
+  private HttpRequest[] requests;
+  private SqlmapCommandBuilder.Options options;
+  private SqlmapCommandBuilder.Template template;
+  private final StringBuilder line = new StringBuilder(4096);
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    options = new SqlmapCommandBuilder.Options(
+        "sqlmap", true, headersMode, true, true, 3, 2, 4,
+        "between,space2comment", "BEUST", "--flush-session --output-dir=\"/tmp/sqlmap out\"", false,
+        SqlmapCommandBuilder.Options.ParamScope.DECLARED, SqlmapCommandBuilder.Options.DEFAULT_SKIP_KINDS);
+    template = SqlmapCommandBuilder.compile(options);
+
+    List<EndpointRow> list = BenchData.rows(1024, 1L);
+    rows = list.toArray(new EndpointRow[0]);
+    requests = list.stream()
+        .map(BenchData.requestBuilder("https://api.example.com/v1", "eyJhbGciOiJIUzI1NiJ9.e30.sig"))
+        .toArray(HttpRequest[]::new);
+  }
+
+  @Benchmark
+  public SqlmapCommandBuilder.SqlmapCommand build() {
+    int i = next++ & 1023;
+    return SqlmapCommandBuilder.build(rows[i], requests[i], options);
+  }
+
+  /** The per-row path of the UI and the runner. */
+  @Benchmark
+  public String buildAndQuote() {
+    int i = next++ & 1023;
+    return SqlmapCommandBuilder.toShellCommand(SqlmapCommandBuilder.build(rows[i], requests[i], options));
+  }
+
+  /** The per-row path of the exporter: compiled template, appended in place. */
+  @Benchmark
+  public int templateAppend() throws IOException {
+    int i = next++ & 1023;
+    line.setLength(0);
+    template.appendShellCommand(line, rows[i], requests[i]);
+    return line.length();
+  }
+}
@@ -0,0 +1,63 @@
+package swagger2sqlmap.bench;
+
+import org.openjdk.jmh.annotations.*;
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.sqlmap.SqlmapCommandBuilder;
+import swagger2sqlmap.sqlmap.SqlmapScriptExporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Whole-script generation: in memory (discarded) and streamed to a file. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExportBench {
+
+  @Param({"100", "10000"})
+  public int rows;
+
+  @Param({"sh", "py", "ps1"})
+  public String kind;
+
+  /** 1 = sequential script, more = parallel script. */
+  @Param({"1", "8"})
+  public int jobs;
+
+  private SqlmapScriptExporter exporter;
+  private Path dir;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    List<EndpointRow> endpoints = BenchData.rows(rows, 1L);
+    exporter = new SqlmapScriptExporter(
+        null,
+        BenchData.requestBuilder("https://api.example.com/v1", "eyJhbGciOiJIUzI1NiJ9.e30.sig"),
+        endpoints,
+        SqlmapCommandBuilder.Options.defaults(),
+        new SqlmapScriptExporter.ScriptOptions(jobs, "sqlmap-out", false));
+    dir = Files.createTempDirectory("swagger2sqlmap-bench-");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (var files = Files.list(dir)) {
+      for (Path p : files.toList()) Files.deleteIfExists(p);
+    }
+    Files.deleteIfExists(dir);
+  }
+
+  @Benchmark
+  public void generate() throws IOException {
+    exporter.writeScript(Writer.nullWriter(), kind);
+  }
+
+  @Benchmark
+  public void writeFile() throws IOException {
+    exporter.writeScript(dir.resolve("bench." + kind), kind, SqlmapScriptExporter.Listener.NONE);
+  }
+}
@@ -0,0 +1,67 @@
+package swagger2sqlmap.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.swagger.SwaggerParser;
+import swagger2sqlmap.swagger.TemplateCache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spec loading: whole file (read + extract) and extraction from an already parsed tree,
+ * on {@link SpecGenerator} specs (two operations with a body out of three per path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParserBench {
+
+  @Param({"100", "1000", "10000"})
+  public int paths;
+
+  @Param({"1", "4", "8"})
+  public int refDepth;
+
+  @Param({"SWAGGER_2", "OPENAPI_3"})
+  public SpecGenerator.Dialect dialect;
+
+  private Path dir;
+  private Path file;
+  private JsonNode root;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    dir = Files.createTempDirectory("swagger2sqlmap-bench-");
+    file = dir.resolve("spec.json");
+    SpecGenerator.write(SpecGenerator.Config.of(dialect, paths, refDepth), file);
+    root = new ObjectMapper().readTree(file.toFile());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(SpecGenerator.sidecarFor(file));
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(dir);
+  }
+
+  @Benchmark
+  public SwaggerParser.ParseResult parse() throws Exception {
+    return SwaggerParser.parse(file.toFile(), SwaggerParser.Options.defaults());
+  }
+
+  /** Fresh template cache per call, as for a newly imported spec. */
+  @Benchmark
+  public List<EndpointRow> extractEndpoints() {
+    return SwaggerParser.extractEndpoints(root, file, new TemplateCache(), 1, SwaggerParser.Listener.NONE);
+  }
+
+  @Benchmark
+  public List<EndpointRow> extractEndpointsParallel() {
+    return SwaggerParser.extractEndpoints(root, file, new TemplateCache(), 4, SwaggerParser.Listener.NONE);
+  }
+}
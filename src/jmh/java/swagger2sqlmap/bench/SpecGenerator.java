@@ -0,0 +1,561 @@
+package swagger2sqlmap.bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic Swagger 2 / OpenAPI 3 documents for benchmarks and soak tests.
+ *
+ * Documents are written through a {@link JsonGenerator} while they are generated, so heap
+ * use does not grow with the output and 1 GB specs need no more memory than small ones.
+ * Every decision is drawn from a random stream derived from (seed, kind, index), so the
+ * same config always produces byte-identical files.
+ *
+ * The output exercises the parser's branches: OpenAPI servers and Swagger host/basePath,
+ * all seven methods, path-level keys that are not operations, $ref'd parameters and
+ * request bodies, JSON / XML / multipart / urlencoded bodies, formData parameters, media
+ * without schema, shared and inline schemas, $ref chains (past the object depth limit when
+ * {@code depth} > 8), circular refs, allOf / oneOf / anyOf, arrays, untyped objects,
+ * enum / default / example values, string formats and refs into a sidecar file.
+ *
+ * Run {@code ./gradlew generateSpec -PspecArgs="out.json paths=100000 dialect=swagger_2"}
+ * for a file; see {@link #main}.
+ */
+public final class SpecGenerator {
+
+  public enum Dialect { SWAGGER_2, OPENAPI_3 }
+
+  /**
+   * @param seed             same seed and config, same document
+   * @param paths            path items
+   * @param methodsPerPath   operations per path item, 1-7 (get, post, put, patch, delete, head, options)
+   * @param models           shared model chains ("Model{m}_{level}")
+   * @param fanOut           properties per object schema, form fields per form body
+   * @param depth            models per chain; level n has a "child" $ref to level n + 1
+   * @param sharedRefRatio   share of bodies that $ref a shared model (the rest are inline schemas)
+   * @param circularRatio    share of chains whose last model refs back to the first
+   * @param compositionRatio share of shared-model refs wrapped in allOf / oneOf / anyOf
+   * @param formRatio        share of bodies sent as form data
+   * @param externalRatio    share of models written to "{name}.models.json" next to the spec
+   *                         and referenced from it
+   */
+  public record Config(long seed,
+                       Dialect dialect,
+                       int paths,
+                       int methodsPerPath,
+                       int models,
+                       int fanOut,
+                       int depth,
+                       double sharedRefRatio,
+                       double circularRatio,
+                       double compositionRatio,
+                       double formRatio,
+                       double externalRatio) {
+
+    public static Config defaults() {
+      return new Config(1L, Dialect.OPENAPI_3, 100, 3, 20, 6, 3, 0.7, 0.1, 0.2, 0.2, 0.0);
+    }
+
+    /** Defaults with the knobs the benchmarks vary. */
+    public static Config of(Dialect dialect, int paths, int depth) {
+      Config d = defaults();
+      return new Config(d.seed, dialect, paths, d.methodsPerPath, Math.max(1, paths / 10), d.fanOut, depth,
+          d.sharedRefRatio, d.circularRatio, d.compositionRatio, d.formRatio, d.externalRatio);
+    }
+
+    public int operations() {
+      return paths * Math.max(1, Math.min(methodsPerPath, METHODS.length));
+    }
+  }
+
+  private static final String[] METHODS = {"get", "post", "put", "patch", "delete", "head", "options"};
+
+  /** Random stream kinds, so adding draws to one kind does not shift the others. */
+  private static final int DOCUMENT = 0, PATH = 1, OPERATION = 2, CHAIN = 3, MODEL_FIELD = 4, FIELD = 5;
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private final Config c;
+  private final boolean oas3;
+  private final int methods;
+  private final int models;
+  private final int externalModels;
+  private final String sidecarName;
+
+  private SpecGenerator(Config c, String sidecarName) {
+    this.c = c;
+    this.oas3 = c.dialect() == Dialect.OPENAPI_3;
+    this.methods = Math.max(1, Math.min(c.methodsPerPath(), METHODS.length));
+    this.models = Math.max(1, c.models());
+    this.externalModels = (int) Math.round(models * clamp(c.externalRatio()));
+    this.sidecarName = sidecarName;
+  }
+
+  /**
+   * Writes the spec to {@code out}, plus "{name}.models.json" next to it when
+   * {@link Config#externalRatio()} moves models out of the main document.
+   */
+  public static void write(Config c, Path out) throws IOException {
+    Path sidecar = sidecarFor(out);
+    SpecGenerator gen = new SpecGenerator(c, sidecar.getFileName().toString());
+
+    try (JsonGenerator g = JSON.createGenerator(out.toFile(), JsonEncoding.UTF8)) {
+      gen.document(g);
+    }
+    if (gen.externalModels > 0) {
+      try (JsonGenerator g = JSON.createGenerator(sidecar.toFile(), JsonEncoding.UTF8)) {
+        gen.sidecar(g);
+      }
+    }
+  }
+
+  static Path sidecarFor(Path spec) {
+    String name = spec.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return spec.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".models.json");
+  }
+
+  /**
+   * {@code SpecGenerator <out.json> [key=value ...]}; keys are the {@link Config} components
+   * (dialect=swagger_2|openapi_3, seed, paths, methodsPerPath, models, fanOut, depth,
+   * sharedRefRatio, circularRatio, compositionRatio, formRatio, externalRatio).
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("usage: SpecGenerator <out.json> [key=value ...]");
+      System.exit(2);
+    }
+
+    Config d = Config.defaults();
+    long seed = d.seed();
+    Dialect dialect = d.dialect();
+    int paths = d.paths(), methodsPerPath = d.methodsPerPath(), models = -1, fanOut = d.fanOut(), depth = d.depth();
+    double shared = d.sharedRefRatio(), circular = d.circularRatio(), composition = d.compositionRatio();
+    double form = d.formRatio(), external = d.externalRatio();
+
+    for (int i = 1; i < args.length; i++) {
+      String[] kv = args[i].split("=", 2);
+      if (kv.length != 2) throw new IllegalArgumentException("Expected key=value: " + args[i]);
+      String v = kv[1].trim();
+      switch (kv[0].trim()) {
+        case "seed" -> seed = Long.parseLong(v);
+        case "dialect" -> dialect = Dialect.valueOf(v.toUpperCase(Locale.ROOT));
+        case "paths" -> paths = Integer.parseInt(v);
+        case "methodsPerPath" -> methodsPerPath = Integer.parseInt(v);
+        case "models" -> models = Integer.parseInt(v);
+        case "fanOut" -> fanOut = Integer.parseInt(v);
+        case "depth" -> depth = Integer.parseInt(v);
+        case "sharedRefRatio" -> shared = Double.parseDouble(v);
+        case "circularRatio" -> circular = Double.parseDouble(v);
+        case "compositionRatio" -> composition = Double.parseDouble(v);
+        case "formRatio" -> form = Double.parseDouble(v);
+        case "externalRatio" -> external = Double.parseDouble(v);
+        default -> throw new IllegalArgumentException("Unknown key: " + kv[0]);
+      }
+    }
+    if (models < 0) models = Math.max(1, paths / 10);
+
+    Config c = new Config(seed, dialect, paths, methodsPerPath, models, fanOut, depth,
+        shared, circular, composition, form, external);
+    Path out = Path.of(args[0]).toAbsolutePath();
+    if (out.getParent() != null) Files.createDirectories(out.getParent());
+
+    long start = System.nanoTime();
+    write(c, out);
+    System.out.printf(Locale.ROOT, "%s: %d operations, %,d bytes, %d ms%n",
+        out, c.operations(), Files.size(out), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  // ================= document =================
+
+  private void document(JsonGenerator g) throws IOException {
+    g.writeStartObject();
+    if (oas3) {
+      g.writeStringField("openapi", "3.0.3");
+      info(g);
+      g.writeArrayFieldStart("servers");
+      g.writeStartObject();
+      g.writeStringField("url", "https://api.example.com/v1/");
+      g.writeEndObject();
+      g.writeEndArray();
+    } else {
+      g.writeStringField("swagger", "2.0");
+      info(g);
+      g.writeStringField("host", "api.example.com");
+      g.writeStringField("basePath", "/v1");
+      if (random(DOCUMENT, 0).nextBoolean()) { // otherwise no schemes: the parser defaults to https
+        g.writeArrayFieldStart("schemes");
+        g.writeString("https");
+        g.writeEndArray();
+      }
+      g.writeArrayFieldStart("consumes");
+      g.writeString("application/json");
+      g.writeEndArray();
+    }
+
+    g.writeObjectFieldStart("paths");
+    for (int i = 0; i < c.paths(); i++) pathItem(g, i);
+    g.writeEndObject();
+
+    if (oas3) {
+      g.writeObjectFieldStart("components");
+      g.writeObjectFieldStart("parameters");
+      idParameter(g);
+      g.writeEndObject();
+      g.writeObjectFieldStart("requestBodies");
+      for (int m = 0; m < models; m++) {
+        g.writeObjectFieldStart(requestBodyName(m));
+        g.writeBooleanField("required", true);
+        g.writeObjectFieldStart("content");
+        g.writeObjectFieldStart("application/json");
+        g.writeObjectFieldStart("schema");
+        g.writeStringField("$ref", modelRef(m, 0, true));
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+      }
+      g.writeEndObject();
+      g.writeObjectFieldStart("schemas");
+      for (int m = externalModels; m < models; m++) modelChain(g, m);
+      g.writeEndObject();
+      g.writeEndObject();
+    } else {
+      g.writeObjectFieldStart("parameters");
+      idParameter(g);
+      g.writeEndObject();
+      g.writeObjectFieldStart("definitions");
+      for (int m = externalModels; m < models; m++) modelChain(g, m);
+      g.writeEndObject();
+    }
+    g.writeEndObject();
+  }
+
+  /** Models 0 .. externalModels - 1, under the same pointer as in the main document. */
+  private void sidecar(JsonGenerator g) throws IOException {
+    g.writeStartObject();
+    if (oas3) {
+      g.writeObjectFieldStart("components");
+      g.writeObjectFieldStart("schemas");
+    } else {
+      g.writeObjectFieldStart("definitions");
+    }
+    for (int m = 0; m < externalModels; m++) modelChain(g, m);
+    g.writeEndObject();
+    if (oas3) g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  private void info(JsonGenerator g) throws IOException {
+    g.writeObjectFieldStart("info");
+    g.writeStringField("title", "Synthetic API (seed " + c.seed() + ")");
+    g.writeStringField("version", "1.0.0");
+    g.writeEndObject();
+  }
+
+  private void idParameter(JsonGenerator g) throws IOException {
+    g.writeObjectFieldStart("Id");
+    g.writeStringField("name", "id");
+    g.writeStringField("in", "path");
+    g.writeBooleanField("required", true);
+    if (oas3) g.writeObjectFieldStart("schema");
+    g.writeStringField("type", "integer");
+    g.writeStringField("format", "int64");
+    if (oas3) g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  // ================= paths =================
+
+  private void pathItem(JsonGenerator g, int i) throws IOException {
+    SplittableRandom r = random(PATH, i);
+    boolean withId = r.nextInt(5) != 0;
+
+    g.writeObjectFieldStart("/r" + i + (withId ? "/items/{id}" : ""));
+    if (withId) { // path-level keys: skipped by the parser
+      g.writeStringField("summary", "Resource " + i);
+      g.writeArrayFieldStart("parameters");
+      g.writeStartObject();
+      g.writeStringField("$ref", oas3 ? "#/components/parameters/Id" : "#/parameters/Id");
+      g.writeEndObject();
+      g.writeEndArray();
+    }
+    for (int k = 0; k < methods; k++) operation(g, i, k, withId);
+    g.writeEndObject();
+  }
+
+  private void operation(JsonGenerator g, int path, int k, boolean withId) throws IOException {
+    String method = METHODS[k];
+    SplittableRandom r = random(OPERATION, (long) path * METHODS.length + k);
+
+    g.writeObjectFieldStart(method);
+    if (r.nextInt(20) != 0) g.writeStringField("operationId", method + "R" + path);
+    g.writeStringField(r.nextBoolean() ? "summary" : "description", method.toUpperCase(Locale.ROOT) + " resource " + path);
+    g.writeArrayFieldStart("tags");
+    g.writeString("r" + path % 20);
+    g.writeEndArray();
+
+    boolean hasBody = method.equals("post") || method.equals("put") || method.equals("patch");
+    boolean form = hasBody && chance(r, c.formRatio());
+    boolean shared = hasBody && !form && chance(r, c.sharedRefRatio());
+    int model = r.nextInt(models);
+
+    if (!oas3 && hasBody) {
+      if (form) consumes(g, r.nextInt(4) == 0 ? "multipart/form-data" : "application/x-www-form-urlencoded");
+      else if (r.nextInt(10) == 0) consumes(g, "application/xml", "application/json"); // JSON still preferred
+      else if (r.nextInt(20) == 0) consumes(g, "text/plain");
+    }
+
+    g.writeArrayFieldStart("parameters");
+    queryParameter(g, "page", "integer", "1");
+    queryParameter(g, "q", "string", null);
+    if (!oas3 && hasBody) {
+      if (form) {
+        for (int f = 0; f < c.fanOut(); f++) {
+          g.writeStartObject();
+          g.writeStringField("name", "field" + f);
+          g.writeStringField("in", "formData");
+          scalar(g, random(FIELD, (long) path * 64 + f));
+          g.writeEndObject();
+        }
+      } else {
+        g.writeStartObject();
+        g.writeStringField("name", "body");
+        g.writeStringField("in", "body");
+        g.writeBooleanField("required", true);
+        g.writeFieldName("schema");
+        bodySchema(g, r, shared, model, path);
+        g.writeEndObject();
+      }
+    }
+    g.writeEndArray();
+
+    if (oas3 && hasBody) requestBody(g, r, form, shared, model, path);
+
+    g.writeObjectFieldStart("responses");
+    g.writeObjectFieldStart("200");
+    g.writeStringField("description", "OK");
+    g.writeEndObject();
+    g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  private void requestBody(JsonGenerator g, SplittableRandom r, boolean form, boolean shared, int model, int path)
+      throws IOException {
+    if (shared && r.nextBoolean()) {
+      g.writeObjectFieldStart("requestBody");
+      g.writeStringField("$ref", "#/components/requestBodies/" + requestBodyName(model));
+      g.writeEndObject();
+      return;
+    }
+
+    String ct;
+    if (form) ct = "application/x-www-form-urlencoded";
+    else {
+      int pick = r.nextInt(10);
+      ct = pick == 0 ? "application/xml" : pick == 1 ? "multipart/form-data" : "application/json";
+    }
+
+    g.writeObjectFieldStart("requestBody");
+    g.writeObjectFieldStart("content");
+    g.writeObjectFieldStart(ct);
+    if (r.nextInt(50) != 0) { // otherwise media type without schema
+      g.writeFieldName("schema");
+      if (form) inlineObject(g, path, false);
+      else bodySchema(g, r, shared, model, path);
+    }
+    g.writeEndObject();
+    g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  private void consumes(JsonGenerator g, String... types) throws IOException {
+    g.writeArrayFieldStart("consumes");
+    for (String t : types) g.writeString(t);
+    g.writeEndArray();
+  }
+
+  private void queryParameter(JsonGenerator g, String name, String type, String def) throws IOException {
+    g.writeStartObject();
+    g.writeStringField("name", name);
+    g.writeStringField("in", "query");
+    if (oas3) g.writeObjectFieldStart("schema");
+    g.writeStringField("type", type);
+    if (def != null) g.writeStringField("default", def);
+    if (oas3) g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  // ================= schemas =================
+
+  private void bodySchema(JsonGenerator g, SplittableRandom r, boolean shared, int model, int path) throws IOException {
+    if (!shared) {
+      inlineObject(g, path, true);
+      return;
+    }
+    if (!chance(r, c.compositionRatio())) {
+      ref(g, modelRef(model, 0, true));
+      return;
+    }
+
+    int other = r.nextInt(models);
+    String keyword = oas3 ? new String[]{"allOf", "oneOf", "anyOf"}[r.nextInt(3)] : "allOf";
+    g.writeStartObject();
+    g.writeArrayFieldStart(keyword);
+    ref(g, modelRef(model, 0, true));
+    if (keyword.equals("allOf")) {
+      g.writeStartObject();
+      g.writeStringField("type", "object");
+      g.writeObjectFieldStart("properties");
+      g.writeObjectFieldStart("extra");
+      g.writeStringField("type", "string");
+      g.writeEndObject();
+      g.writeEndObject();
+      g.writeEndObject();
+    } else {
+      ref(g, modelRef(other, 0, true));
+    }
+    g.writeEndArray();
+    g.writeEndObject();
+  }
+
+  /** Object of scalars; {@code nested} adds an array of objects and an untyped object. */
+  private void inlineObject(JsonGenerator g, int path, boolean nested) throws IOException {
+    g.writeStartObject();
+    g.writeStringField("type", "object");
+    g.writeObjectFieldStart("properties");
+    for (int f = 0; f < c.fanOut(); f++) {
+      g.writeObjectFieldStart("field" + f);
+      scalar(g, random(FIELD, (long) path * 64 + f));
+      g.writeEndObject();
+    }
+    if (nested) {
+      g.writeObjectFieldStart("items");
+      g.writeStringField("type", "array");
+      g.writeObjectFieldStart("items");
+      g.writeObjectFieldStart("properties");
+      g.writeObjectFieldStart("sku");
+      g.writeStringField("type", "string");
+      g.writeEndObject();
+      g.writeObjectFieldStart("quantity");
+      g.writeStringField("type", "integer");
+      g.writeEndObject();
+      g.writeEndObject();
+      g.writeEndObject();
+      g.writeEndObject();
+      g.writeObjectFieldStart("metadata");
+      g.writeStringField("type", "object");
+      g.writeEndObject();
+    }
+    g.writeEndObject();
+    g.writeEndObject();
+  }
+
+  private void modelChain(JsonGenerator g, int m) throws IOException {
+    boolean circular = chance(random(CHAIN, m), c.circularRatio());
+    int depth = Math.max(1, c.depth());
+
+    for (int level = 0; level < depth; level++) {
+      g.writeObjectFieldStart(modelName(m, level));
+      g.writeStringField("type", "object");
+      g.writeObjectFieldStart("properties");
+      for (int f = 0; f < c.fanOut(); f++) {
+        g.writeObjectFieldStart("p" + f);
+        scalar(g, random(MODEL_FIELD, (long) m * 4096 + (long) level * 64 + f));
+        g.writeEndObject();
+      }
+      if (level + 1 < depth) {
+        g.writeFieldName("child");
+        ref(g, modelRef(m, level + 1, false));
+      } else if (circular) {
+        g.writeFieldName("parent");
+        ref(g, modelRef(m, 0, false));
+      }
+      if (level == 0) {
+        g.writeObjectFieldStart("related");
+        g.writeStringField("type", "array");
+        g.writeFieldName("items");
+        ref(g, modelRef((m + 1) % models, 0, false));
+        g.writeEndObject();
+      }
+      g.writeEndObject();
+      g.writeEndObject();
+    }
+  }
+
+  /** Fields of one scalar schema (or Swagger 2 formData parameter) into the open object. */
+  private void scalar(JsonGenerator g, SplittableRandom r) throws IOException {
+    switch (r.nextInt(12)) {
+      case 0 -> typed(g, "integer", "int32");
+      case 1 -> typed(g, "integer", "int64");
+      case 2 -> typed(g, "number", "float");
+      case 3 -> typed(g, "number", "double");
+      case 4 -> typed(g, "boolean", null);
+      case 5 -> typed(g, "string", "date-time");
+      case 6 -> typed(g, "string", "date");
+      case 7 -> typed(g, "string", "uuid");
+      case 8 -> typed(g, "string", "email");
+      case 9 -> typed(g, "string", "uri");
+      case 10 -> typed(g, "string", "password");
+      default -> typed(g, "string", null);
+    }
+
+    switch (r.nextInt(10)) {
+      case 0 -> {
+        g.writeArrayFieldStart("enum");
+        g.writeString("alpha");
+        g.writeString("beta");
+        g.writeEndArray();
+      }
+      case 1 -> g.writeStringField("default", "fallback");
+      case 2 -> g.writeStringField("example", "sample-" + r.nextInt(1000));
+      default -> {}
+    }
+  }
+
+  private static void typed(JsonGenerator g, String type, String format) throws IOException {
+    g.writeStringField("type", type);
+    if (format != null) g.writeStringField("format", format);
+  }
+
+  private static void ref(JsonGenerator g, String ref) throws IOException {
+    g.writeStartObject();
+    g.writeStringField("$ref", ref);
+    g.writeEndObject();
+  }
+
+  /** {@code fromMain}: the ref is written in the main document (external models live in the sidecar). */
+  private String modelRef(int m, int level, boolean fromMain) {
+    String pointer = (oas3 ? "#/components/schemas/" : "#/definitions/") + modelName(m, level);
+    return fromMain && m < externalModels ? sidecarName + pointer : pointer;
+  }
+
+  private static String modelName(int m, int level) {
+    return "Model" + m + "_" + level;
+  }
+
+  private static String requestBodyName(int m) {
+    return "Model" + m + "Body";
+  }
+
+  // ================= randomness =================
+
+  private SplittableRandom random(int kind, long index) {
+    return new SplittableRandom(c.seed() * 0x9E3779B97F4A7C15L + ((long) kind << 48) + index);
+  }
+
+  private static boolean chance(SplittableRandom r, double ratio) {
+    return r.nextDouble() < clamp(ratio);
+  }
+
+  private static double clamp(double ratio) {
+    return Math.max(0, Math.min(1, ratio));
+  }
+}
@@ -11,6 +11,7 @@ public class Swagger2SqlmapExtension implements BurpExtension {
 
     Swagger2SqlmapUi ui = new Swagger2SqlmapUi(api);
     api.userInterface().registerSuiteTab("Swagger2Sqlmap", ui.getRoot());
+    api.extension().registerUnloadingHandler(ui::dispose);
 
     api.logging().logToOutput("Swagger2Sqlmap: UI loaded (table mode).");
   }
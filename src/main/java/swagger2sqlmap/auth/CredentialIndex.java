@@ -0,0 +1,197 @@
+package swagger2sqlmap.auth;
+
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.proxy.http.InterceptedRequest;
+import burp.api.montoya.proxy.http.ProxyRequestHandler;
+import burp.api.montoya.proxy.http.ProxyRequestReceivedAction;
+import burp.api.montoya.proxy.http.ProxyRequestToBeSentAction;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest credentials seen per host in proxied traffic: Bearer token, Cookie header and
+ * API-key style headers. Fed by {@link #proxyHandler()} as requests pass through the
+ * proxy, so a lookup is a map get instead of a walk over the proxy history.
+ *
+ * Thread-safe. {@link #observe} runs on Burp's proxy threads for every request: it scans
+ * the headers once and only takes the lock when a credential is present. At most
+ * {@link #MAX_HOSTS} hosts are kept; the least recently used one is dropped first.
+ */
+public final class CredentialIndex {
+
+  public static final int MAX_HOSTS = 256;
+
+  /** Credentials of one host; a field is null (apiKeys empty) when not seen yet. */
+  public record Credentials(String host, String bearer, String cookie, Map<String, String> apiKeys, long updatedAt) {}
+
+  /**
+   * Told about new Bearer tokens from {@link #observe} (not {@link #seed}), on the thread that
+   * saw the request (a proxy thread); hand off to the EDT for UI work.
+   */
+  public interface Listener {
+    void onBearerChanged(Credentials credentials);
+  }
+
+  private final Map<String, Credentials> byHost = new LinkedHashMap<>(32, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Credentials> eldest) {
+      return size() > MAX_HOSTS;
+    }
+  };
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private volatile Credentials latestBearer;
+
+  public void addListener(Listener l) {
+    listeners.add(l);
+  }
+
+  /** Proxy handler that indexes each request as it is sent upstream; never changes or intercepts it. */
+  public ProxyRequestHandler proxyHandler() {
+    return new ProxyRequestHandler() {
+      @Override
+      public ProxyRequestReceivedAction handleRequestReceived(InterceptedRequest request) {
+        return ProxyRequestReceivedAction.continueWith(request);
+      }
+
+      @Override
+      public ProxyRequestToBeSentAction handleRequestToBeSent(InterceptedRequest request) {
+        try {
+          observe(request);
+        } catch (RuntimeException ignored) {
+          // indexing must never break proxying
+        }
+        return ProxyRequestToBeSentAction.continueWith(request);
+      }
+    };
+  }
+
+  /** Records the request's credentials as the newest for its host. */
+  public void observe(HttpRequest request) {
+    index(request, true);
+  }
+
+  /**
+   * Records the request's credentials only where the host has none yet. For back-filling
+   * from older traffic (proxy history, newest first) without overwriting live values.
+   */
+  public void seed(HttpRequest request) {
+    index(request, false);
+  }
+
+  /** Null when nothing was seen for {@code host}. */
+  public Credentials forHost(String host) {
+    if (host == null) return null;
+    synchronized (byHost) {
+      return byHost.get(host.toLowerCase(Locale.ROOT));
+    }
+  }
+
+  /** Credentials of the host that most recently sent a new Bearer token, or null. */
+  public Credentials latestBearer() {
+    return latestBearer;
+  }
+
+  public int size() {
+    synchronized (byHost) {
+      return byHost.size();
+    }
+  }
+
+  private void index(HttpRequest request, boolean overwrite) {
+    String bearer = null, cookie = null;
+    Map<String, String> apiKeys = null;
+
+    for (HttpHeader h : request.headers()) {
+      String name = h.name();
+      String value = h.value() == null ? "" : h.value().trim();
+      if (value.isEmpty()) continue;
+
+      if ("Authorization".equalsIgnoreCase(name)) {
+        if (value.regionMatches(true, 0, "bearer ", 0, 7)) {
+          bearer = value.substring(7).trim();
+        } else {
+          if (apiKeys == null) apiKeys = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+          apiKeys.put(name, value); // Basic, Token, custom schemes
+        }
+      } else if ("Cookie".equalsIgnoreCase(name)) {
+        cookie = value;
+      } else if (isApiKeyHeader(name)) {
+        if (apiKeys == null) apiKeys = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        apiKeys.put(name, value);
+      }
+    }
+    if (bearer == null && cookie == null && apiKeys == null) return;
+
+    String host = hostOf(request);
+    if (host.isEmpty()) return;
+
+    Credentials next;
+    boolean bearerChanged;
+    synchronized (byHost) {
+      Credentials prev = byHost.get(host);
+      if (prev == null) prev = new Credentials(host, null, null, Map.of(), 0);
+
+      Map<String, String> keys = prev.apiKeys();
+      if (apiKeys != null) {
+        Map<String, String> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (overwrite) {
+          merged.putAll(keys);
+          merged.putAll(apiKeys);
+        } else {
+          merged.putAll(apiKeys);
+          merged.putAll(keys);
+        }
+        keys = Collections.unmodifiableMap(merged);
+      }
+
+      next = new Credentials(host,
+          pick(prev.bearer(), bearer, overwrite),
+          pick(prev.cookie(), cookie, overwrite),
+          keys,
+          overwrite || prev.updatedAt() == 0 ? System.currentTimeMillis() : prev.updatedAt());
+      if (next.equals(prev)) return;
+
+      byHost.put(host, next);
+      bearerChanged = next.bearer() != null && !next.bearer().equals(prev.bearer());
+      if (bearerChanged && (overwrite || latestBearer == null)) latestBearer = next;
+    }
+
+    if (!bearerChanged || !overwrite) return; // back-filled tokens are not "newer"
+    for (Listener l : listeners) l.onBearerChanged(next);
+  }
+
+  private static String pick(String current, String seen, boolean overwrite) {
+    if (seen == null) return current;
+    return overwrite || current == null ? seen : current;
+  }
+
+  /** X-API-Key, Api-Key, X-ApiKey, X-Auth-Token, X-Access-Token and the like. */
+  static boolean isApiKeyHeader(String name) {
+    String n = name.toLowerCase(Locale.ROOT);
+    return n.contains("api-key") || n.contains("apikey") || n.contains("api_key")
+        || n.equals("x-auth-token") || n.equals("x-access-token");
+  }
+
+  /** Lowercase host (no port) the request goes to; "" when unknown. */
+  public static String hostOf(HttpRequest request) {
+    try {
+      if (request.httpService() != null && request.httpService().host() != null) {
+        return request.httpService().host().toLowerCase(Locale.ROOT);
+      }
+    } catch (RuntimeException ignored) {
+      // fall back to the Host header
+    }
+    String host = Objects.requireNonNullElse(request.headerValue("Host"), "").trim();
+    int colon = host.lastIndexOf(':');
+    if (colon > 0 && host.indexOf(']') < colon) host = host.substring(0, colon);
+    return host.toLowerCase(Locale.ROOT);
+  }
+}
@@ -1,10 +1,84 @@
 package swagger2sqlmap.model;
 
+import java.util.List;
+import java.util.Locale;
+
 public record EndpointRow(
     String method,
     String path,
     String operationId,
     String summary,
-    String contentType,     
-    String bodyTemplate     
-) {}
+    String contentType,
+    String bodyTemplate,
+    List<Param> params      // declared path / query / header / cookie parameters and typed body fields, never null
+) {
+
+  public EndpointRow {
+    params = params == null || params.isEmpty() ? List.of() : List.copyOf(params);
+  }
+
+  /** Row without declared parameters. */
+  public EndpointRow(String method, String path, String operationId, String summary,
+                     String contentType, String bodyTemplate) {
+    this(method, path, operationId, summary, contentType, bodyTemplate, List.of());
+  }
+
+  /**
+   * Parameter location ({@code in}). BODY is a field of the generated body (JSON leaf or form
+   * pair); only fields of a constrained {@link Kind} are listed, the body itself carries them.
+   */
+  public enum In {
+    PATH, QUERY, HEADER, COOKIE, BODY;
+
+    /** Spec {@code in} value; null for body, formData and unknown locations. */
+    public static In of(String in) {
+      if (in == null) return null;
+      return switch (in.toLowerCase(Locale.ROOT)) {
+        case "path" -> PATH;
+        case "query" -> QUERY;
+        case "header" -> HEADER;
+        case "cookie" -> COOKIE;
+        default -> null;
+      };
+    }
+  }
+
+  /**
+   * What the schema lets through: everything but STRING is validated by a typical API
+   * before any query. Declared from most to least promising to inject into.
+   */
+  public enum Kind {
+    STRING,   // free text, email, password, uri, unknown
+    NUMBER,
+    DATE,     // date, date-time
+    UUID,
+    ENUM,
+    BOOLEAN
+  }
+
+  /** A declared parameter and a sample value of its type (not encoded). */
+  public record Param(String name, In in, String sample, Kind kind) {
+    public Param {
+      if (kind == null) kind = Kind.STRING;
+    }
+  }
+
+  /** Sample of the declared parameter, or null when there is none. */
+  public String sample(In in, String name) {
+    Param p = param(in, name);
+    return p == null ? null : p.sample();
+  }
+
+  /** Kind of the declared parameter, or null when there is none. */
+  public Kind kind(In in, String name) {
+    Param p = param(in, name);
+    return p == null ? null : p.kind();
+  }
+
+  private Param param(In in, String name) {
+    for (Param p : params) {
+      if (p.in() == in && (in == In.HEADER ? p.name().equalsIgnoreCase(name) : p.name().equals(name))) return p;
+    }
+    return null;
+  }
+}
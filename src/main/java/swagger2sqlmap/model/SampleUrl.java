@@ -0,0 +1,101 @@
+package swagger2sqlmap.model;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Path and query string of a row's sample request, built in one pass over the path
+ * template. Each {name} gets the observed value for that name, else the declared sample,
+ * else "1"; the declared query parameters are appended the same way. Values are
+ * percent-encoded for where they go (a path segment or a query component).
+ */
+public final class SampleUrl {
+
+  private SampleUrl() {}
+
+  /** With the declared samples only. */
+  public static String pathAndQuery(EndpointRow r) {
+    return pathAndQuery(r, name -> null);
+  }
+
+  /**
+   * @param observed value seen in real traffic for a path or query parameter name, or null;
+   *                 takes precedence over the declared sample
+   */
+  public static String pathAndQuery(EndpointRow r, Function<String, String> observed) {
+    String path = r.path() == null ? "" : r.path().trim();
+    int q = path.indexOf('?');
+    String template = q < 0 ? path : path.substring(0, q);
+
+    StringBuilder out = new StringBuilder(path.length() + 32);
+    if (!template.startsWith("/")) out.append('/');
+
+    int i = 0;
+    while (i < template.length()) {
+      int open = template.indexOf('{', i);
+      int close = open < 0 ? -1 : template.indexOf('}', open);
+      if (close < 0) break;
+
+      String name = template.substring(open + 1, close);
+      out.append(template, i, open).append(encodeSegment(valueOf(r, EndpointRow.In.PATH, name, "1", observed)));
+      i = close + 1;
+    }
+    out.append(template, i, template.length());
+
+    // a query string written into the spec's path key, then the declared query parameters
+    char sep = '?';
+    if (q >= 0) {
+      for (String pair : path.substring(q + 1).split("&")) {
+        if (pair.isEmpty()) continue;
+        out.append(sep);
+        sep = '&';
+
+        int eq = pair.indexOf('=');
+        String seen = eq <= 0 ? null : observed.apply(decode(pair.substring(0, eq)));
+        if (seen == null) out.append(pair);
+        else out.append(pair, 0, eq + 1).append(encodeQuery(seen));
+      }
+    }
+    for (EndpointRow.Param p : r.params()) {
+      if (p.in() != EndpointRow.In.QUERY) continue;
+      out.append(sep).append(encodeQuery(p.name())).append('=')
+          .append(encodeQuery(valueOf(r, EndpointRow.In.QUERY, p.name(), "", observed)));
+      sep = '&';
+    }
+    return out.toString();
+  }
+
+  private static String valueOf(EndpointRow r, EndpointRow.In in, String name, String fallback,
+                                Function<String, String> observed) {
+    String seen = observed.apply(name);
+    if (seen != null) return seen;
+    String sample = r.sample(in, name);
+    return sample != null ? sample : fallback;
+  }
+
+  /** Percent-encodes a value for use as one path segment ('/' included). */
+  static String encodeSegment(String v) {
+    try {
+      return new URI(null, null, v, null).toASCIIString().replace("/", "%2F").replace(";", "%3B")
+          .replace("?", "%3F").replace("#", "%23");
+    } catch (Exception e) {
+      return URLEncoder.encode(v, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+  }
+
+  /** application/x-www-form-urlencoded, as sqlmap and most servers parse query strings. */
+  static String encodeQuery(String v) {
+    return URLEncoder.encode(v, StandardCharsets.UTF_8);
+  }
+
+  private static String decode(String s) {
+    try {
+      return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      return s;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package swagger2sqlmap.probe;
+
+import burp.api.montoya.http.message.requests.HttpRequest;
+import swagger2sqlmap.model.EndpointRow;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pre-flight liveness check: sends each endpoint's request once and records status,
+ * latency and response size, so endpoints that answer 404/405/401 to everything can be
+ * left out of exports and runs before sqlmap spends its time on them.
+ *
+ * Requests go through a {@link Transport} (Burp's HTTP stack in the extension, anything
+ * else against a stub server) from {@code concurrency} worker threads; requests to the
+ * same host are spaced by a {@link HostRateLimiter}.
+ */
+public final class EndpointProber {
+
+  /** How an endpoint answered its probe. */
+  public enum Verdict {
+    ALIVE,
+    /** 401 / 403: the token is missing, expired or lacks the scope. */
+    UNAUTHORIZED,
+    /** 404 / 405 / 410 / 501: nothing to test there. */
+    DEAD,
+    /** No response; may be transient, so never skipped. */
+    ERROR;
+
+    /** Left out of exports and runs when "Skip dead" is ticked. */
+    public boolean isSkippable() {
+      return this == UNAUTHORIZED || this == DEAD;
+    }
+  }
+
+  /**
+   * @param status HTTP status, -1 when there was no response
+   * @param latencyMs time spent in the transport (rate-limit waits excluded)
+   * @param bytes response body size, -1 when there was no response
+   * @param error why there was no response, else null
+   */
+  public record Result(int status, long latencyMs, long bytes, String error) {
+
+    public static Result failed(long latencyMs, String error) {
+      return new Result(-1, latencyMs, -1, error);
+    }
+
+    public Verdict verdict() {
+      if (status < 0) return Verdict.ERROR;
+      return switch (status) {
+        case 401, 403 -> Verdict.UNAUTHORIZED;
+        case 404, 405, 410, 501 -> Verdict.DEAD;
+        default -> Verdict.ALIVE;
+      };
+    }
+  }
+
+  /** Called from worker threads. */
+  public interface Listener {
+    Listener NONE = new Listener() {};
+
+    default void onResult(EndpointRow row, Result result) {}
+
+    /** Polled before each request; true stops handing out rows. */
+    default boolean isCancelled() {
+      return false;
+    }
+  }
+
+  /**
+   * @param concurrency requests in flight
+   * @param perHostRate requests per second to one host; 0 = no limit
+   */
+  public record Options(int concurrency, double perHostRate) {
+    public static Options defaults() {
+      return new Options(8, 10);
+    }
+  }
+
+  private final Transport transport;
+  private final Options opt;
+
+  public EndpointProber(Transport transport, Options opt) {
+    this.transport = transport;
+    this.opt = opt == null ? Options.defaults() : opt;
+  }
+
+  /**
+   * Probes every row once and blocks until done, cancelled or interrupted. Rows
+   * whose request cannot be built fail with {@link Verdict#ERROR}.
+   *
+   * @return results in row order; rows skipped by a cancellation are absent
+   */
+  public Map<EndpointRow, Result> probe(List<EndpointRow> rows,
+                                        Function<EndpointRow, HttpRequest> requestFor,
+                                        Listener listener) throws InterruptedException {
+    Listener l = listener == null ? Listener.NONE : listener;
+    if (rows.isEmpty()) return Map.of();
+
+    Result[] results = new Result[rows.size()];
+
+    HostRateLimiter limiter = new HostRateLimiter(opt.perHostRate());
+    AtomicInteger next = new AtomicInteger();
+
+    Callable<Void> worker = () -> {
+      for (int i = next.getAndIncrement(); i < rows.size() && !l.isCancelled(); i = next.getAndIncrement()) {
+        EndpointRow r = rows.get(i);
+        results[i] = probeOne(r, requestFor, limiter);
+        l.onResult(r, results[i]);
+      }
+      return null;
+    };
+
+    int threads = Math.max(1, Math.min(opt.concurrency(), rows.size()));
+    AtomicInteger n = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, run -> {
+      Thread t = new Thread(run, "swagger2sqlmap-probe-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    try {
+      List<Callable<Void>> workers = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) workers.add(worker);
+      for (Future<Void> f : pool.invokeAll(workers)) {
+        try {
+          f.get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Probe worker failed", e.getCause());
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    Map<EndpointRow, Result> out = new LinkedHashMap<>();
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] != null) out.put(rows.get(i), results[i]);
+    }
+    return out;
+  }
+
+  private Result probeOne(EndpointRow r, Function<EndpointRow, HttpRequest> requestFor, HostRateLimiter limiter)
+      throws InterruptedException {
+    HttpRequest req;
+    try {
+      req = requestFor.apply(r);
+    } catch (RuntimeException e) {
+      return Result.failed(0, "Cannot build request: " + e.getMessage());
+    }
+
+    limiter.acquire(hostOf(req));
+
+    long start = System.nanoTime();
+    try {
+      Transport.Response res = transport.send(req);
+      return new Result(res.status(), elapsedMs(start), res.bytes(), null);
+    } catch (InterruptedException e) {
+      throw e;
+    } catch (Exception e) {
+      return Result.failed(elapsedMs(start), e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+    }
+  }
+
+  /** host[:port] of the request URL; "" when it cannot be parsed (all such requests share one limit). */
+  static String hostOf(HttpRequest req) {
+    try {
+      String authority = URI.create(req.url()).getRawAuthority();
+      return authority == null ? "" : authority.toLowerCase(Locale.ROOT);
+    } catch (RuntimeException e) {
+      return "";
+    }
+  }
+
+  private static long elapsedMs(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000;
+  }
+}
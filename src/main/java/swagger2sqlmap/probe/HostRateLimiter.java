@@ -0,0 +1,52 @@
+package swagger2sqlmap.probe;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Spaces calls for the same host at least 1/rate seconds apart (no bursts). Each
+ * caller reserves the next free slot of its host and sleeps until then, so callers
+ * for other hosts are never held up.
+ */
+final class HostRateLimiter {
+
+  /** Blocks for the given number of nanoseconds; tests pass one that only advances a fake clock. */
+  interface Sleeper {
+    void sleep(long nanos) throws InterruptedException;
+  }
+
+  private final long intervalNanos;
+  private final LongSupplier nanoTime;
+  private final Sleeper sleeper;
+  private final Map<String, Long> nextSlot = new HashMap<>();
+
+  /** {@code perSecond <= 0}: no limit. */
+  HostRateLimiter(double perSecond) {
+    this(perSecond, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+  }
+
+  HostRateLimiter(double perSecond, LongSupplier nanoTime, Sleeper sleeper) {
+    this.intervalNanos = perSecond <= 0 ? 0 : (long) (1_000_000_000L / perSecond);
+    this.nanoTime = nanoTime;
+    this.sleeper = sleeper;
+  }
+
+  void acquire(String host) throws InterruptedException {
+    long wait = reserve(host);
+    if (wait > 0) sleeper.sleep(wait);
+  }
+
+  /** Takes the next free slot of {@code host}; nanoseconds until it starts, 0 if it is now. */
+  long reserve(String host) {
+    if (intervalNanos == 0) return 0;
+
+    synchronized (this) {
+      long now = nanoTime.getAsLong();
+      long slot = Math.max(now, nextSlot.getOrDefault(host, now));
+      nextSlot.put(host, slot + intervalNanos);
+      return slot - now;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package swagger2sqlmap.probe;
+
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * {@link Transport} on the JDK's {@link HttpClient}, for probing outside Burp (a local
+ * stub server, a headless check). Only method, URL, headers and body of the request
+ * are used. Headers the JDK client sets itself (Host, Content-Length, ...) are dropped.
+ */
+public final class HttpClientTransport implements Transport {
+
+  private static final Set<String> RESTRICTED = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+  private final HttpClient client;
+  private final Duration timeout;
+
+  /** @param timeout per request; null = none */
+  public HttpClientTransport(Duration timeout) {
+    HttpClient.Builder b = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER);
+    if (timeout != null) b.connectTimeout(timeout);
+    this.client = b.build();
+    this.timeout = timeout;
+  }
+
+  @Override
+  public Response send(HttpRequest request) throws Exception {
+    String body = request.bodyToString();
+    java.net.http.HttpRequest.Builder b = java.net.http.HttpRequest.newBuilder(URI.create(request.url()))
+        .method(request.method(), body == null || body.isEmpty()
+            ? java.net.http.HttpRequest.BodyPublishers.noBody()
+            : java.net.http.HttpRequest.BodyPublishers.ofString(body));
+    if (timeout != null) b.timeout(timeout);
+
+    for (HttpHeader h : request.headers()) {
+      if (!RESTRICTED.contains(h.name().toLowerCase(Locale.ROOT))) b.header(h.name(), h.value());
+    }
+
+    java.net.http.HttpResponse<byte[]> res = client.send(b.build(), java.net.http.HttpResponse.BodyHandlers.ofByteArray());
+    return new Response(res.statusCode(), res.body().length);
+  }
+}
@@ -0,0 +1,32 @@
+package swagger2sqlmap.probe;
+
+import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Sends one probe request and reports what came back. Called concurrently from
+ * {@link EndpointProber}'s workers, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface Transport {
+
+  /** Status code and body size of a response. */
+  record Response(int status, long bytes) {}
+
+  /** Throws when there is no response at all (connection refused, timeout, ...). */
+  Response send(HttpRequest request) throws Exception;
+
+  /** Burp's own HTTP stack: upstream proxy, TLS and session settings apply. */
+  static Transport montoya(MontoyaApi api) {
+    return request -> {
+      HttpRequestResponse rr = api.http().sendRequest(request);
+      HttpResponse res = rr == null ? null : rr.response();
+      if (res == null) throw new IOException("No response");
+      return new Response(res.statusCode(), res.body() == null ? 0 : res.body().length());
+    };
+  }
+}
@@ -0,0 +1,116 @@
+package swagger2sqlmap.sqlmap;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Log of finished endpoints, so an interrupted campaign can be resumed: endpoints
+ * recorded as done are skipped, failed or unfinished ones run again.
+ *
+ * Exported scripts write the same format themselves. One appended line per finished
+ * job: {@code id<TAB>done|fail<TAB>exit code<TAB>UTC time<TAB>name}; an endpoint
+ * counts as done once any line says so.
+ */
+public final class Checkpoint {
+
+  private final Path file;
+  private final Set<String> done = new HashSet<>();
+
+  private Checkpoint(Path file) {
+    this.file = file;
+  }
+
+  /** Reads the done set of {@code file}; a missing file is an empty checkpoint. */
+  public static Checkpoint open(Path file) throws IOException {
+    Checkpoint c = new Checkpoint(file);
+    if (Files.exists(file)) {
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      for (String line : lines) {
+        String[] f = line.split("\t", 3);
+        if (f.length >= 2 && "done".equals(f[1])) c.done.add(f[0]);
+      }
+    }
+    return c;
+  }
+
+  /** ~/.swagger2sqlmap/checkpoints/{hash of the base URL}.checkpoint: one checkpoint per target. */
+  public static Path defaultFile(String baseUrl) {
+    return Path.of(System.getProperty("user.home"), ".swagger2sqlmap", "checkpoints",
+        shortHash(safe(baseUrl).trim()) + ".checkpoint");
+  }
+
+  /**
+   * Stable across exports and spec reloads: hash of method, path and body template,
+   * so an edited body counts as a different endpoint. Token and base URL are not part
+   * of it (keep one checkpoint per target).
+   */
+  public static String endpointId(EndpointRow r) {
+    return shortHash(safe(r.method()).toUpperCase(Locale.ROOT) + "\n" + safe(r.path()) + "\n" + safe(r.bodyTemplate()));
+  }
+
+  public Path file() {
+    return file;
+  }
+
+  public synchronized boolean isDone(String id) {
+    return done.contains(id);
+  }
+
+  public synchronized int doneCount() {
+    return done.size();
+  }
+
+  /** @param exitCode null when the process did not exit by itself (not started, timed out) */
+  public synchronized void record(String id, Integer exitCode, String name) throws IOException {
+    boolean ok = exitCode != null && exitCode == 0;
+    String line = id
+        + "\t" + (ok ? "done" : "fail")
+        + "\t" + (exitCode == null ? "-" : exitCode)
+        + "\t" + Instant.now().truncatedTo(ChronoUnit.SECONDS)
+        + "\t" + safe(name).replaceAll("[\t\r\n]", " ");
+
+    Path dir = file.toAbsolutePath().getParent();
+    if (dir != null) Files.createDirectories(dir);
+    try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      w.write(line);
+      w.write('\n');
+    }
+    if (ok) done.add(id);
+  }
+
+  /** Forgets all progress (deletes the file). */
+  public synchronized void clear() throws IOException {
+    Files.deleteIfExists(file);
+    done.clear();
+  }
+
+  /** First 64 bits of SHA-256, hex. */
+  private static String shortHash(String s) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
+  }
+}
@@ -0,0 +1,115 @@
+package swagger2sqlmap.sqlmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Quotes one argument as a literal in the languages exported scripts are written in.
+ *
+ * Every dialect classifies ASCII through a lookup table and walks the string once,
+ * copying unescaped runs with a single {@code append(s, from, to)}; no regex, and no
+ * intermediate strings when appending to a caller's buffer or writer.
+ */
+enum Quoting {
+
+  /**
+   * POSIX shell word: bare when every char is in {@code [A-Za-z0-9_./:@%+=,-]}, otherwise
+   * '...' with each ' written as '"'"'. Anything else is literal inside single quotes.
+   */
+  BASH,
+
+  /**
+   * Python str literal '...': backslash, quote and control characters are escaped
+   * (\n, \r, \t, \xNN), so multi-line bodies stay one valid literal.
+   */
+  PYTHON,
+
+  /**
+   * PowerShell verbatim string '...': quote characters are doubled, including the
+   * typographic ‘ ’ ‚ ‛ that PowerShell treats as single quotes too.
+   */
+  POWERSHELL;
+
+  /** Table values: may stay bare (BASH only), literal inside quotes, needs an escape. */
+  private static final byte BARE = 0, LITERAL = 1, ESCAPE = 2;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final byte[] ascii = new byte[128];
+
+  static {
+    for (Quoting q : values()) {
+      for (char c = 0; c < 128; c++) q.ascii[c] = q.classify(c);
+    }
+  }
+
+  /** {@code s} quoted; null quotes as the empty string. */
+  String quote(String s) {
+    StringBuilder sb = new StringBuilder(s == null ? 2 : s.length() + 8);
+    try {
+      append(sb, s);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // StringBuilder does not throw
+    }
+    return sb.toString();
+  }
+
+  /** Appends {@code s} quoted; null quotes as the empty string. */
+  void append(Appendable out, String s) throws IOException {
+    if (s == null) s = "";
+    int n = s.length();
+    int i = 0;
+
+    if (this == BASH) {
+      while (i < n && charClass(s.charAt(i)) == BARE) i++;
+      if (i == n && n > 0) {
+        out.append(s);
+        return;
+      }
+    }
+
+    out.append('\'');
+    int run = 0;
+    for (; i < n; i++) {
+      char c = s.charAt(i);
+      if (charClass(c) != ESCAPE) continue;
+      out.append(s, run, i);
+      escape(out, c);
+      run = i + 1;
+    }
+    out.append(s, run, n);
+    out.append('\'');
+  }
+
+  private byte charClass(char c) {
+    if (c < 128) return ascii[c];
+    return this == POWERSHELL && c >= '\u2018' && c <= '\u201B' ? ESCAPE : LITERAL;
+  }
+
+  private byte classify(char c) {
+    return switch (this) {
+      case BASH -> c == '\'' ? ESCAPE
+          : (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+              || "_./:@%+=,-".indexOf(c) >= 0 ? BARE
+          : LITERAL;
+      case PYTHON -> c == '\\' || c == '\'' || c < 0x20 || c == 0x7F ? ESCAPE : LITERAL;
+      case POWERSHELL -> c == '\'' ? ESCAPE : LITERAL;
+    };
+  }
+
+  private void escape(Appendable out, char c) throws IOException {
+    switch (this) {
+      case BASH -> out.append("'\"'\"'");
+      case POWERSHELL -> out.append(c).append(c);
+      case PYTHON -> {
+        switch (c) {
+          case '\\' -> out.append("\\\\");
+          case '\'' -> out.append("\\'");
+          case '\n' -> out.append("\\n");
+          case '\r' -> out.append("\\r");
+          case '\t' -> out.append("\\t");
+          default -> out.append("\\x").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+        }
+      }
+    }
+  }
+}
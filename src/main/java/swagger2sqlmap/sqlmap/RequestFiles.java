@@ -0,0 +1,238 @@
+package swagger2sqlmap.sqlmap;
+
+import burp.api.montoya.http.message.requests.HttpRequest;
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Writes raw HTTP request files for {@code sqlmap -r} into {@value #DIR}/, plus
+ * {@value #INDEX} there (endpoint id, method, URL, file; tab separated).
+ *
+ * Requests are encoded piece by piece into a reused buffer and written through a
+ * {@link FileChannel} per file: no request text or byte array is assembled. The strings
+ * a request already comes as (marked URL, header values, {@code bodyToString()}) are
+ * the only per-file strings. Headers follow the same include/skip rules as
+ * the inline {@code -H} mode, and path and header parameters get the same '*' markers
+ * as with {@code -u}; Content-Length is left to sqlmap.
+ */
+final class RequestFiles implements AutoCloseable {
+
+  static final String DIR = "requests";
+  static final String INDEX = "index.tsv";
+
+  private static final int BUFFER_BYTES = 64 * 1024;
+
+  private final Path dir;
+  private final SqlmapCommandBuilder.Options options;
+  private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+  private final ByteBuffer indexBuf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+  private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final FileChannel index;
+
+  /** Creates {@code <exportDir>/requests/} and starts a fresh index there. */
+  RequestFiles(Path exportDir, SqlmapCommandBuilder.Options options) throws IOException {
+    this.dir = exportDir.resolve(DIR);
+    this.options = options == null ? SqlmapCommandBuilder.Options.defaults() : options;
+    Files.createDirectories(dir);
+
+    this.index = FileChannel.open(dir.resolve(INDEX),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    put("# id\tmethod\turl\tfile\n", index, indexBuf);
+  }
+
+  /** Script-relative path of the request file of {@code r}, e.g. "requests/POST_users_496d6ed14a85acbc.req". */
+  static String relativePath(EndpointRow r) {
+    return DIR + "/" + fileName(r);
+  }
+
+  /** Unique per endpoint (the id), readable (method and path). */
+  static String fileName(EndpointRow r) {
+    return fileName(r, Checkpoint.endpointId(r));
+  }
+
+  private static String fileName(EndpointRow r, String id) {
+    return safe(r.method()).toUpperCase(Locale.ROOT) + "_" + slug(r.path()) + "_" + id + ".req";
+  }
+
+  /**
+   * File-name-safe form of an API path: "/users/{id}" -> "users_id". Each run of other
+   * characters becomes one '_', underscores at either end are dropped, at most 60 chars.
+   */
+  static String slug(String path) {
+    String p = safe(path);
+    StringBuilder sb = new StringBuilder(p.length());
+    boolean gap = false;
+    for (int i = 0; i < p.length(); i++) {
+      char c = p.charAt(i);
+      if (fileNameChar(c)) {
+        if (gap) sb.append('_');
+        sb.append(c);
+        gap = false;
+      } else {
+        gap = sb.length() > 0;
+      }
+    }
+
+    int start = 0;
+    int end = sb.length();
+    while (start < end && sb.charAt(start) == '_') start++;
+    while (end > start && sb.charAt(end - 1) == '_') end--;
+    return start == end ? "root" : sb.substring(start, Math.min(end, start + 60));
+  }
+
+  private static boolean fileNameChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '.' || c == '_' || c == '-';
+  }
+
+  void write(EndpointRow r, HttpRequest req) throws IOException {
+    String method = safe(req.method()).toUpperCase(Locale.ROOT);
+    String url = safe(req.url());
+    String id = Checkpoint.endpointId(r);
+    String file = fileName(r, id);
+
+    try (FileChannel out = FileChannel.open(dir.resolve(file),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      put(method.isEmpty() ? "GET" : method, out, buf);
+      put(" ", out, buf);
+      putRequestTarget(SqlmapCommandBuilder.markedUrl(options, r, url), out, buf);
+      put(" HTTP/1.1\r\n", out, buf);
+
+      String host = headerValue(req, "Host");
+      if (host.isEmpty()) host = hostHeader(url);
+      put("Host: ", out, buf);
+      put(host, out, buf);
+      put("\r\n", out, buf);
+
+      String body = safe(req.bodyToString());
+      boolean hasBody = !body.isBlank() && SqlmapCommandBuilder.allowsBody(method);
+
+      for (var h : req.headers()) {
+        String name = safe(h.name());
+        if (name.isEmpty() || name.equalsIgnoreCase("host") || SqlmapCommandBuilder.shouldSkipHeader(name)) continue;
+
+        boolean marked = SqlmapCommandBuilder.marksHeader(options, r, name);
+        if (!marked && !keepHeader(name, hasBody)) continue;
+        put(name, out, buf);
+        put(": ", out, buf);
+        put(safe(h.value()), out, buf);
+        put(marked ? "*\r\n" : "\r\n", out, buf);
+      }
+      put("\r\n", out, buf);
+
+      if (hasBody) put(body, out, buf);
+      flush(out, buf);
+    }
+
+    put(id, index, indexBuf);
+    put("\t", index, indexBuf);
+    put(method, index, indexBuf);
+    put("\t", index, indexBuf);
+    put(url, index, indexBuf);
+    put("\t", index, indexBuf);
+    put(file, index, indexBuf);
+    put("\n", index, indexBuf);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush(index, indexBuf);
+    } finally {
+      index.close();
+    }
+  }
+
+  // ================= internals =================
+
+  private boolean keepHeader(String name, boolean hasBody) {
+    if (name.equalsIgnoreCase("content-type")) return hasBody;
+    if (!options.includeHeaders() || SqlmapCommandBuilder.shouldSkipHeader(name)) return false;
+    return options.headersMode() == SqlmapCommandBuilder.Options.HeadersMode.ALL
+        || SqlmapCommandBuilder.isImportantHeader(name);
+  }
+
+  /** Encodes into {@code b}, spilling to {@code out} whenever it fills up. */
+  private void put(String s, FileChannel out, ByteBuffer b) throws IOException {
+    put(s, 0, s.length(), out, b);
+  }
+
+  private void put(String s, int start, int end, FileChannel out, ByteBuffer b) throws IOException {
+    CharBuffer in = CharBuffer.wrap(s, start, end);
+    utf8.reset();
+    while (utf8.encode(in, b, true).isOverflow()) flush(out, b);
+    while (utf8.flush(b).isOverflow()) flush(out, b);
+  }
+
+  private static void flush(FileChannel out, ByteBuffer b) throws IOException {
+    b.flip();
+    while (b.hasRemaining()) out.write(b);
+    b.clear();
+  }
+
+  /** Split by hand rather than with URI: template paths are not always valid URIs. */
+  private static int authorityStart(String url) {
+    int i = url.indexOf("://");
+    return i < 0 ? 0 : i + 3;
+  }
+
+  /** Path and query of {@code url} with spaces as %20, "/" when it has none. */
+  private void putRequestTarget(String url, FileChannel out, ByteBuffer b) throws IOException {
+    int slash = url.indexOf('/', authorityStart(url));
+    if (slash < 0) {
+      put("/", out, b);
+      return;
+    }
+
+    int hash = url.indexOf('#', slash);
+    int end = hash < 0 ? url.length() : hash;
+    int run = slash;
+    for (int i = slash; i < end; i++) {
+      if (url.charAt(i) != ' ') continue;
+      put(url, run, i, out, b);
+      put("%20", out, b);
+      run = i + 1;
+    }
+    put(url, run, end, out, b);
+  }
+
+  /** Authority of {@code url} without user info or a default port. */
+  private static String hostHeader(String url) {
+    int start = authorityStart(url);
+    int end = start;
+    while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) end++;
+
+    String authority = url.substring(start, end);
+    authority = authority.substring(authority.lastIndexOf('@') + 1);
+
+    String scheme = url.substring(0, Math.max(0, start - 3)).toLowerCase(Locale.ROOT);
+    if (scheme.equals("http") && authority.endsWith(":80")) return authority.substring(0, authority.length() - 3);
+    if (scheme.equals("https") && authority.endsWith(":443")) return authority.substring(0, authority.length() - 4);
+    return authority;
+  }
+
+  private static String headerValue(HttpRequest req, String name) {
+    for (var h : req.headers()) {
+      if (name.equalsIgnoreCase(h.name())) return safe(h.value()).trim();
+    }
+    return "";
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
+  }
+}
@@ -0,0 +1,135 @@
+package swagger2sqlmap.sqlmap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.util.*;
+
+/**
+ * Splits endpoints into shards of about equal estimated sqlmap work, for running one
+ * export on several scanning nodes.
+ *
+ * sqlmap sends roughly the same payload set per tested parameter, scaled by level and
+ * risk, so an endpoint costs {@code (1 + parameters) * level * risk}. Shards are filled
+ * longest-processing-time first: endpoints by descending cost, each to the currently
+ * lightest shard (within 4/3 of the optimal makespan).
+ */
+public final class ShardPlanner {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private ShardPlanner() {}
+
+  /**
+   * @param index 1-based
+   * @param rows  in their original order
+   */
+  public record Shard(int index, List<EndpointRow> rows, long cost) {}
+
+  /** At most one shard per endpoint, so no shard is empty (unless there are no rows). */
+  public static List<Shard> plan(List<EndpointRow> rows, int shardCount, SqlmapCommandBuilder.Options opt) {
+    int n = Math.max(1, Math.min(shardCount, rows.size()));
+
+    long[] cost = new long[rows.size()];
+    Integer[] order = new Integer[rows.size()];
+    for (int i = 0; i < cost.length; i++) {
+      cost[i] = estimateCost(rows.get(i), opt);
+      order[i] = i;
+    }
+    // heaviest first; ties keep table order so the plan is deterministic
+    Arrays.sort(order, (a, b) -> cost[a] != cost[b] ? Long.compare(cost[b], cost[a]) : Integer.compare(a, b));
+
+    long[] load = new long[n];
+    List<List<Integer>> members = new ArrayList<>(n);
+    for (int s = 0; s < n; s++) members.add(new ArrayList<>());
+
+    PriorityQueue<Integer> lightest = new PriorityQueue<>(
+        (a, b) -> load[a] != load[b] ? Long.compare(load[a], load[b]) : Integer.compare(a, b));
+    for (int s = 0; s < n; s++) lightest.add(s);
+
+    for (int i : order) {
+      int s = lightest.poll();
+      members.get(s).add(i);
+      load[s] += cost[i];
+      lightest.add(s);
+    }
+
+    List<Shard> out = new ArrayList<>(n);
+    for (int s = 0; s < n; s++) {
+      List<Integer> idx = members.get(s);
+      Collections.sort(idx);
+      List<EndpointRow> shardRows = new ArrayList<>(idx.size());
+      for (int i : idx) shardRows.add(rows.get(i));
+      out.add(new Shard(s + 1, shardRows, load[s]));
+    }
+    return out;
+  }
+
+  /** Relative cost units; only comparable within one export (same level/risk). */
+  public static long estimateCost(EndpointRow r, SqlmapCommandBuilder.Options opt) {
+    int level = opt == null || opt.level() == null ? 1 : Math.max(1, opt.level());
+    int risk = opt == null || opt.risk() == null ? 1 : Math.max(1, opt.risk());
+    int skipped = opt == null ? 0 : skippedCount(r, opt.skipKinds());
+    return (1L + Math.max(0, parameterCount(r) - skipped)) * level * risk;
+  }
+
+  /** Injectable values sqlmap will find: declared parameters, query string pairs plus body fields. */
+  static int parameterCount(EndpointRow r) {
+    int count = 0;
+    for (EndpointRow.Param p : r.params()) {
+      if (p.in() != EndpointRow.In.BODY) count++; // body fields are counted from the template
+    }
+
+    String path = safe(r.path());
+    int q = path.indexOf('?');
+    if (q >= 0) count += formPairs(path.substring(q + 1));
+
+    String body = safe(r.bodyTemplate()).trim();
+    if (body.isEmpty()) return count;
+
+    String ct = safe(r.contentType()).toLowerCase(Locale.ROOT);
+    if (ct.contains("json") || body.startsWith("{") || body.startsWith("[")) {
+      try {
+        return count + Math.max(1, jsonLeaves(MAPPER.readTree(body)));
+      } catch (Exception e) {
+        return count + 1;
+      }
+    }
+    if (ct.contains("x-www-form-urlencoded")) return count + Math.max(1, formPairs(body));
+
+    return count + 1; // xml, multipart, text: at least one injection point
+  }
+
+  /** Declared parameters and typed body fields of a kind the commands leave out. */
+  static int skippedCount(EndpointRow r, Set<EndpointRow.Kind> skipKinds) {
+    if (skipKinds.isEmpty()) return 0;
+    int n = 0;
+    for (EndpointRow.Param p : r.params()) {
+      if (skipKinds.contains(p.kind())) n++;
+    }
+    return n;
+  }
+
+  private static int jsonLeaves(JsonNode node) {
+    if (node == null) return 0;
+    if (!node.isContainerNode()) return 1;
+
+    int n = 0;
+    for (JsonNode child : node) n += jsonLeaves(child);
+    return n;
+  }
+
+  private static int formPairs(String s) {
+    int n = 0;
+    for (String pair : s.split("&")) {
+      if (!pair.isBlank()) n++;
+    }
+    return n;
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
+  }
+}
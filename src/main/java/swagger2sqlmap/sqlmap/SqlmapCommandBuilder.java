@@ -1,66 +1,230 @@
 package swagger2sqlmap.sqlmap;
 
 import burp.api.montoya.http.message.requests.HttpRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import swagger2sqlmap.model.EndpointRow;
 
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 public final class SqlmapCommandBuilder {
 
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   private SqlmapCommandBuilder() {}
 
   public static SqlmapCommand build(HttpRequest req, Options opt) {
-    Objects.requireNonNull(req, "req");
-    if (opt == null) opt = Options.defaults();
+    return compile(opt).command(req);
+  }
 
-    String method = safe(req.method()).toUpperCase(Locale.ROOT);
-    String url = safe(req.url());
+  /** {@code row}: the endpoint {@code req} was built from, for {@link Options.ParamScope#DECLARED}. */
+  public static SqlmapCommand build(EndpointRow row, HttpRequest req, Options opt) {
+    return compile(opt).command(row, req);
+  }
+
+  /**
+   * sqlmap -r command for a request file written by {@link RequestFiles}: headers and body
+   * come from the file, so only the option switches are on the command line. sqlmap cannot
+   * tell the scheme from a request file, so https URLs get --force-ssl.
+   */
+  public static SqlmapCommand buildForRequestFile(String requestFile, HttpRequest req, Options opt) {
+    return compile(opt).requestFileCommand(requestFile, req);
+  }
 
-    List<String> args = new ArrayList<>();
+  /** Compiles {@code opt} once for many commands (bulk export); see {@link Template}. */
+  public static Template compile(Options opt) {
+    return new Template(opt == null ? Options.defaults() : opt);
+  }
+
+  /**
+   * Options compiled for bulk generation. The executable and the switch tail (level, risk,
+   * tamper, extra args, ...) are the same for every endpoint, so they are built and
+   * shell-quoted once here; a command then only adds URL, method, headers and body.
+   * Immutable, so one template can serve several threads.
+   */
+  public static final class Template {
+
+    private final Options opt;
+    private final List<String> tail;
+    private final List<String> tailForceSsl;
+    private final String shellExe;
+    private final String shellTail;
+    private final String shellTailForceSsl;
+
+    private Template(Options opt) {
+      this.opt = opt;
+
+      List<String> t = new ArrayList<>();
+      appendSwitches(t, opt, opt.forceSsl());
+      this.tail = List.copyOf(t);
+
+      t.clear();
+      appendSwitches(t, opt, true);
+      this.tailForceSsl = List.copyOf(t);
+
+      this.shellExe = shellQuote(opt.sqlmapExecutable());
+      this.shellTail = shellJoin(tail);
+      this.shellTailForceSsl = shellJoin(tailForceSsl);
+    }
 
-    // executable
-    args.add(opt.sqlmapExecutable());
+    public Options options() {
+      return opt;
+    }
 
-    // url
-    args.add("-u");
-    args.add(url);
+    public SqlmapCommand command(HttpRequest req) {
+      return command(null, req);
+    }
 
-    // method
-    if (!method.isEmpty() && !method.equals("GET")) {
-      args.add("--method");
-      args.add(method);
+    /** {@code row} may be null: no parameter scoping then. */
+    public SqlmapCommand command(EndpointRow row, HttpRequest req) {
+      return new SqlmapCommand(concat(opt.sqlmapExecutable(), endpointArgs(row, req), tail));
     }
 
-    // headers: include only if user wants
-    if (opt.includeHeaders()) {
-      // Add Authorization + Content-Type + any extra headers (excluding Host, Content-Length, etc.)
-      var headers = req.headers();
-      for (var h : headers) {
-        String name = safe(h.name());
-        String value = safe(h.value());
-        if (name.isEmpty()) continue;
+    /** See {@link SqlmapCommandBuilder#buildForRequestFile}. */
+    public SqlmapCommand requestFileCommand(String requestFile, HttpRequest req) {
+      return requestFileCommand(requestFile, null, req);
+    }
 
-        if (shouldSkipHeader(name)) continue;
+    /** Scoped like {@link #command}: -p / --skip here, the '*' markers are in the file. */
+    public SqlmapCommand requestFileCommand(String requestFile, EndpointRow row, HttpRequest req) {
+      List<String> args = new ArrayList<>(List.of("-r", requestFile));
+      appendScope(args, row, req);
+      return new SqlmapCommand(concat(opt.sqlmapExecutable(), args, isHttps(req) ? tailForceSsl : tail));
+    }
+
+    /** {@link #toShellCommand} of {@link #command}, appended without building the argument list. */
+    public void appendShellCommand(Appendable out, HttpRequest req) throws IOException {
+      appendShellCommand(out, null, req);
+    }
+
+    public void appendShellCommand(Appendable out, EndpointRow row, HttpRequest req) throws IOException {
+      out.append(shellExe);
+      for (String a : endpointArgs(row, req)) {
+        out.append(' ');
+        Quoting.BASH.append(out, a);
+      }
+      out.append(shellTail);
+    }
+
+    /** {@link #toShellCommand} of {@link #requestFileCommand}. */
+    public void appendShellRequestFileCommand(Appendable out, String requestFile, HttpRequest req) throws IOException {
+      appendShellRequestFileCommand(out, requestFile, null, req);
+    }
+
+    public void appendShellRequestFileCommand(Appendable out, String requestFile, EndpointRow row, HttpRequest req) throws IOException {
+      out.append(shellExe).append(" -r ");
+      Quoting.BASH.append(out, requestFile);
+      List<String> p = new ArrayList<>(2);
+      appendScope(p, row, req);
+      for (String a : p) {
+        out.append(' ');
+        Quoting.BASH.append(out, a);
+      }
+      out.append(isHttps(req) ? shellTailForceSsl : shellTail);
+    }
 
-        // Optionally filter only important ones
-        if (opt.headersMode() == Options.HeadersMode.IMPORTANT_ONLY) {
-          if (!isImportantHeader(name)) continue;
+    private static boolean isHttps(HttpRequest req) {
+      Objects.requireNonNull(req, "req");
+      return safe(req.url()).regionMatches(true, 0, "https:", 0, 6);
+    }
+
+    private boolean scoped(EndpointRow row) {
+      return SqlmapCommandBuilder.scoped(opt, row);
+    }
+
+    /**
+     * -p with the query / cookie parameters and body fields worth testing, most promising
+     * kind first; or, where -p cannot be used, --skip with those of a skipped kind.
+     */
+    private void appendScope(List<String> args, EndpointRow row, HttpRequest req) {
+      if (row == null || (!scoped(row) && opt.skipKinds().isEmpty())) return;
+
+      Scope scope = scopeOf(row, req, opt.skipKinds());
+      if (scoped(row) && scope.complete() && !scope.test().isEmpty()) {
+        args.add("-p");
+        args.add(String.join(",", scope.test()));
+      } else if (!scope.skip().isEmpty()) {
+        args.add("--skip");
+        args.add(String.join(",", scope.skip()));
+      }
+    }
+
+    /** The per-endpoint part: URL, method, headers, body, -p / --skip. */
+    private List<String> endpointArgs(EndpointRow row, HttpRequest req) {
+      Objects.requireNonNull(req, "req");
+
+      String method = safe(req.method()).toUpperCase(Locale.ROOT);
+      boolean scoped = scoped(row);
+      List<String> args = new ArrayList<>();
+
+      // url ('*' after path parameter values: sqlmap only tests URI positions that are marked)
+      args.add("-u");
+      args.add(markedUrl(opt, row, safe(req.url())));
+
+      // method
+      if (!method.isEmpty() && !method.equals("GET")) {
+        args.add("--method");
+        args.add(method);
+      }
+
+      // headers: include only if user wants; declared header parameters always, marked with '*'
+      if (opt.includeHeaders() || scoped) {
+        // Add Authorization + Content-Type + any extra headers (excluding Host, Content-Length, etc.)
+        for (var h : req.headers()) {
+          String name = safe(h.name());
+          if (name.isEmpty()) continue;
+
+          if (shouldSkipHeader(name)) continue;
+
+          if (marksHeader(opt, row, name)) {
+            args.add("-H");
+            args.add(name + ": " + safe(h.value()) + "*");
+            continue;
+          }
+          if (!opt.includeHeaders()) continue;
+
+          // Optionally filter only important ones
+          if (opt.headersMode() == Options.HeadersMode.IMPORTANT_ONLY) {
+            if (!isImportantHeader(name)) continue;
+          }
+
+          args.add("-H");
+          args.add(name + ": " + safe(h.value()));
         }
+      }
 
-        args.add("-H");
-        args.add(name + ": " + value);
+      // body
+      String body = safe(req.bodyToString());
+      if (!body.isBlank() && allowsBody(method)) {
+        args.add("--data");
+        args.add(body);
       }
+
+      appendScope(args, row, req);
+      return args;
     }
 
-    // body
-    String body = safe(req.bodyToString());
-    boolean hasBody = !body.isBlank() && allowsBody(method);
+    private static List<String> concat(String exe, List<String> middle, List<String> tail) {
+      List<String> args = new ArrayList<>(1 + middle.size() + tail.size());
+      args.add(exe);
+      args.addAll(middle);
+      args.addAll(tail);
+      return args;
+    }
 
-    if (hasBody) {
-      args.add("--data");
-      args.add(body);
+    /** Each arg quoted and preceded by a space. */
+    private static String shellJoin(List<String> args) {
+      StringBuilder sb = new StringBuilder();
+      for (String a : args) sb.append(' ').append(shellQuote(a));
+      return sb.toString();
     }
+  }
 
+  private static void appendSwitches(List<String> args, Options opt, boolean forceSsl) {
     // baseline switches
     if (opt.batch()) args.add("--batch");
     if (opt.randomAgent()) args.add("--random-agent");
@@ -78,7 +242,7 @@ public final class SqlmapCommandBuilder {
       args.add(String.valueOf(opt.threads()));
     }
 
-    if (opt.forceSsl()) {
+    if (forceSsl) {
       args.add("--force-ssl");
     }
 
@@ -99,8 +263,191 @@ public final class SqlmapCommandBuilder {
       // split by spaces respecting simple quotes? keep simple for now
       args.addAll(splitExtraArgs(opt.extraArgs()));
     }
+  }
+
+  // ================= Parameter scoping =================
+
+  private static boolean scoped(Options opt, EndpointRow row) {
+    return row != null && opt.paramScope() == Options.ParamScope.DECLARED;
+  }
+
+  private static boolean skipped(Options opt, EndpointRow.Kind kind) {
+    return opt.skipKinds().contains(kind == null ? EndpointRow.Kind.STRING : kind);
+  }
 
-    return new SqlmapCommand(args);
+  /** {@code url} with '*' on the path parameters to test; unchanged unless scoped to {@code row}. */
+  static String markedUrl(Options opt, EndpointRow row, String url) {
+    if (!scoped(opt, row)) return url;
+    return markPathParameters(url, row.path(), name -> !skipped(opt, row.kind(EndpointRow.In.PATH, name)));
+  }
+
+  /** Header {@code name} is a declared parameter to test, so it is sent (always) with a '*' value. */
+  static boolean marksHeader(Options opt, EndpointRow row, String name) {
+    return scoped(opt, row) && row.sample(EndpointRow.In.HEADER, name) != null && !isReservedHeader(name)
+        && !skipped(opt, row.kind(EndpointRow.In.HEADER, name));
+  }
+
+  /**
+   * Puts '*' after the value of each {name} in the URL path that {@code mark} accepts,
+   * {@code path} being the row's template. The template is matched against the end of the
+   * URL path, so a base path in front does not matter; the URL is returned unchanged when
+   * it does not line up.
+   */
+  static String markPathParameters(String url, String path, Predicate<String> mark) {
+    String template = safe(path);
+    int q = template.indexOf('?');
+    if (q >= 0) template = template.substring(0, q);
+    String[] t = segments(template);
+    if (t.length == 0) return url;
+
+    int scheme = url.indexOf("://");
+    int start = url.indexOf('/', scheme < 0 ? 0 : scheme + 3);
+    if (start < 0) return url;
+    int end = url.length();
+    for (int i = start; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == '?' || c == '#') { end = i; break; }
+    }
+
+    String[] u = segments(url.substring(start, end));
+    int offset = u.length - t.length;
+    if (offset < 0) return url;
+
+    boolean marked = false;
+    for (int i = 0; i < t.length; i++) {
+      String seg = t[i];
+      String value = u[offset + i];
+      int open = seg.indexOf('{');
+      int close = seg.indexOf('}', open + 1);
+
+      if (open < 0) {
+        if (!seg.equals(decode(value.replace("+", "%2B")))) return url; // not the row's path ('+' is literal in a path)
+      } else if (close > 0 && seg.indexOf('{', close) < 0 && mark.test(seg.substring(open + 1, close))) {
+        // one parameter per segment, maybe with literal text around it ("{name}.json")
+        String prefix = seg.substring(0, open);
+        String suffix = seg.substring(close + 1);
+        if (value.length() > prefix.length() + suffix.length() && value.startsWith(prefix) && value.endsWith(suffix)) {
+          int at = value.length() - suffix.length();
+          u[offset + i] = value.substring(0, at) + "*" + value.substring(at);
+          marked = true;
+        }
+      }
+    }
+    if (!marked) return url;
+
+    StringBuilder sb = new StringBuilder(url.length() + t.length);
+    sb.append(url, 0, start + 1).append(String.join("/", u));
+    if (url.charAt(end - 1) == '/' && end - 1 > start) sb.append('/');
+    return sb.append(url, end, url.length()).toString();
+  }
+
+  /**
+   * Parameters sqlmap finds by name, split by {@link Options#skipKinds()}.
+   *
+   * @param test     to test, in {@link EndpointRow.Kind} order (free text first), stable within a kind
+   * @param skip     of a skipped kind
+   * @param complete false when the body has fields that cannot be named (XML, multipart, ...),
+   *                 so -p would leave them out
+   */
+  record Scope(List<String> test, List<String> skip, boolean complete) {}
+
+  /**
+   * Query string names, declared cookies and body fields (JSON leaves under their field
+   * name, form pairs) of the request; a name's kind is what the row declares for it,
+   * STRING when it declares nothing.
+   */
+  static Scope scopeOf(EndpointRow row, HttpRequest req, Set<EndpointRow.Kind> skipKinds) {
+    Map<String, EndpointRow.Kind> names = new LinkedHashMap<>();
+    boolean complete = true;
+
+    String url = safe(req.url());
+    int q = url.indexOf('?');
+    if (q >= 0) {
+      int hash = url.indexOf('#', q);
+      Set<String> query = new LinkedHashSet<>();
+      pairNames(hash < 0 ? url.substring(q + 1) : url.substring(q + 1, hash), query);
+      for (String n : query) names.put(n, row.kind(EndpointRow.In.QUERY, n));
+    }
+    for (EndpointRow.Param p : row.params()) {
+      if (p.in() == EndpointRow.In.COOKIE) names.put(p.name(), p.kind());
+    }
+
+    String body = safe(req.bodyToString()).trim();
+    if (!body.isEmpty() && allowsBody(safe(req.method()).toUpperCase(Locale.ROOT))) {
+      Set<String> fields = new LinkedHashSet<>();
+      String ct = safe(row.contentType()).toLowerCase(Locale.ROOT);
+      if (ct.contains("json") || body.startsWith("{") || body.startsWith("[")) {
+        try {
+          jsonNames(MAPPER.readTree(body), null, fields);
+        } catch (Exception e) {
+          complete = false;
+        }
+        if (fields.isEmpty()) complete = false;
+      } else if (ct.contains("x-www-form-urlencoded")) {
+        pairNames(body, fields);
+      } else {
+        complete = false;
+      }
+      for (String n : fields) names.putIfAbsent(n, row.kind(EndpointRow.In.BODY, n));
+    }
+
+    List<String> test = new ArrayList<>();
+    List<String> skip = new ArrayList<>();
+    List<EndpointRow.Kind> kinds = new ArrayList<>();
+    for (Map.Entry<String, EndpointRow.Kind> e : names.entrySet()) {
+      EndpointRow.Kind k = e.getValue() == null ? EndpointRow.Kind.STRING : e.getValue();
+      if (skipKinds.contains(k)) {
+        skip.add(e.getKey());
+      } else {
+        test.add(e.getKey());
+        kinds.add(k);
+      }
+    }
+    if (kinds.size() > 1) {
+      Integer[] order = new Integer[test.size()];
+      for (int i = 0; i < order.length; i++) order[i] = i;
+      Arrays.sort(order, Comparator.comparing(kinds::get)); // stable
+      List<String> sorted = new ArrayList<>(order.length);
+      for (int i : order) sorted.add(test.get(i));
+      test = sorted;
+    }
+    return new Scope(test, skip, complete);
+  }
+
+  private static void jsonNames(JsonNode n, String name, Set<String> out) {
+    if (n.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = n.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> e = it.next();
+        jsonNames(e.getValue(), e.getKey(), out);
+      }
+    } else if (n.isArray()) {
+      for (JsonNode child : n) jsonNames(child, name, out);
+    } else if (name != null) {
+      out.add(name);
+    }
+  }
+
+  private static void pairNames(String s, Set<String> out) {
+    for (String pair : s.split("&")) {
+      int eq = pair.indexOf('=');
+      String name = eq < 0 ? pair : pair.substring(0, eq);
+      if (!name.isEmpty()) out.add(decode(name));
+    }
+  }
+
+  private static String[] segments(String path) {
+    String p = path;
+    if (p.startsWith("/")) p = p.substring(1);
+    if (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+    return p.isEmpty() ? new String[0] : p.split("/", -1);
+  }
+
+  private static String decode(String s) {
+    try {
+      return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      return s;
+    }
   }
 
   public static String toShellCommand(SqlmapCommand cmd) {
@@ -113,22 +460,19 @@ public final class SqlmapCommandBuilder {
     return sb.toString();
   }
 
+  /** Bare when only safe characters, otherwise single-quoted; see {@link Quoting#BASH}. */
   private static String shellQuote(String s) {
-    if (s == null) return "''";
-    // If safe characters only, no quotes
-    if (Pattern.matches("[a-zA-Z0-9_./:@%+=,\\-]+", s)) return s;
-    // single-quote strategy: 'abc'"'"'def'
-    return "'" + s.replace("'", "'\"'\"'") + "'";
+    return Quoting.BASH.quote(s);
   }
 
-  private static boolean allowsBody(String method) {
+  static boolean allowsBody(String method) {
     return switch (method) {
       case "POST", "PUT", "PATCH", "DELETE" -> true;
       default -> false;
     };
   }
 
-  private static boolean shouldSkipHeader(String name) {
+  static boolean shouldSkipHeader(String name) {
     String n = name.toLowerCase(Locale.ROOT);
     return n.equals("host")
         || n.equals("content-length")
@@ -138,7 +482,12 @@ public final class SqlmapCommandBuilder {
         || n.equals("proxy-connection");
   }
 
-  private static boolean isImportantHeader(String name) {
+  /** Header parameters OpenAPI ignores: the request's own Authorization / Content-Type / Accept. */
+  static boolean isReservedHeader(String name) {
+    return name.equalsIgnoreCase("authorization") || name.equalsIgnoreCase("content-type") || name.equalsIgnoreCase("accept");
+  }
+
+  static boolean isImportantHeader(String name) {
     String n = name.toLowerCase(Locale.ROOT);
     return n.equals("authorization")
         || n.equals("cookie")
@@ -199,10 +548,27 @@ public final class SqlmapCommandBuilder {
       String tamper,
       String technique,
       String extraArgs,
-      boolean forceSsl            
+      boolean forceSsl,
+      ParamScope paramScope,
+      Set<EndpointRow.Kind> skipKinds
   ) {
     public enum HeadersMode { IMPORTANT_ONLY, ALL }
 
+    /**
+     * ALL: sqlmap looks for parameters itself. DECLARED: only the spec's parameters and body
+     * fields (-p), with '*' on path and header parameters, which sqlmap cannot find alone.
+     * In both, parameters of a {@link #skipKinds} kind are left out (--skip under ALL).
+     */
+    public enum ParamScope { ALL, DECLARED }
+
+    /** Booleans, enums and UUIDs: values the API rejects before they reach a query. */
+    public static final Set<EndpointRow.Kind> DEFAULT_SKIP_KINDS =
+        Set.of(EndpointRow.Kind.BOOLEAN, EndpointRow.Kind.ENUM, EndpointRow.Kind.UUID);
+
+    public Options {
+      skipKinds = skipKinds == null ? Set.of() : Set.copyOf(skipKinds);
+    }
+
     public static Options defaults() {
       return new Options(
           "sqlmap",
@@ -216,7 +582,9 @@ public final class SqlmapCommandBuilder {
           null,
           null,
           "",
-          false
+          false,
+          ParamScope.DECLARED,
+          DEFAULT_SKIP_KINDS
       );
     }
   }
@@ -0,0 +1,341 @@
+package swagger2sqlmap.sqlmap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs sqlmap commands as child processes on a bounded worker pool.
+ *
+ * Each {@link Job} runs {@link SqlmapCommandBuilder.SqlmapCommand#args()} as-is through
+ * {@link ProcessBuilder} (args[0] is the executable, so a stub script can stand in
+ * for sqlmap). stdout/stderr are streamed line by line to the {@link Listener} and
+ * kept (tail only) on the job. A job that runs longer than its timeout is killed.
+ *
+ * Pause stops handing out new jobs; running processes are left to finish.
+ * Cancel kills a running process (and its children) or drops a queued job.
+ */
+public final class SqlmapRunner implements AutoCloseable {
+
+  /** Kept per job; older output is dropped. */
+  public static final int MAX_OUTPUT_CHARS = 256 * 1024;
+
+  /** Time a killed process gets to exit before it is killed forcibly. */
+  private static final long KILL_GRACE_MS = 2_000;
+
+  public enum State { QUEUED, RUNNING, DONE, FAILED, TIMED_OUT, CANCELLED }
+
+  /** Called from worker threads. */
+  public interface Listener {
+    Listener NONE = new Listener() {};
+
+    default void onState(Job job) {}
+
+    default void onOutput(Job job, String line, boolean stderr) {}
+  }
+
+  /**
+   * @param workers concurrent sqlmap processes
+   * @param timeout per-job limit; null or zero = none
+   */
+  public record Options(int workers, Duration timeout) {
+    public static Options defaults() {
+      return new Options(4, Duration.ofMinutes(30));
+    }
+  }
+
+  private final ThreadPoolExecutor pool;
+  private final ScheduledExecutorService timeouts;
+  private final Set<Job> active = ConcurrentHashMap.newKeySet();
+  private final Listener listener;
+  private final Object gate = new Object();
+  private boolean paused;
+  private volatile Duration timeout;
+
+  public SqlmapRunner(Options opt, Listener listener) {
+    if (opt == null) opt = Options.defaults();
+    this.listener = listener == null ? Listener.NONE : listener;
+    this.timeout = opt.timeout();
+
+    AtomicInteger n = new AtomicInteger();
+    int workers = Math.max(1, opt.workers());
+    this.pool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread t = new Thread(r, "swagger2sqlmap-runner-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    pool.allowCoreThreadTimeOut(true);
+
+    this.timeouts = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "swagger2sqlmap-runner-timeout");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /** Queues a command; {@code label} identifies it in views (e.g. "POST /users"). */
+  public Job submit(String label, SqlmapCommandBuilder.SqlmapCommand cmd) {
+    return submit(label, cmd, null);
+  }
+
+  /**
+   * @param tag caller data kept on the job ({@link Job#tag()}); set before the job can
+   *            start, so it is there for every {@link Listener} call, the first end state included
+   */
+  public Job submit(String label, SqlmapCommandBuilder.SqlmapCommand cmd, Object tag) {
+    Job job = new Job(label, cmd.args(), tag);
+    active.add(job);
+    listener.onState(job);
+    job.future = pool.submit(() -> run(job));
+    return job;
+  }
+
+  /** Takes effect for jobs started afterwards. */
+  public void setWorkers(int workers) {
+    int n = Math.max(1, workers);
+    if (n > pool.getMaximumPoolSize()) {
+      pool.setMaximumPoolSize(n);
+      pool.setCorePoolSize(n);
+    } else {
+      pool.setCorePoolSize(n);
+      pool.setMaximumPoolSize(n);
+    }
+  }
+
+  /** Applies to jobs started afterwards. */
+  public void setTimeout(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  public void pause() {
+    synchronized (gate) {
+      paused = true;
+    }
+  }
+
+  public void resume() {
+    synchronized (gate) {
+      paused = false;
+      gate.notifyAll();
+    }
+  }
+
+  public boolean isPaused() {
+    synchronized (gate) {
+      return paused;
+    }
+  }
+
+  /** Non-blocking; a running process is killed in the background. */
+  public void cancel(Job job) {
+    Process p;
+    Future<?> f;
+    synchronized (job) {
+      if (job.isFinished()) return;
+      job.cancelled = true;
+      p = job.process;
+      f = job.future;
+    }
+
+    if (p != null) {
+      CompletableFuture.runAsync(() -> kill(p));
+      return;
+    }
+    if (f != null && f.cancel(false)) {
+      // not started yet, or waiting at the pause gate: finish it now
+      finish(job, State.CANCELLED, null);
+    }
+    // a worker waiting at the pause gate sees the flag and gives up
+    synchronized (gate) {
+      gate.notifyAll();
+    }
+  }
+
+  public void cancelAll() {
+    for (Job job : List.copyOf(active)) cancel(job);
+  }
+
+  /** Cancels everything and stops the workers. */
+  @Override
+  public void close() {
+    cancelAll();
+    pool.shutdownNow();
+    timeouts.shutdownNow();
+    resume();
+  }
+
+  // ================= Worker =================
+
+  private void run(Job job) {
+    try {
+      synchronized (gate) {
+        while (paused && !job.cancelled) gate.wait();
+      }
+    } catch (InterruptedException e) {
+      job.cancelled = true;
+    }
+
+    Process p;
+    synchronized (job) {
+      if (job.cancelled) {
+        finish(job, State.CANCELLED, null);
+        return;
+      }
+      try {
+        p = new ProcessBuilder(job.args).start();
+      } catch (IOException e) {
+        job.appendLine("[runner] cannot start " + job.args.get(0) + ": " + e.getMessage());
+        finish(job, State.FAILED, null);
+        return;
+      }
+      job.process = p;
+      job.startedAt = System.currentTimeMillis();
+      job.state = State.RUNNING;
+    }
+    listener.onState(job);
+
+    try {
+      p.getOutputStream().close(); // sqlmap --batch never reads stdin
+    } catch (IOException ignored) {}
+
+    Thread errPump = new Thread(() -> pump(job, p.getErrorStream(), true), Thread.currentThread().getName() + "-stderr");
+    errPump.setDaemon(true);
+    errPump.start();
+
+    Duration limit = timeout;
+    ScheduledFuture<?> killer = null;
+    if (limit != null && !limit.isZero() && !limit.isNegative()) {
+      killer = timeouts.schedule(() -> {
+        job.timedOut = true;
+        kill(p);
+      }, limit.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    try {
+      pump(job, p.getInputStream(), false);
+      int exit = p.waitFor();
+      errPump.join(KILL_GRACE_MS);
+
+      State end = job.timedOut ? State.TIMED_OUT
+          : job.cancelled ? State.CANCELLED
+          : exit == 0 ? State.DONE
+          : State.FAILED;
+      finish(job, end, exit);
+
+    } catch (InterruptedException e) {
+      // pool shut down
+      kill(p);
+      finish(job, State.CANCELLED, null);
+    } finally {
+      if (killer != null) killer.cancel(false);
+    }
+  }
+
+  private void pump(Job job, InputStream in, boolean stderr) {
+    try (BufferedReader r = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()))) {
+      for (String line; (line = r.readLine()) != null; ) {
+        job.appendLine(line);
+        listener.onOutput(job, line, stderr);
+      }
+    } catch (IOException ignored) {
+      // stream closed by kill
+    }
+  }
+
+  /** Idempotent: the first end state is kept and reported once. */
+  private void finish(Job job, State state, Integer exit) {
+    active.remove(job);
+    synchronized (job) {
+      if (job.isFinished()) return;
+      job.state = state;
+      job.exitCode = exit;
+      job.finishedAt = System.currentTimeMillis();
+      job.process = null;
+    }
+    listener.onState(job);
+  }
+
+  /** Kills the process tree: sqlmap may spawn helpers. */
+  private static void kill(Process p) {
+    p.descendants().forEach(ProcessHandle::destroy);
+    p.destroy();
+    try {
+      if (!p.waitFor(KILL_GRACE_MS, TimeUnit.MILLISECONDS)) {
+        p.descendants().forEach(ProcessHandle::destroyForcibly);
+        p.destroyForcibly();
+      }
+    } catch (InterruptedException e) {
+      p.destroyForcibly();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // ================= Job =================
+
+  /** One sqlmap invocation. State getters are safe from any thread. */
+  public static final class Job {
+    private final String label;
+    private final List<String> args;
+    private final Object tag;
+    private final StringBuilder output = new StringBuilder();
+    private long outputTotal;
+
+    private State state = State.QUEUED;
+    private Integer exitCode;
+    private long startedAt;
+    private long finishedAt;
+    private Process process;
+    private Future<?> future;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+
+    Job(String label, List<String> args, Object tag) {
+      this.label = label;
+      this.args = List.copyOf(args);
+      this.tag = tag;
+    }
+
+    public String label() { return label; }
+    public List<String> args() { return args; }
+
+    /** What the caller passed to {@link #submit(String, SqlmapCommandBuilder.SqlmapCommand, Object)}, or null. */
+    public Object tag() { return tag; }
+
+    public synchronized State state() { return state; }
+    public synchronized Integer exitCode() { return exitCode; }
+
+    /** Run time so far (or total), in ms; 0 while queued. */
+    public synchronized long elapsedMs() {
+      if (startedAt == 0) return 0;
+      return (finishedAt == 0 ? System.currentTimeMillis() : finishedAt) - startedAt;
+    }
+
+    public synchronized boolean isFinished() {
+      return state != State.QUEUED && state != State.RUNNING;
+    }
+
+    /** Characters of output produced so far, including dropped ones. */
+    public synchronized long outputLength() { return outputTotal; }
+
+    /** Output from {@code from} (an earlier {@link #outputLength()}) on, or the retained tail if that was dropped. */
+    public synchronized String outputSince(long from) {
+      long dropped = outputTotal - output.length();
+      return output.substring((int) Math.max(0, from - dropped));
+    }
+
+    synchronized void appendLine(String line) {
+      output.append(line).append('\n');
+      outputTotal += line.length() + 1;
+      if (output.length() > MAX_OUTPUT_CHARS) {
+        output.delete(0, output.length() - MAX_OUTPUT_CHARS);
+      }
+    }
+  }
+}
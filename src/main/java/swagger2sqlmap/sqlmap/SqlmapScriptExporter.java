@@ -2,121 +2,730 @@ package swagger2sqlmap.sqlmap;
 
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.http.message.requests.HttpRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import swagger2sqlmap.model.EndpointRow;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
 import java.util.function.Function;
 
+/**
+ * Writes sqlmap campaign scripts (.sh / .py / .ps1) for a list of endpoints.
+ *
+ * Scripts are streamed: each row's request and command are built and written before
+ * the next, through a buffered channel writer, so memory stays flat however large the
+ * spec. Writing is meant for a background thread; see {@link Listener} for progress and
+ * cancellation.
+ */
 public class SqlmapScriptExporter {
 
+  static final String SHARD_MANIFEST = "swagger2sqlmap-shards.json";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+  /** Line after which a parallel .sh script keeps its job table. */
+  private static final String JOB_TABLE_MARKER = "__JOBS__";
+
   private final MontoyaApi api;
   private final Function<EndpointRow, HttpRequest> requestBuilder;
   private final List<EndpointRow> rows;
   private final SqlmapCommandBuilder.Options options;
+  private final SqlmapCommandBuilder.Template template;
+  private final ScriptOptions scriptOptions;
+  private Progress progress = new Progress(Listener.NONE, 0);
 
   public SqlmapScriptExporter(
       MontoyaApi api,
       Function<EndpointRow, HttpRequest> requestBuilder,
       List<EndpointRow> rows,
       SqlmapCommandBuilder.Options options
+  ) {
+    this(api, requestBuilder, rows, options, ScriptOptions.defaults());
+  }
+
+  public SqlmapScriptExporter(
+      MontoyaApi api,
+      Function<EndpointRow, HttpRequest> requestBuilder,
+      List<EndpointRow> rows,
+      SqlmapCommandBuilder.Options options,
+      ScriptOptions scriptOptions
   ) {
     this.api = api;
     this.requestBuilder = requestBuilder;
     this.rows = rows;
     this.options = options == null ? SqlmapCommandBuilder.Options.defaults() : options;
+    this.template = SqlmapCommandBuilder.compile(this.options);
+    this.scriptOptions = scriptOptions == null ? ScriptOptions.defaults() : scriptOptions;
   }
 
-  public void saveAsSh(Component parent) throws Exception {
-    File out = chooseSaveFile(parent, "swagger2sqlmap.sh");
-    if (out == null) return;
+  /**
+   * How generated scripts run sqlmap.
+   *
+   * @param parallelJobs concurrent sqlmap processes; 1 = one after another (classic script).
+   *                     Overridable at run time with the JOBS environment variable.
+   * @param outputDir    parallel mode only: each job gets {@code <outputDir>/<job name>/} as its
+   *                     sqlmap --output-dir and writes its console output to sqlmap.log there.
+   *                     Overridable with OUT_DIR.
+   * @param requestFiles write each request to requests/*.req next to the script and run
+   *                     {@code sqlmap -r} on it instead of inlining headers and body (no
+   *                     ARG_MAX limits, no quoting of bodies). Scripts then change into their
+   *                     own directory first, so relative paths resolve against it.
+   */
+  public record ScriptOptions(int parallelJobs, String outputDir, boolean requestFiles) {
+    public static ScriptOptions defaults() {
+      return new ScriptOptions(1, "sqlmap-out", false);
+    }
 
-    StringBuilder sb = new StringBuilder();
-    sb.append("#!/bin/bash\n");
-    sb.append("set -e\n\n");
+    public boolean parallel() {
+      return parallelJobs > 1;
+    }
+  }
 
-    for (EndpointRow r : rows) {
-      String cmd = buildShellCommandFor(r);
-      sb.append("echo ").append(shellQuote("=== " + r.method() + " " + r.path() + " ===")).append("\n");
-      sb.append(cmd).append("\n\n");
+  /**
+   * Progress of a streaming export.
+   * Called from the exporting thread after every written row (script line or request file).
+   */
+  public interface Listener {
+    Listener NONE = (done, total) -> {};
+
+    void onRow(int done, int total);
+
+    /** Polled before every row; true aborts the export with a CancellationException. */
+    default boolean isCancelled() { return false; }
+  }
+
+  /** Row counter of one export; the shard scripts of a sharded export share it. */
+  private static final class Progress {
+    private final Listener listener;
+    private final int total;
+    private int done;
+
+    Progress(Listener listener, int total) {
+      this.listener = listener;
+      this.total = total;
     }
 
-    Files.writeString(out.toPath(), sb.toString(), StandardCharsets.UTF_8);
-    api.logging().logToOutput("Saved .sh: " + out.getAbsolutePath());
+    void row() {
+      if (listener.isCancelled()) throw new CancellationException("Export cancelled");
+      listener.onRow(++done, total);
+    }
   }
 
-  public void saveAsPy(Component parent) throws Exception {
-    File out = chooseSaveFile(parent, "swagger2sqlmap.py");
-    if (out == null) return;
+  /** Save dialog for a "sh", "py" or "ps1" script; null when cancelled. EDT only. */
+  public static File chooseScriptFile(Component parent, String kind) {
+    JFileChooser fc = new JFileChooser();
+    fc.setSelectedFile(new File("swagger2sqlmap." + kind));
+    if (fc.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) return null;
+    return fc.getSelectedFile();
+  }
 
-    StringBuilder sb = new StringBuilder();
-    sb.append("#!/usr/bin/env python3\n");
-    sb.append("import subprocess\n\n");
-    sb.append("commands = [\n");
+  /** Directory dialog for {@link #writeSharded}; null when cancelled. EDT only. */
+  public static File chooseShardDirectory(Component parent) {
+    JFileChooser fc = new JFileChooser();
+    fc.setDialogTitle("Directory for shard scripts");
+    fc.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    if (fc.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) return null;
+    return fc.getSelectedFile();
+  }
 
-    for (EndpointRow r : rows) {
-      String cmd = buildShellCommandFor(r);
-      sb.append("  ").append(pyQuote(cmd)).append(",\n");
+  /**
+   * Streams the script to {@code file} (plus request files next to it in -r mode).
+   * Blocking; call off the EDT.
+   *
+   * @param kind "sh", "py" or "ps1"
+   * @throws CancellationException when {@link Listener#isCancelled()} turns true
+   */
+  public void writeScript(Path file, String kind, Listener listener) throws IOException {
+    progress = new Progress(listener == null ? Listener.NONE : listener, rowsToWrite(rows.size()));
+    streamScript(file, kind);
+    writeRequestFiles(file.toAbsolutePath().getParent());
+    log("Saved " + modeLabel() + "." + kind + ": " + file.toAbsolutePath());
+  }
+
+  /**
+   * One script per shard (see {@link ShardPlanner}) plus {@value #SHARD_MANIFEST}, which lists
+   * the endpoints and estimated cost of each shard, into {@code dir}. Blocking; call off the EDT.
+   *
+   * @param kind "sh", "py" or "ps1"
+   * @throws CancellationException when {@link Listener#isCancelled()} turns true
+   */
+  public void writeSharded(Path dir, String kind, int shardCount, Listener listener) throws IOException {
+    progress = new Progress(listener == null ? Listener.NONE : listener, rowsToWrite(rows.size()));
+    List<ShardPlanner.Shard> shards = ShardPlanner.plan(rows, shardCount, options);
+    writeShards(dir, kind, shards);
+    log("Saved " + shards.size() + " " + modeLabel() + "." + kind + " shard(s) and "
+        + SHARD_MANIFEST + ": " + dir.toAbsolutePath());
+  }
+
+  /** Script lines, plus one request file per row in -r mode. */
+  private int rowsToWrite(int rowCount) {
+    return scriptOptions.requestFiles() ? 2 * rowCount : rowCount;
+  }
+
+  void writeShards(Path dir, String kind, List<ShardPlanner.Shard> shards) throws IOException {
+    writeRequestFiles(dir); // one requests/ dir shared by all shard scripts
+
+    int width = String.valueOf(shards.size()).length();
+
+    ObjectNode manifest = MAPPER.createObjectNode();
+    manifest.put("generatedAt", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+    manifest.put("format", kind);
+    manifest.put("costModel", "(1 + parameters) * level * risk");
+    manifest.put("level", options.level() == null ? 1 : options.level());
+    manifest.put("risk", options.risk() == null ? 1 : options.risk());
+    manifest.put("totalEndpoints", rows.size());
+    manifest.put("totalCost", shards.stream().mapToLong(ShardPlanner.Shard::cost).sum());
+    ArrayNode list = manifest.putArray("shards");
+
+    for (ShardPlanner.Shard shard : shards) {
+      String name = String.format(Locale.ROOT, "swagger2sqlmap-shard-%0" + width + "d-of-%d.%s",
+          shard.index(), shards.size(), kind);
+
+      SqlmapScriptExporter part = new SqlmapScriptExporter(api, requestBuilder, shard.rows(), options, scriptOptions);
+      part.progress = progress;
+      part.streamScript(dir.resolve(name), kind);
+
+      ObjectNode s = list.addObject();
+      s.put("index", shard.index());
+      s.put("script", name);
+      s.put("checkpoint", name + ".checkpoint");
+      s.put("endpoints", shard.rows().size());
+      s.put("cost", shard.cost());
+      ArrayNode targets = s.putArray("targets");
+      for (EndpointRow r : shard.rows()) {
+        targets.addObject()
+            .put("id", Checkpoint.endpointId(r))
+            .put("method", r.method())
+            .put("path", r.path())
+            .put("cost", ShardPlanner.estimateCost(r, options));
+      }
     }
-    sb.append("]\n\n");
-    sb.append("for c in commands:\n");
-    sb.append("  print('RUN:', c)\n");
-    sb.append("  subprocess.call(c, shell=True)\n");
 
-    Files.writeString(out.toPath(), sb.toString(), StandardCharsets.UTF_8);
-    api.logging().logToOutput("Saved .py: " + out.getAbsolutePath());
+    MAPPER.writerWithDefaultPrettyPrinter().writeValue(dir.resolve(SHARD_MANIFEST).toFile(), manifest);
   }
 
-  public void saveAsPs1(Component parent) throws Exception {
-    File out = chooseSaveFile(parent, "swagger2sqlmap.ps1");
-    if (out == null) return;
+  /** Request-file mode only: requests/*.req and requests/index.tsv for all rows under {@code dir}. */
+  void writeRequestFiles(Path dir) throws IOException {
+    if (!scriptOptions.requestFiles()) return;
 
-    StringBuilder sb = new StringBuilder();
-    sb.append("$ErrorActionPreference = 'Stop'\n\n");
+    try (RequestFiles files = new RequestFiles(dir, options)) {
+      for (EndpointRow r : rows) {
+        progress.row();
+        files.write(r, requestBuilder.apply(r));
+      }
+    }
+    log("Wrote " + rows.size() + " request file(s) to " + dir.resolve(RequestFiles.DIR));
+  }
+
+  /**
+   * Writes to "{@code file}.part" and moves it into place once complete, so a cancelled or
+   * failed export never leaves a truncated script behind (or clobbers the previous one).
+   */
+  private void streamScript(Path file, String kind) throws IOException {
+    Path part = file.resolveSibling(file.getFileName() + ".part");
+    try (FileChannel ch = FileChannel.open(part,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+         Writer out = Channels.newWriter(ch, StandardCharsets.UTF_8.newEncoder()
+             .onMalformedInput(CodingErrorAction.REPLACE)
+             .onUnmappableCharacter(CodingErrorAction.REPLACE), WRITE_BUFFER_BYTES)) {
+      writeScript(out, kind);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(part);
+      throw e;
+    }
+
+    try {
+      Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Generates the script of {@code kind} into {@code out}, one row at a time (no request
+   * files, no progress).
+   */
+  public void writeScript(Appendable out, String kind) throws IOException {
+    switch (kind) {
+      case "sh" -> { if (scriptOptions.parallel()) parallelSh(out); else sequentialSh(out); }
+      case "py" -> { if (scriptOptions.parallel()) parallelPy(out); else sequentialPy(out); }
+      case "ps1" -> { if (scriptOptions.parallel()) parallelPs1(out); else sequentialPs1(out); }
+      default -> throw new IllegalArgumentException("Unknown export: " + kind);
+    }
+  }
+
+  /** api is null when scripts are generated outside Burp. */
+  private void log(String msg) {
+    if (api != null) api.logging().logToOutput(msg);
+  }
+
+  private String modeLabel() {
+    String mode = scriptOptions.parallel() ? "parallel (" + scriptOptions.parallelJobs() + " jobs) " : "";
+    return scriptOptions.requestFiles() ? mode + "-r " : mode;
+  }
+
+  // ================= sequential scripts =================
+
+  private void sequentialSh(Appendable out) throws IOException {
+    out.append("#!/bin/bash\n");
+    appendShPreamble(out);
+    appendShCheckpoint(out);
+
+    out.append("failed=0\n");
+    out.append("run_one() {\n");
+    out.append("  local id=\"$1\" name=\"$2\"; shift 2\n");
+    out.append("  if is_done \"$id\"; then echo \"[skip] $name\"; return 0; fi\n");
+    out.append("  echo \"=== $name ===\"\n");
+    out.append("  \"$@\"\n");
+    out.append("  local rc=$?\n");
+    out.append("  record \"$id\" \"$rc\" \"$name\"\n");
+    out.append("  [ \"$rc\" -eq 0 ] || failed=$((failed + 1))\n");
+    out.append("}\n\n");
+
+    for (EndpointRow r : rows) {
+      progress.row();
+      out.append("run_one ").append(Checkpoint.endpointId(r))
+          .append(' ').append(shellQuote(r.method() + " " + r.path()))
+          .append(' ');
+      appendShellCommandFor(out, r);
+      out.append("\n");
+    }
 
+    out.append("\n[ \"$failed\" -eq 0 ] || echo \"$failed endpoint(s) failed; run again to retry them\" >&2\n");
+    out.append("exit $(( failed == 0 ? 0 : 1 ))\n");
+  }
+
+  private void sequentialPy(Appendable out) throws IOException {
+    out.append("#!/usr/bin/env python3\n");
+    out.append("import os\n");
+    out.append("import subprocess\n");
+    out.append("import sys\n");
+    out.append("import threading\n");
+    out.append("import time\n\n");
+    appendPyPreamble(out);
+    appendPyCheckpoint(out);
+
+    out.append("commands = [\n");
     for (EndpointRow r : rows) {
+      progress.row();
       String cmd = buildShellCommandFor(r);
-      sb.append("Write-Host ").append(psQuote("=== " + r.method() + " " + r.path() + " ===")).append("\n");
-      sb.append(cmd).append("\n\n");
+      out.append("  (").append(pyQuote(Checkpoint.endpointId(r)))
+          .append(", ").append(pyQuote(r.method() + " " + r.path()))
+          .append(", ").append(pyQuote(cmd)).append("),\n");
+    }
+    out.append("]\n\n");
+
+    out.append("done = load_done()\n");
+    out.append("failed = 0\n");
+    out.append("for job_id, name, c in commands:\n");
+    out.append("  if job_id in done:\n");
+    out.append("    print('SKIP:', name)\n");
+    out.append("    continue\n");
+    out.append("  print('RUN:', c)\n");
+    out.append("  rc = subprocess.call(c, shell=True)\n");
+    out.append("  record(job_id, rc, name)\n");
+    out.append("  failed += rc != 0\n\n");
+    out.append("if failed:\n");
+    out.append("  print('%d endpoint(s) failed; run again to retry them' % failed, file=sys.stderr)\n");
+    out.append("sys.exit(1 if failed else 0)\n");
+  }
+
+  private void sequentialPs1(Appendable out) throws IOException {
+    out.append("$ErrorActionPreference = 'Continue'\n\n");
+    appendPs1Preamble(out);
+    appendPs1Checkpoint(out);
+
+    out.append("$failed = 0\n\n");
+    for (EndpointRow r : rows) {
+      progress.row();
+      String id = psQuote(Checkpoint.endpointId(r));
+      String name = psQuote(r.method() + " " + r.path());
+      out.append("if ($Done.ContainsKey(").append(id).append(")) { Write-Host ('[skip] ' + ").append(name).append(") } else {\n");
+      out.append("  Write-Host ('=== ' + ").append(name).append(" + ' ===')\n");
+      out.append("  $global:LASTEXITCODE = 127\n");
+      out.append("  & ");
+      appendPs(out, buildCommandFor(r).args(), " ");
+      out.append("\n");
+      out.append("  Save-Result ").append(id).append(" $global:LASTEXITCODE ").append(name).append("\n");
+      out.append("  if ($global:LASTEXITCODE -ne 0) { $failed++ }\n");
+      out.append("}\n\n");
     }
 
-    Files.writeString(out.toPath(), sb.toString(), StandardCharsets.UTF_8);
-    api.logging().logToOutput("Saved .ps1: " + out.getAbsolutePath());
+    out.append("if ($failed -gt 0) { Write-Warning \"$failed endpoint(s) failed; run again to retry them\" }\n");
+    out.append("exit [int]($failed -gt 0)\n");
+  }
+
+  // ================= parallel scripts =================
+
+  /**
+   * Re-invokes itself once per job through {@code xargs -P}: portable to the bash 3 /
+   * BSD xargs on macOS, unlike {@code wait -n} or GNU parallel. The jobs are one line
+   * each after the final {@code exit}, so bash never parses them as part of the script;
+   * {@code --job N} reads line N there (awk stops at it) and evals only that line.
+   */
+  void parallelSh(Appendable out) throws IOException {
+    out.append("#!/bin/bash\n");
+    out.append("# ").append(String.valueOf(rows.size())).append(" sqlmap jobs, ").append(String.valueOf(scriptOptions.parallelJobs())).append(" at a time.\n");
+    out.append("# Each job writes to $OUT_DIR/<job>/ (sqlmap --output-dir) and $OUT_DIR/<job>/sqlmap.log\n");
+    appendShPreamble(out);
+    out.append("JOBS=\"${JOBS:-").append(String.valueOf(scriptOptions.parallelJobs())).append("}\"\n");
+    out.append("OUT_DIR=\"${OUT_DIR:-").append(shellDefault(scriptOptions.outputDir())).append("}\"\n");
+    out.append("export OUT_DIR\n");
+    appendShCheckpoint(out);
+    out.append("export CHECKPOINT\n\n");
+
+    out.append("run_one() {\n");
+    out.append("  local id=\"$1\" name=\"$2\"; shift 2\n");
+    out.append("  if is_done \"$id\"; then echo \"[skip] $name\"; return 0; fi\n");
+    out.append("  local dir=\"$OUT_DIR/$name\"\n");
+    out.append("  mkdir -p \"$dir\" || return 1\n");
+    out.append("  echo \"[start] $name\"\n");
+    out.append("  \"$@\" --output-dir \"$dir\" < /dev/null > \"$dir/sqlmap.log\" 2>&1\n");
+    out.append("  local rc=$?\n");
+    out.append("  record \"$id\" \"$rc\" \"$name\"\n");
+    out.append("  if [ \"$rc\" -eq 0 ]; then echo \"[done] $name\"; else echo \"[fail:$rc] $name\"; fi\n");
+    out.append("  return $(( rc == 0 ? 0 : 1 ))\n");
+    out.append("}\n\n");
+
+    out.append("if [ \"$1\" = \"--job\" ]; then\n");
+    out.append("  case \"$2\" in ''|*[!0-9]*) echo \"unknown job: $2\" >&2; exit 2 ;; esac\n");
+    out.append("  at=$(grep -n -m 1 '^").append(JOB_TABLE_MARKER).append("$' \"$SELF\" | cut -d: -f1)\n");
+    out.append("  job=$(awk -v n=\"$(( at + $2 ))\" 'NR == n { print; exit }' \"$SELF\")\n");
+    out.append("  case \"$job\" in\n");
+    out.append("    'run_one '*) eval \"$job\"; exit $? ;;\n");
+    out.append("    *) echo \"unknown job: $2\" >&2; exit 2 ;;\n");
+    out.append("  esac\n");
+    out.append("fi\n\n");
+
+    out.append("mkdir -p \"$OUT_DIR\" || exit 1\n");
+    out.append("seq 1 ").append(String.valueOf(rows.size())).append(" | xargs -P \"$JOBS\" -n 1 bash \"$SELF\" --job\n");
+    out.append("rc=$?\n");
+    out.append("[ \"$rc\" -eq 0 ] || echo \"Some jobs failed (see $OUT_DIR/*/sqlmap.log); run again to retry them\" >&2\n");
+    out.append("exit \"$rc\"\n");
+
+    // job table: line N after the marker is job N
+    out.append(JOB_TABLE_MARKER).append('\n');
+    StringBuilder line = new StringBuilder(256);
+    for (int i = 0; i < rows.size(); i++) {
+      progress.row();
+      EndpointRow r = rows.get(i);
+      line.setLength(0);
+      line.append("run_one ").append(Checkpoint.endpointId(r))
+          .append(' ').append(shellQuote(jobName(i)))
+          .append(' ');
+      appendShellCommandFor(line, r);
+      appendOneLine(out, line);
+      out.append('\n');
+    }
+  }
+
+  void parallelPy(Appendable out) throws IOException {
+    out.append("#!/usr/bin/env python3\n");
+    out.append("# ").append(String.valueOf(rows.size())).append(" sqlmap jobs, ").append(String.valueOf(scriptOptions.parallelJobs())).append(" at a time.\n");
+    out.append("# Each job writes to OUT_DIR/<job>/ (sqlmap --output-dir) and OUT_DIR/<job>/sqlmap.log\n");
+    out.append("import os\n");
+    out.append("import subprocess\n");
+    out.append("import sys\n");
+    out.append("import threading\n");
+    out.append("import time\n");
+    out.append("from concurrent.futures import ThreadPoolExecutor, as_completed\n\n");
+    out.append("JOBS = int(os.environ.get('JOBS', '").append(String.valueOf(scriptOptions.parallelJobs())).append("'))\n");
+    out.append("OUT_DIR = os.environ.get('OUT_DIR', ").append(pyQuote(scriptOptions.outputDir())).append(")\n");
+    appendPyPreamble(out);
+    appendPyCheckpoint(out);
+
+    out.append("jobs = [\n");
+    for (int i = 0; i < rows.size(); i++) {
+      progress.row();
+      EndpointRow r = rows.get(i);
+      out.append("  (").append(pyQuote(Checkpoint.endpointId(r)))
+          .append(", ").append(pyQuote(jobName(i))).append(", [");
+      List<String> args = buildCommandFor(r).args();
+      for (int k = 0; k < args.size(); k++) {
+        if (k > 0) out.append(", ");
+        Quoting.PYTHON.append(out, args.get(k));
+      }
+      out.append("]),\n");
+    }
+    out.append("]\n\n");
+
+    out.append("def run(job_id, name, argv):\n");
+    out.append("  d = os.path.join(OUT_DIR, name)\n");
+    out.append("  os.makedirs(d, exist_ok=True)\n");
+    out.append("  print('[start]', name, flush=True)\n");
+    out.append("  with open(os.path.join(d, 'sqlmap.log'), 'wb') as log:\n");
+    out.append("    try:\n");
+    out.append("      rc = subprocess.call(argv + ['--output-dir', d], stdin=subprocess.DEVNULL, stdout=log, stderr=subprocess.STDOUT)\n");
+    out.append("    except OSError as e:\n");
+    out.append("      log.write(('cannot start %s: %s\\n' % (argv[0], e)).encode())\n");
+    out.append("      rc = 127\n");
+    out.append("  record(job_id, rc, name)\n");
+    out.append("  return rc\n\n");
+
+    out.append("done = load_done()\n");
+    out.append("todo = [j for j in jobs if j[0] not in done]\n");
+    out.append("for j in jobs:\n");
+    out.append("  if j[0] in done:\n");
+    out.append("    print('[skip]', j[1])\n\n");
+
+    out.append("failed = 0\n");
+    out.append("with ThreadPoolExecutor(max_workers=max(1, JOBS)) as pool:\n");
+    out.append("  futures = {pool.submit(run, *j): j[1] for j in todo}\n");
+    out.append("  for f in as_completed(futures):\n");
+    out.append("    rc = f.result()\n");
+    out.append("    if rc == 0:\n");
+    out.append("      print('[done]', futures[f], flush=True)\n");
+    out.append("    else:\n");
+    out.append("      failed += 1\n");
+    out.append("      print('[fail:%d] %s' % (rc, futures[f]), flush=True)\n\n");
+    out.append("if failed:\n");
+    out.append("  print('%d job(s) failed (see %s); run again to retry them' % (failed, os.path.join(OUT_DIR, '*', 'sqlmap.log')), file=sys.stderr)\n");
+    out.append("sys.exit(1 if failed else 0)\n");
+  }
+
+  /**
+   * Runspace pool: real threads in one PowerShell process (Start-Job would spawn one process per job).
+   * Finished jobs are collected by polling so the checkpoint follows completion order.
+   */
+  void parallelPs1(Appendable out) throws IOException {
+    out.append("# ").append(String.valueOf(rows.size())).append(" sqlmap jobs, ").append(String.valueOf(scriptOptions.parallelJobs())).append(" at a time.\n");
+    out.append("# Each job writes to $OutDir\\<job>\\ (sqlmap --output-dir) and $OutDir\\<job>\\sqlmap.log\n");
+    appendPs1Preamble(out);
+    out.append("$Jobs = if ($env:JOBS) { [int]$env:JOBS } else { ").append(String.valueOf(scriptOptions.parallelJobs())).append(" }\n");
+    out.append("$OutDir = if ($env:OUT_DIR) { $env:OUT_DIR } else { ").append(psQuote(scriptOptions.outputDir())).append(" }\n");
+    out.append("$OutDir = $ExecutionContext.SessionState.Path.GetUnresolvedProviderPathFromPSPath($OutDir)\n");
+    appendPs1Checkpoint(out);
+
+    out.append("$Targets = @(\n");
+    for (int i = 0; i < rows.size(); i++) {
+      progress.row();
+      EndpointRow r = rows.get(i);
+      out.append("  ,@(").append(psQuote(Checkpoint.endpointId(r)))
+          .append(", ").append(psQuote(jobName(i)))
+          .append(", @(");
+      appendPs(out, buildCommandFor(r).args(), ", ");
+      out.append("))\n");
+    }
+    out.append(")\n\n");
+
+    out.append("$Work = {\n");
+    out.append("  param($Name, $Argv, $Dir)\n");
+    out.append("  New-Item -ItemType Directory -Force -Path $Dir | Out-Null\n");
+    out.append("  $exe = $Argv[0]\n");
+    out.append("  $rest = @($Argv | Select-Object -Skip 1) + @('--output-dir', $Dir)\n");
+    out.append("  try {\n");
+    out.append("    & $exe @rest 2>&1 | Out-File -FilePath (Join-Path $Dir 'sqlmap.log') -Encoding utf8\n");
+    out.append("    $LASTEXITCODE\n");
+    out.append("  } catch {\n");
+    out.append("    \"cannot start ${exe}: $_\" | Out-File -FilePath (Join-Path $Dir 'sqlmap.log') -Encoding utf8\n");
+    out.append("    127\n");
+    out.append("  }\n");
+    out.append("}\n\n");
+
+    out.append("$pool = [runspacefactory]::CreateRunspacePool(1, [Math]::Max(1, $Jobs))\n");
+    out.append("$pool.Open()\n");
+    out.append("$running = @(foreach ($t in $Targets) {\n");
+    out.append("  if ($Done.ContainsKey($t[0])) { Write-Host \"[skip] $($t[1])\"; continue }\n");
+    out.append("  $ps = [powershell]::Create().AddScript($Work).AddArgument($t[1]).AddArgument($t[2]).AddArgument((Join-Path $OutDir $t[1]))\n");
+    out.append("  $ps.RunspacePool = $pool\n");
+    out.append("  [pscustomobject]@{ Id = $t[0]; Name = $t[1]; Shell = $ps; Handle = $ps.BeginInvoke() }\n");
+    out.append("})\n\n");
+
+    out.append("$failed = 0\n");
+    out.append("$pending = [System.Collections.ArrayList]::new($running)\n");
+    out.append("while ($pending.Count -gt 0) {\n");
+    out.append("  foreach ($r in @($pending)) {\n");
+    out.append("    if (-not $r.Handle.IsCompleted) { continue }\n");
+    out.append("    $rc = @($r.Shell.EndInvoke($r.Handle))[-1]\n");
+    out.append("    Save-Result $r.Id $rc $r.Name\n");
+    out.append("    if ($rc -eq 0) { Write-Host \"[done] $($r.Name)\" } else { $failed++; Write-Host \"[fail:$rc] $($r.Name)\" }\n");
+    out.append("    $r.Shell.Dispose()\n");
+    out.append("    $pending.Remove($r)\n");
+    out.append("  }\n");
+    out.append("  if ($pending.Count -gt 0) { Start-Sleep -Milliseconds 200 }\n");
+    out.append("}\n");
+    out.append("$pool.Close()\n\n");
+    out.append("if ($failed -gt 0) { Write-Warning \"$failed job(s) failed (see $OutDir\\*\\sqlmap.log); run again to retry them\" }\n");
+    out.append("exit [int]($failed -gt 0)\n");
+  }
+
+  /** Directory-safe, unique job name: "007_POST_api_users_id". */
+  private String jobName(int index) {
+    EndpointRow r = rows.get(index);
+    int width = Math.max(3, String.valueOf(rows.size()).length());
+    return String.format(Locale.ROOT, "%0" + width + "d_%s_%s",
+        index + 1, safe(r.method()).toUpperCase(Locale.ROOT), RequestFiles.slug(r.path()));
+  }
+
+  // ================= preamble =================
+
+  /** SELF = path of the script from the (possibly changed) working directory. */
+  private void appendShPreamble(Appendable out) throws IOException {
+    if (scriptOptions.requestFiles()) {
+      out.append("# -r request files are relative to this script\n");
+      out.append("cd \"$(dirname \"$0\")\" || exit 1\n");
+      out.append("SELF=\"./$(basename \"$0\")\"\n");
+    } else {
+      out.append("SELF=\"$0\"\n");
+    }
+  }
+
+  private void appendPyPreamble(Appendable out) throws IOException {
+    if (!scriptOptions.requestFiles()) return;
+    out.append("# -r request files are relative to this script\n");
+    out.append("os.chdir(os.path.dirname(os.path.abspath(__file__)))\n\n");
+  }
+
+  /** Native processes resolve relative paths against the process directory, not the PowerShell location. */
+  private void appendPs1Preamble(Appendable out) throws IOException {
+    if (!scriptOptions.requestFiles()) return;
+    out.append("# -r request files are relative to this script\n");
+    out.append("Set-Location -LiteralPath $PSScriptRoot\n");
+    out.append("[Environment]::CurrentDirectory = $PSScriptRoot\n\n");
+  }
+
+  // ================= checkpoint (see Checkpoint for the file format) =================
+
+  /** CHECKPOINT defaults to "<script>.checkpoint" next to the script. */
+  private static void appendShCheckpoint(Appendable out) throws IOException {
+    out.append("# Finished endpoints are logged to $CHECKPOINT; running the script again skips\n");
+    out.append("# those that succeeded and retries the rest. Delete the file to start over.\n");
+    out.append("CHECKPOINT=\"${CHECKPOINT:-$SELF.checkpoint}\"\n\n");
+    out.append("is_done() {\n");
+    out.append("  [ -f \"$CHECKPOINT\" ] && grep -q \"^$1\"$'\\t'\"done\"$'\\t' \"$CHECKPOINT\"\n");
+    out.append("}\n\n");
+    out.append("record() {\n");
+    out.append("  local status=done\n");
+    out.append("  [ \"$2\" -eq 0 ] || status=fail\n");
+    out.append("  printf '%s\\t%s\\t%s\\t%s\\t%s\\n' \"$1\" \"$status\" \"$2\" \"$(date -u +%Y-%m-%dT%H:%M:%SZ)\" \"$3\" >> \"$CHECKPOINT\"\n");
+    out.append("}\n\n");
+  }
+
+  private static void appendPyCheckpoint(Appendable out) throws IOException {
+    out.append("# Finished endpoints are logged to CHECKPOINT; running the script again skips\n");
+    out.append("# those that succeeded and retries the rest. Delete the file to start over.\n");
+    out.append("CHECKPOINT = os.environ.get('CHECKPOINT', os.path.abspath(__file__) + '.checkpoint')\n");
+    out.append("_checkpoint_lock = threading.Lock()\n\n");
+    out.append("def load_done():\n");
+    out.append("  done = set()\n");
+    out.append("  try:\n");
+    out.append("    with open(CHECKPOINT, encoding='utf-8') as f:\n");
+    out.append("      for line in f:\n");
+    out.append("        parts = line.rstrip('\\n').split('\\t')\n");
+    out.append("        if len(parts) >= 2 and parts[1] == 'done':\n");
+    out.append("          done.add(parts[0])\n");
+    out.append("  except FileNotFoundError:\n");
+    out.append("    pass\n");
+    out.append("  return done\n\n");
+    out.append("def record(job_id, rc, name):\n");
+    out.append("  stamp = time.strftime('%Y-%m-%dT%H:%M:%SZ', time.gmtime())\n");
+    out.append("  line = '%s\\t%s\\t%d\\t%s\\t%s\\n' % (job_id, 'done' if rc == 0 else 'fail', rc, stamp, name)\n");
+    out.append("  with _checkpoint_lock, open(CHECKPOINT, 'a', encoding='utf-8') as f:\n");
+    out.append("    f.write(line)\n\n");
+  }
+
+  private static void appendPs1Checkpoint(Appendable out) throws IOException {
+    out.append("# Finished endpoints are logged to $Checkpoint; running the script again skips\n");
+    out.append("# those that succeeded and retries the rest. Delete the file to start over.\n");
+    out.append("$Checkpoint = if ($env:CHECKPOINT) { $env:CHECKPOINT } else { \"$PSCommandPath.checkpoint\" }\n");
+    out.append("$Checkpoint = $ExecutionContext.SessionState.Path.GetUnresolvedProviderPathFromPSPath($Checkpoint)\n");
+    out.append("$Done = @{}\n");
+    out.append("if (Test-Path -LiteralPath $Checkpoint) {\n");
+    out.append("  foreach ($line in [System.IO.File]::ReadAllLines($Checkpoint)) {\n");
+    out.append("    $f = $line -split \"`t\"\n");
+    out.append("    if ($f.Count -ge 2 -and $f[1] -eq 'done') { $Done[$f[0]] = $true }\n");
+    out.append("  }\n");
+    out.append("}\n\n");
+    out.append("function Save-Result($Id, $Rc, $Name) {\n");
+    out.append("  $status = if ($Rc -eq 0) { 'done' } else { 'fail' }\n");
+    out.append("  $stamp = [DateTime]::UtcNow.ToString('yyyy-MM-ddTHH:mm:ssZ')\n");
+    out.append("  [System.IO.File]::AppendAllText($Checkpoint, \"$Id`t$status`t$Rc`t$stamp`t$Name`n\")\n");
+    out.append("}\n\n");
   }
 
   // ================= internals =================
 
-  private String buildShellCommandFor(EndpointRow r) {
+  private SqlmapCommandBuilder.SqlmapCommand buildCommandFor(EndpointRow r) {
     HttpRequest req = requestBuilder.apply(r);
-    var cmd = SqlmapCommandBuilder.build(req, options);
-    return SqlmapCommandBuilder.toShellCommand(cmd);
+    return scriptOptions.requestFiles()
+        ? template.requestFileCommand(RequestFiles.relativePath(r), r, req)
+        : template.command(r, req);
   }
 
-  private File chooseSaveFile(Component parent, String defaultName) {
-    JFileChooser fc = new JFileChooser();
-    fc.setSelectedFile(new File(defaultName));
-    if (fc.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) return null;
-    return fc.getSelectedFile();
+  /** Shell-quoted command of {@code r}; the option tail comes pre-quoted from the template. */
+  private void appendShellCommandFor(Appendable out, EndpointRow r) throws IOException {
+    HttpRequest req = requestBuilder.apply(r);
+    if (scriptOptions.requestFiles()) template.appendShellRequestFileCommand(out, RequestFiles.relativePath(r), r, req);
+    else template.appendShellCommand(out, r, req);
+  }
+
+  private String buildShellCommandFor(EndpointRow r) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    appendShellCommandFor(sb, r);
+    return sb.toString();
+  }
+
+  /**
+   * Appends a shell-quoted command as one line. Line breaks can only be inside '...'
+   * words (bodies), so each one closes the quote and is written as $'\n' / $'\r'.
+   */
+  private static void appendOneLine(Appendable out, CharSequence cmd) throws IOException {
+    int run = 0;
+    for (int i = 0; i < cmd.length(); i++) {
+      char c = cmd.charAt(i);
+      if (c != '\n' && c != '\r') continue;
+      out.append(cmd, run, i).append(c == '\n' ? "'$'\\n''" : "'$'\\r''");
+      run = i + 1;
+    }
+    out.append(cmd, run, cmd.length());
+  }
+
+  /** Value for a {@code ${VAR:-default}} expansion inside double quotes. */
+  private static String shellDefault(String s) {
+    return safe(s).replaceAll("([\\\\\"$`}])", "\\\\$1");
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
   }
 
   private static String shellQuote(String s) {
-    if (s == null) return "''";
-    return "'" + s.replace("'", "'\"'\"'") + "'";
+    return Quoting.BASH.quote(s);
   }
 
   private static String pyQuote(String s) {
-    if (s == null) return "''";
-    // python single-quote escaping
-    return "'" + s.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    return Quoting.PYTHON.quote(s);
   }
 
   private static String psQuote(String s) {
-    if (s == null) return "''";
-    // PowerShell single quotes escape by doubling ''
-    return "'" + s.replace("'", "''") + "'";
+    return Quoting.POWERSHELL.quote(s);
+  }
+
+  /** PowerShell arguments ({@code sep} " ") or array items ({@code sep} ", "). */
+  private static void appendPs(Appendable out, List<String> args, String sep) throws IOException {
+    for (int i = 0; i < args.size(); i++) {
+      if (i > 0) out.append(sep);
+      Quoting.POWERSHELL.append(out, args.get(i));
+    }
   }
 }
@@ -0,0 +1,137 @@
+package swagger2sqlmap.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Re-parses one spec file repeatedly, re-extracting only the path items that changed.
+ *
+ * The previous document is kept in memory. When everything outside "paths" is unchanged
+ * (components, definitions, servers, ...) and no $ref'd external file changed, path items
+ * equal to their previous version reuse their previous rows; otherwise the whole spec
+ * is extracted again. Specs above {@link SwaggerParser#STREAMING_THRESHOLD_BYTES} are
+ * always parsed in full (streaming keeps no tree to compare against).
+ *
+ * Not thread-safe; meant to be driven by a single watcher thread.
+ */
+public final class IncrementalParser {
+
+  private final File file;
+  private final SwaggerParser.Options opt;
+
+  private JsonNode lastRoot;
+  private Map<String, List<EndpointRow>> rowsByPath = Map.of();
+  private final Map<Path, Stamp> dependencies = new HashMap<>();
+
+  /** Size and mtime of an external file at parse time; size -1 = did not exist. */
+  private record Stamp(long size, long modified) {
+    static Stamp of(Path p) {
+      try {
+        if (!Files.exists(p)) return new Stamp(-1, -1);
+        return new Stamp(Files.size(p), Files.getLastModifiedTime(p).toMillis());
+      } catch (IOException e) {
+        return new Stamp(-1, -1);
+      }
+    }
+  }
+
+  /**
+   * @param incremental    false when the whole spec was extracted again
+   * @param pathsReparsed  path items extracted in this run
+   * @param pathsTotal     path items in the spec (0 for a streamed full parse)
+   */
+  public record Update(SwaggerParser.ParseResult result, boolean incremental, int pathsReparsed, int pathsTotal) {}
+
+  public IncrementalParser(File file, SwaggerParser.Options opt) {
+    this.file = file;
+    this.opt = opt == null ? SwaggerParser.Options.defaults() : opt;
+  }
+
+  public Update reparse() throws Exception {
+    if (file.length() >= SwaggerParser.STREAMING_THRESHOLD_BYTES) {
+      lastRoot = null;
+      rowsByPath = Map.of();
+      dependencies.clear();
+      return new Update(SwaggerParser.parse(file, opt, SwaggerParser.Listener.NONE), false, 0, 0);
+    }
+
+    JsonNode root = SwaggerParser.MAPPER.readTree(file);
+    JsonNode paths = root.path("paths");
+    TemplateCache cache = new TemplateCache();
+    RefResolver refs = new RefResolver(SpecSource.of(root, file.toPath()));
+
+    boolean incremental = lastRoot != null && sameOutsidePaths(lastRoot, root) && dependenciesUnchanged();
+    JsonNode oldPaths = incremental ? lastRoot.path("paths") : null;
+
+    Map<String, List<EndpointRow>> byPath = new HashMap<>();
+    int reparsed = 0;
+
+    if (!incremental) {
+      for (EndpointRow r : SwaggerParser.extractEndpoints(refs, paths, cache, opt.parallelism(), SwaggerParser.Listener.NONE)) {
+        byPath.computeIfAbsent(r.path(), k -> new ArrayList<>()).add(r);
+      }
+      reparsed = paths.size();
+      dependencies.clear();
+    } else if (paths.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = paths.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> p = it.next();
+        JsonNode before = oldPaths.get(p.getKey());
+
+        if (before != null && before.equals(p.getValue())) {
+          byPath.put(p.getKey(), rowsByPath.getOrDefault(p.getKey(), List.of()));
+        } else {
+          List<EndpointRow> rows = new ArrayList<>();
+          SwaggerParser.extractPathItem(refs, cache, p.getKey(), p.getValue(), rows);
+          byPath.put(p.getKey(), rows);
+          reparsed++;
+        }
+      }
+    }
+
+    // reused path items still depend on files loaded by earlier runs
+    for (Path dep : refs.loadedDocuments()) dependencies.put(dep, Stamp.of(dep));
+
+    List<EndpointRow> endpoints = new ArrayList<>();
+    byPath.values().forEach(endpoints::addAll);
+    endpoints.sort(SwaggerParser.ENDPOINT_ORDER);
+
+    lastRoot = root;
+    rowsByPath = byPath;
+
+    SwaggerParser.ParseResult result = new SwaggerParser.ParseResult(
+        SwaggerParser.detectBaseUrl(root),
+        endpoints,
+        cache.stats(),
+        List.copyOf(dependencies.keySet())
+    );
+    return new Update(result, incremental, reparsed, paths.size());
+  }
+
+  private static boolean sameOutsidePaths(JsonNode a, JsonNode b) {
+    if (!a.isObject() || !b.isObject() || a.size() != b.size()) return false;
+
+    for (Iterator<String> it = a.fieldNames(); it.hasNext(); ) {
+      String f = it.next();
+      if ("paths".equals(f)) {
+        if (!b.has(f)) return false;
+      } else if (!Objects.equals(a.get(f), b.get(f))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean dependenciesUnchanged() {
+    for (Map.Entry<Path, Stamp> d : dependencies.entrySet()) {
+      if (!Stamp.of(d.getKey()).equals(d.getValue())) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,156 @@
+package swagger2sqlmap.swagger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Resolves $ref values for one import:
+ *   "#/components/schemas/Order"      -> JSON pointer in the current document
+ *   "common.json#/definitions/Pet"     -> pointer in a file next to the current document
+ *   "../models/pet.json"               -> whole external file
+ *   "Pet"                              -> schema by name (#/components/schemas/Pet,
+ *                                         #/definitions/Pet), as older specs write it
+ *
+ * External documents are read and parsed once and kept in a bounded LRU,
+ * no matter how many refs point into them. Remote (http/https) refs are not fetched.
+ * Thread-safe: parallel extraction shares one resolver.
+ */
+final class RefResolver {
+
+  /** External documents kept in memory per import. */
+  static final int MAX_EXTERNAL_DOCUMENTS = 64;
+
+  /** Max $ref -> $ref hops for requestBodies/parameters before giving up. */
+  private static final int MAX_HOPS = 16;
+
+  /**
+   * @param doc  document the node lives in (nested refs resolve against it)
+   * @param node resolved node, or a missing node
+   * @param key  absolute pointer, unique across documents ("#/components/schemas/X",
+   *             "/specs/common.json#/Pet"); used for cycle detection and caching
+   */
+  record Target(SpecSource doc, JsonNode node, String key) {}
+
+  private final SpecSource root;
+
+  private final Map<Path, Optional<SpecSource>> externals = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Path, Optional<SpecSource>> eldest) {
+      return size() > MAX_EXTERNAL_DOCUMENTS;
+    }
+  };
+  private final Set<Path> loaded = new LinkedHashSet<>();
+
+  RefResolver(SpecSource root) {
+    this.root = root;
+  }
+
+  SpecSource root() {
+    return root;
+  }
+
+  /** Resolves a $ref found in {@code from}. */
+  Target resolve(SpecSource from, String ref) {
+    int hash = ref.indexOf('#');
+    String file = hash < 0 ? ref : ref.substring(0, hash);
+    String pointer = hash < 0 ? "" : percentDecode(ref.substring(hash + 1));
+
+    if (file.isEmpty()) {
+      return new Target(from, from.at(pointer), docKey(from) + "#" + pointer);
+    }
+    if (hash < 0 && !isFileName(file)) {
+      String named = (from.isOpenApi3() ? "/components/schemas/" : "/definitions/") + SpecSource.escape(file);
+      return new Target(from, from.at(named), docKey(from) + "#" + named);
+    }
+
+    Path path = externalPath(from, file);
+    if (path == null) return new Target(from, MissingNode.getInstance(), file + "#" + pointer);
+
+    SpecSource doc = external(path);
+    if (doc == null) return new Target(from, MissingNode.getInstance(), path + "#" + pointer);
+
+    return new Target(doc, doc.at(pointer), path + "#" + pointer);
+  }
+
+  /** Follows $ref chains (e.g. requestBody -> #/components/requestBodies/X) to the first non-ref node. */
+  Target follow(SpecSource from, JsonNode node) {
+    Target t = new Target(from, node, null);
+    for (int hops = 0; hops < MAX_HOPS && t.node().has("$ref"); hops++) {
+      String ref = t.node().path("$ref").asText("");
+      if (ref.isBlank()) break;
+      t = resolve(t.doc(), ref);
+    }
+    return t;
+  }
+
+  /** External files referenced during this import, readable or not (for change detection). */
+  synchronized List<Path> loadedDocuments() {
+    return List.copyOf(loaded);
+  }
+
+  private String docKey(SpecSource doc) {
+    return doc == root || doc.location() == null ? "" : doc.location().toString();
+  }
+
+  /** Has a path or an extension ("pet.json", "models/Pet"), not just a bare schema name. */
+  private static boolean isFileName(String ref) {
+    return ref.indexOf('/') >= 0 || ref.indexOf('\\') >= 0 || ref.indexOf('.') >= 0;
+  }
+
+  private static Path externalPath(SpecSource from, String file) {
+    if (from.location() == null || file.contains("://")) return null;
+    try {
+      return from.location().resolveSibling(percentDecode(file)).normalize();
+    } catch (InvalidPathException e) {
+      return null;
+    }
+  }
+
+  private synchronized SpecSource external(Path path) {
+    Optional<SpecSource> doc = externals.get(path);
+    if (doc == null) {
+      loaded.add(path);
+      try {
+        doc = Optional.of(SpecSource.of(SwaggerParser.MAPPER.readTree(path.toFile()), path));
+      } catch (Exception e) {
+        // unreadable refs resolve to missing nodes, same as unknown local pointers
+        doc = Optional.empty();
+      }
+      externals.put(path, doc);
+    }
+    return doc.orElse(null);
+  }
+
+  /** Decodes %XX escapes of a URI fragment/path (no '+' handling). */
+  private static String percentDecode(String s) {
+    if (s.indexOf('%') < 0) return s;
+
+    StringBuilder sb = new StringBuilder(s.length());
+    ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '%' && i + 2 < s.length()) {
+        int hi = Character.digit(s.charAt(i + 1), 16);
+        int lo = Character.digit(s.charAt(i + 2), 16);
+        if (hi >= 0 && lo >= 0) {
+          pending.write((hi << 4) | lo);
+          i += 2;
+          continue;
+        }
+      }
+      if (pending.size() > 0) {
+        sb.append(pending.toString(StandardCharsets.UTF_8));
+        pending.reset();
+      }
+      sb.append(c);
+    }
+    if (pending.size() > 0) sb.append(pending.toString(StandardCharsets.UTF_8));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,177 @@
+package swagger2sqlmap.swagger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compiled body template: an immutable tree of typed generator nodes.
+ *
+ * A schema is compiled once (and cached per $ref in {@link TemplateCache}); bodies are
+ * then written straight to a {@link JsonGenerator} as often as needed, without
+ * re-reading the schema or building intermediate Map/List graphs.
+ */
+sealed interface SchemaPlan {
+
+  Text TEXT = new Text("text");
+  Whole INTEGER = new Whole(5);
+  Decimal NUMBER = new Decimal(1.5);
+  Bool TRUE = new Bool(true);
+  Null NULL = new Null();
+  Obj EMPTY_OBJECT = new Obj(new String[0], new SchemaPlan[0]);
+
+  void write(JsonGenerator g) throws IOException;
+
+  /** Plain Java value (Map/List/scalar), for non-JSON encodings. */
+  Object instantiate();
+
+  record Text(String value) implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { g.writeString(value); }
+    @Override public Object instantiate() { return value; }
+  }
+
+  record Whole(long value) implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { g.writeNumber(value); }
+    @Override public Object instantiate() { return value; }
+  }
+
+  record Decimal(double value) implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { g.writeNumber(value); }
+    @Override public Object instantiate() { return value; }
+  }
+
+  record Bool(boolean value) implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { g.writeBoolean(value); }
+    @Override public Object instantiate() { return value; }
+  }
+
+  record Null() implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { g.writeNull(); }
+    @Override public Object instantiate() { return null; }
+  }
+
+  /**
+   * Scalar whose schema constrains it (enum, uuid, date, ...) beyond what its JSON type
+   * says; written as {@code value}. Only the parameter scoping looks at the kind.
+   */
+  record Typed(EndpointRow.Kind kind, SchemaPlan value) implements SchemaPlan {
+    @Override public void write(JsonGenerator g) throws IOException { value.write(g); }
+    @Override public Object instantiate() { return value.instantiate(); }
+  }
+
+  /**
+   * Object with properties in declaration order; built with {@link ObjBuilder}.
+   *
+   * Unlike the scalar records, Obj and Arr compare by identity: {@link TemplateCache}
+   * keys the fields of a shared plan by the instance it handed out, and a deep equals
+   * would hash the whole tree on every lookup. The arrays never leave the instance.
+   */
+  final class Obj implements SchemaPlan {
+    private final String[] names;
+    private final SchemaPlan[] values;
+
+    /** Takes ownership of both arrays; only {@link ObjBuilder} and {@link #EMPTY_OBJECT} call it. */
+    private Obj(String[] names, SchemaPlan[] values) {
+      this.names = names;
+      this.values = values;
+    }
+
+    int size() { return names.length; }
+
+    String name(int i) { return names[i]; }
+
+    SchemaPlan value(int i) { return values[i]; }
+
+    @Override
+    public void write(JsonGenerator g) throws IOException {
+      g.writeStartObject();
+      for (int i = 0; i < names.length; i++) {
+        g.writeFieldName(names[i]);
+        values[i].write(g);
+      }
+      g.writeEndObject();
+    }
+
+    @Override
+    public Object instantiate() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < names.length; i++) map.put(names[i], values[i].instantiate());
+      return map;
+    }
+  }
+
+  /** Array of example items; compared by identity, like {@link Obj}. */
+  final class Arr implements SchemaPlan {
+    private final SchemaPlan[] items;
+
+    Arr(SchemaPlan... items) {
+      this.items = items.clone();
+    }
+
+    int size() { return items.length; }
+
+    SchemaPlan item(int i) { return items[i]; }
+
+    @Override
+    public void write(JsonGenerator g) throws IOException {
+      g.writeStartArray();
+      for (SchemaPlan item : items) item.write(g);
+      g.writeEndArray();
+    }
+
+    @Override
+    public Object instantiate() {
+      List<Object> list = new ArrayList<>(items.length);
+      for (SchemaPlan item : items) list.add(item.instantiate());
+      return list;
+    }
+  }
+
+  /** Collects properties of an {@link Obj} in insertion order; a repeated name keeps its first position. */
+  final class ObjBuilder {
+    private final LinkedHashMap<String, SchemaPlan> props = new LinkedHashMap<>();
+
+    ObjBuilder put(String name, SchemaPlan value) {
+      props.put(name, value);
+      return this;
+    }
+
+    boolean isEmpty() { return props.isEmpty(); }
+
+    Obj build() {
+      return new Obj(props.keySet().toArray(new String[0]), props.values().toArray(new SchemaPlan[0]));
+    }
+  }
+
+  /** Kind of a scalar plan; STRING for text and containers. */
+  static EndpointRow.Kind kindOf(SchemaPlan plan) {
+    if (plan instanceof Typed t) return t.kind();
+    if (plan instanceof Whole || plan instanceof Decimal) return EndpointRow.Kind.NUMBER;
+    if (plan instanceof Bool) return EndpointRow.Kind.BOOLEAN;
+    return EndpointRow.Kind.STRING;
+  }
+
+  /** example/default/enum value taken verbatim from the spec. */
+  static SchemaPlan literal(JsonNode n) {
+    if (n == null || n.isNull() || n.isMissingNode()) return NULL;
+    if (n.isTextual()) return new Text(n.asText());
+    if (n.isInt() || n.isLong()) return new Whole(n.asLong());
+    if (n.isFloatingPointNumber() || n.isDouble() || n.isFloat() || n.isBigDecimal()) return new Decimal(n.asDouble());
+    if (n.isBoolean()) return n.asBoolean() ? TRUE : new Bool(false);
+    if (n.isArray()) {
+      SchemaPlan[] items = new SchemaPlan[n.size()];
+      for (int i = 0; i < items.length; i++) items[i] = literal(n.get(i));
+      return new Arr(items);
+    }
+    if (n.isObject()) {
+      ObjBuilder obj = new ObjBuilder();
+      n.fields().forEachRemaining(e -> obj.put(e.getKey(), literal(e.getValue())));
+      return obj.build();
+    }
+    // BigInteger, binary, ... -> text
+    return new Text(n.asText());
+  }
+}
@@ -0,0 +1,254 @@
+package swagger2sqlmap.swagger;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of parse results, keyed by the SHA-256 of the spec file content.
+ *
+ * One file per spec:
+ *   int    magic "S2SQ", int format version
+ *   str    directory of the spec (relative $refs resolve against it)
+ *   int    n, then n x (str path, long size, long mtime) of external $ref files
+ *   str    base URL
+ *   int    n, then n x (6 str (method, path, operationId, summary, contentType, bodyTemplate),
+ *          int m, then m x 4 str (name, in, sample, kind) of the declared parameters)
+ * where str = int byte length (-1 = null) + UTF-8 bytes, all big-endian.
+ *
+ * Entries are read through a memory-mapped buffer. A changed spec hashes to a new key;
+ * a changed external file invalidates the entry. Only {@link #MAX_SNAPSHOTS} most
+ * recently used entries are kept.
+ */
+public final class SnapshotCache {
+
+  private static final int MAGIC = 0x53325351; // "S2SQ"
+
+  /** Bump whenever extraction output changes, so old snapshots are ignored. */
+  private static final int FORMAT_VERSION = 3;
+
+  static final int MAX_SNAPSHOTS = 32;
+
+  private static final String SUFFIX = ".snapshot";
+
+  private final Path dir;
+
+  public SnapshotCache(Path dir) {
+    this.dir = dir;
+  }
+
+  /** ~/.swagger2sqlmap/snapshots */
+  public static Path defaultDirectory() {
+    return Path.of(System.getProperty("user.home"), ".swagger2sqlmap", "snapshots");
+  }
+
+  /** Content key of a spec file; also remembers where it lives for $ref validation. */
+  public Key key(Path spec) throws IOException {
+    MessageDigest sha;
+    try {
+      sha = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    byte[] buf = new byte[64 * 1024];
+    try (InputStream in = Files.newInputStream(spec)) {
+      for (int n; (n = in.read(buf)) > 0; ) sha.update(buf, 0, n);
+    }
+    return new Key(HexFormat.of().formatHex(sha.digest()), specDir(spec));
+  }
+
+  /**
+   * @param hash    hex SHA-256 of the spec content
+   * @param specDir absolute directory of the spec file
+   */
+  public record Key(String hash, String specDir) {}
+
+  /** Cached result, or null when missing, stale or unreadable. */
+  public SwaggerParser.ParseResult load(Key key) {
+    Path file = fileOf(key);
+    if (!Files.isRegularFile(file)) return null;
+
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) return null;
+
+      String specDir = readString(buf);
+      int depCount = buf.getInt();
+      // same content elsewhere may $ref different files
+      if (depCount > 0 && !Objects.equals(specDir, key.specDir())) return null;
+
+      List<Path> deps = new ArrayList<>(depCount);
+      for (int i = 0; i < depCount; i++) {
+        Path dep = Path.of(readString(buf));
+        long size = buf.getLong();
+        long mtime = buf.getLong();
+        if (!sameFile(dep, size, mtime)) return null;
+        deps.add(dep);
+      }
+
+      String baseUrl = readString(buf);
+      int rowCount = buf.getInt();
+      List<EndpointRow> rows = new ArrayList<>(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        String method = readString(buf);
+        String path = readString(buf);
+        String operationId = readString(buf);
+        String summary = readString(buf);
+        String contentType = readString(buf);
+        String bodyTemplate = readString(buf);
+
+        int paramCount = buf.getInt();
+        List<EndpointRow.Param> params = new ArrayList<>(paramCount);
+        for (int j = 0; j < paramCount; j++) {
+          params.add(new EndpointRow.Param(readString(buf), EndpointRow.In.valueOf(readString(buf)), readString(buf),
+              EndpointRow.Kind.valueOf(readString(buf))));
+        }
+        rows.add(new EndpointRow(method, path, operationId, summary, contentType, bodyTemplate, params));
+      }
+
+      touch(file);
+      return new SwaggerParser.ParseResult(baseUrl, List.copyOf(rows), null, List.copyOf(deps));
+
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException | NullPointerException e) {
+      // truncated or foreign file -> parse again and overwrite it
+      return null;
+    }
+  }
+
+  /** Best effort: a failed write only means the next import parses again. */
+  public void store(Key key, SwaggerParser.ParseResult result) {
+    try {
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, key.hash(), ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+          out.writeInt(MAGIC);
+          out.writeInt(FORMAT_VERSION);
+          writeString(out, key.specDir());
+
+          out.writeInt(result.dependencies().size());
+          for (Path dep : result.dependencies()) {
+            writeString(out, dep.toString());
+            out.writeLong(Files.exists(dep) ? Files.size(dep) : -1);
+            out.writeLong(Files.exists(dep) ? Files.getLastModifiedTime(dep).toMillis() : -1);
+          }
+
+          writeString(out, result.baseUrl());
+          out.writeInt(result.endpoints().size());
+          for (EndpointRow r : result.endpoints()) {
+            writeString(out, r.method());
+            writeString(out, r.path());
+            writeString(out, r.operationId());
+            writeString(out, r.summary());
+            writeString(out, r.contentType());
+            writeString(out, r.bodyTemplate());
+
+            out.writeInt(r.params().size());
+            for (EndpointRow.Param p : r.params()) {
+              writeString(out, p.name());
+              writeString(out, p.in().name());
+              writeString(out, p.sample());
+              writeString(out, p.kind().name());
+            }
+          }
+        }
+        Path file = fileOf(key);
+        try {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      evict();
+    } catch (IOException ignored) {
+      // read-only home, disk full, ...
+    }
+  }
+
+  // ================= Helpers =================
+
+  private Path fileOf(Key key) {
+    return dir.resolve(key.hash() + SUFFIX);
+  }
+
+  /** Keeps the {@link #MAX_SNAPSHOTS} most recently used entries. */
+  private void evict() throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+      ds.forEach(files::add);
+    }
+    if (files.size() <= MAX_SNAPSHOTS) return;
+
+    Map<Path, Long> used = new HashMap<>();
+    for (Path f : files) used.put(f, lastModified(f));
+    files.sort(Comparator.comparing(used::get, Comparator.reverseOrder()));
+
+    for (Path f : files.subList(MAX_SNAPSHOTS, files.size())) {
+      try {
+        Files.deleteIfExists(f);
+      } catch (IOException ignored) {
+        // still mapped on Windows; retried on the next store
+      }
+    }
+  }
+
+  private static long lastModified(Path f) {
+    try {
+      return Files.getLastModifiedTime(f).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static void touch(Path f) {
+    try {
+      Files.setLastModifiedTime(f, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ignored) {}
+  }
+
+  private static boolean sameFile(Path dep, long size, long mtime) throws IOException {
+    if (!Files.exists(dep)) return size == -1;
+    return Files.size(dep) == size && Files.getLastModifiedTime(dep).toMillis() == mtime;
+  }
+
+  private static String specDir(Path spec) {
+    Path parent = spec.toAbsolutePath().normalize().getParent();
+    return parent == null ? "" : parent.toString();
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    if (s == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static String readString(ByteBuffer buf) {
+    int len = buf.getInt();
+    if (len < 0) return null;
+    if (len > buf.remaining()) throw new BufferUnderflowException();
+
+    byte[] b = new byte[len];
+    buf.get(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+}
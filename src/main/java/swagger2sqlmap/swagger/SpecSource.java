@@ -0,0 +1,111 @@
+package swagger2sqlmap.swagger;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One loaded spec document, addressed by JSON pointer.
+ * Lets the same extraction code run over a fully loaded tree
+ * and over the byte-range index of {@link StreamingSwaggerParser}.
+ */
+interface SpecSource {
+
+  /** OpenAPI 3.x document (has an "openapi" marker) rather than Swagger 2. */
+  boolean isOpenApi3();
+
+  /** Root-level "consumes" array (Swagger 2), or a missing node. */
+  JsonNode rootConsumes();
+
+  /**
+   * Node at a JSON pointer in escaped form ("" = document root,
+   * "/components/schemas/Order", "/paths/~1users/get"), or a missing node.
+   */
+  JsonNode at(String pointer);
+
+  /** File this document was read from, for relative $refs; null when unknown. */
+  Path location();
+
+  static SpecSource of(JsonNode root, Path location) {
+    return new Tree(root, location);
+  }
+
+  /**
+   * Resolves a pointer through the deepest prefix {@code lookup} knows about
+   * (null = unknown), then walks the remaining segments.
+   */
+  static JsonNode walk(String pointer, Function<String, JsonNode> lookup) {
+    String prefix = pointer;
+    while (true) {
+      JsonNode base = lookup.apply(prefix);
+      if (base != null) {
+        if (prefix.length() == pointer.length()) return base;
+        try {
+          return base.at(JsonPointer.compile(pointer.substring(prefix.length())));
+        } catch (IllegalArgumentException badPointer) {
+          return MissingNode.getInstance();
+        }
+      }
+      int slash = prefix.lastIndexOf('/');
+      if (slash < 0) return MissingNode.getInstance();   // "" not known, or no leading '/' ("#Pet")
+      prefix = prefix.substring(0, slash);
+    }
+  }
+
+  /** Escapes one reference token: "~" -> "~0", "/" -> "~1". */
+  static String escape(String token) {
+    if (token.indexOf('~') < 0 && token.indexOf('/') < 0) return token;
+    return token.replace("~", "~0").replace("/", "~1");
+  }
+
+  /**
+   * In-memory document with a pointer index of its top levels
+   * (every container down to /components/schemas/X, /paths/X/get, ...).
+   * Deeper pointers walk from the nearest indexed node.
+   */
+  final class Tree implements SpecSource {
+
+    private static final int INDEX_DEPTH = 3;
+
+    private final boolean openApi3;
+    private final JsonNode consumes;
+    private final Path location;
+    private final Map<String, JsonNode> index = new HashMap<>();
+
+    Tree(JsonNode root, Path location) {
+      this.openApi3 = root.has("openapi");
+      this.consumes = root.path("consumes");
+      this.location = location;
+      index(root, "", 0);
+    }
+
+    private void index(JsonNode n, String pointer, int depth) {
+      index.put(pointer, n);
+      if (depth == INDEX_DEPTH) return;
+
+      if (n.isObject()) {
+        n.fields().forEachRemaining(e -> {
+          if (e.getValue().isContainerNode()) index(e.getValue(), pointer + "/" + escape(e.getKey()), depth + 1);
+        });
+      } else if (n.isArray()) {
+        for (int i = 0; i < n.size(); i++) {
+          if (n.get(i).isContainerNode()) index(n.get(i), pointer + "/" + i, depth + 1);
+        }
+      }
+    }
+
+    @Override public boolean isOpenApi3() { return openApi3; }
+    @Override public JsonNode rootConsumes() { return consumes; }
+    @Override public Path location() { return location; }
+
+    @Override
+    public JsonNode at(String pointer) {
+      return walk(pointer, index::get);
+    }
+  }
+}
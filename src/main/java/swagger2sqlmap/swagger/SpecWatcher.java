@@ -0,0 +1,86 @@
+package swagger2sqlmap.swagger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a spec file (and the external files it $refs) with a {@link WatchService}.
+ *
+ * Runs {@code onChange} on its own daemon thread: once at start (to take a baseline),
+ * then after every burst of changes has been quiet for {@link #DEBOUNCE_MS}, so a
+ * generator rewriting the file in several steps causes one re-parse, not many.
+ * {@code onChange} must handle its own errors.
+ */
+public final class SpecWatcher implements AutoCloseable {
+
+  static final long DEBOUNCE_MS = 500;
+
+  private final WatchService ws;
+  private final Set<Path> files = ConcurrentHashMap.newKeySet();
+  private final Set<Path> dirs = ConcurrentHashMap.newKeySet();
+  private final Runnable onChange;
+  private final Thread thread;
+
+  public SpecWatcher(Path spec, Runnable onChange) throws IOException {
+    this.ws = spec.getFileSystem().newWatchService();
+    this.onChange = onChange;
+    watchAlso(List.of(spec));
+
+    this.thread = new Thread(this::run, "swagger2sqlmap-spec-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Adds files to watch (e.g. newly $ref'd documents). Safe from any thread. */
+  public void watchAlso(Collection<Path> more) throws IOException {
+    for (Path f : more) {
+      Path abs = f.toAbsolutePath().normalize();
+      if (!files.add(abs)) continue;
+
+      Path dir = abs.getParent();
+      if (dir != null && dirs.add(dir)) {
+        // editors and generators often replace the file (create) rather than rewrite it (modify)
+        dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      }
+    }
+  }
+
+  private void run() {
+    boolean pending = true;
+    try {
+      while (true) {
+        WatchKey key = pending ? ws.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS) : ws.take();
+        if (key == null) {
+          pending = false;
+          onChange.run();
+          continue;
+        }
+
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> ev : key.pollEvents()) {
+          if (ev.kind() == StandardWatchEventKinds.OVERFLOW) {
+            pending = true;
+          } else if (ev.context() instanceof Path name && files.contains(dir.resolve(name))) {
+            pending = true;
+          }
+        }
+        key.reset();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // closed
+    }
+  }
+
+  @Override
+  public void close() {
+    thread.interrupt();
+    try {
+      ws.close();
+    } catch (IOException ignored) {}
+  }
+}
@@ -0,0 +1,257 @@
+package swagger2sqlmap.swagger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Streaming ingestion for very large specs.
+ *
+ * Pass 1 walks the document with a {@link JsonParser} and records byte ranges of
+ * every path item and every reusable component (components/*, definitions,
+ * parameters, responses) by JSON pointer, keeping only the small header fields
+ * (servers, host, basePath, ...) in memory. Pass 2 reads path items one at a time
+ * and loads $ref targets on demand, so peak heap is bounded by the largest
+ * path item / component, not by the whole file.
+ *
+ * Produces exactly the same endpoints as {@link SwaggerParser#extractEndpoints}.
+ */
+public final class StreamingSwaggerParser {
+
+  /** Recently loaded components kept around; shared $refs are usually hot. */
+  private static final int COMPONENT_CACHE_SIZE = 64;
+
+  /** Path items per progress callback. */
+  private static final int PATHS_PER_CHUNK = 16;
+
+  private StreamingSwaggerParser() {}
+
+  public static SwaggerParser.ParseResult parse(File jsonFile) throws IOException {
+    return parse(jsonFile, SwaggerParser.Listener.NONE);
+  }
+
+  public static SwaggerParser.ParseResult parse(File jsonFile, SwaggerParser.Listener listener) throws IOException {
+    List<EndpointRow> out = new ArrayList<>();
+    TemplateCache cache = new TemplateCache();
+    List<Path> dependencies = new ArrayList<>();
+
+    String baseUrl = stream(jsonFile, cache, dependencies, new SwaggerParser.Listener() {
+      @Override
+      public void onEndpoints(List<EndpointRow> chunk, int pathsDone, int pathsTotal) {
+        out.addAll(chunk);
+        listener.onEndpoints(chunk, pathsDone, pathsTotal);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return listener.isCancelled();
+      }
+    });
+
+    out.sort(SwaggerParser.ENDPOINT_ORDER);
+    return new SwaggerParser.ParseResult(baseUrl, out, cache.stats(), List.copyOf(dependencies));
+  }
+
+  /**
+   * Emits endpoints in chunks of path items, in document order (unsorted).
+   * Returns the detected base URL.
+   *
+   * @throws java.util.concurrent.CancellationException when the listener cancels
+   */
+  public static String stream(File jsonFile, TemplateCache cache, SwaggerParser.Listener listener) throws IOException {
+    return stream(jsonFile, cache, new ArrayList<>(), listener);
+  }
+
+  /** As {@link #stream(File, TemplateCache, SwaggerParser.Listener)}; adds external $ref files read to {@code dependencies}. */
+  private static String stream(File jsonFile,
+                               TemplateCache cache,
+                               List<Path> dependencies,
+                               SwaggerParser.Listener listener) throws IOException {
+    Index index = index(jsonFile);
+    SwaggerParser.checkCancelled(listener);
+
+    try (FileChannel ch = FileChannel.open(jsonFile.toPath(), StandardOpenOption.READ)) {
+      IndexedSource src = new IndexedSource(index, ch, jsonFile.toPath());
+      RefResolver refs = new RefResolver(src);
+      SwaggerParser.Progress progress = new SwaggerParser.Progress(listener, index.paths.size());
+      List<EndpointRow> buf = new ArrayList<>();
+      int pathsInChunk = 0;
+
+      for (Map.Entry<String, Slot> p : index.paths.entrySet()) {
+        SwaggerParser.checkCancelled(listener);
+        JsonNode item = src.read(p.getValue());
+        SwaggerParser.extractPathItem(refs, cache, p.getKey(), item, buf);
+
+        if (++pathsInChunk == PATHS_PER_CHUNK) {
+          progress.done(buf, pathsInChunk);
+          buf.clear();
+          pathsInChunk = 0;
+        }
+      }
+      if (pathsInChunk > 0) progress.done(buf, pathsInChunk);
+      dependencies.addAll(refs.loadedDocuments());
+    }
+
+    return SwaggerParser.detectBaseUrl(index.head);
+  }
+
+  // ================= Pass 1: index =================
+
+  /** Either a byte range [start, end) in the file, or a small inline value. */
+  private record Slot(long start, long end, JsonNode inline) {}
+
+  private static final class Index {
+    boolean openApi3;
+    final ObjectNode head = SwaggerParser.MAPPER.createObjectNode();
+    // LinkedHashMap: document order, duplicate keys replace in place (same as the tree model)
+    final Map<String, Slot> paths = new LinkedHashMap<>();
+    // escaped pointer ("/components/schemas/Order", "/paths/~1users") -> slot
+    final Map<String, Slot> pointers = new HashMap<>();
+  }
+
+  private static Index index(File jsonFile) throws IOException {
+    Index idx = new Index();
+
+    try (JsonParser p = SwaggerParser.MAPPER.createParser(jsonFile)) {
+      if (p.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Spec root is not a JSON object");
+      }
+
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        String field = p.currentName();
+        p.nextToken();
+
+        switch (field) {
+          case "openapi" -> {
+            idx.openApi3 = true;
+            p.skipChildren();
+          }
+          case "servers", "host", "basePath", "schemes", "consumes" -> idx.head.set(field, p.readValueAsTree());
+          case "paths" -> indexMembers(p, "/paths", idx.pointers, idx.paths);
+          case "definitions", "parameters", "responses" -> indexMembers(p, "/" + field, idx.pointers, null);
+          case "components" -> {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+              p.skipChildren();
+              break;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+              String section = p.currentName();
+              p.nextToken();
+              indexMembers(p, "/components/" + SpecSource.escape(section), idx.pointers, null);
+            }
+          }
+          default -> p.skipChildren();
+        }
+      }
+    }
+
+    return idx;
+  }
+
+  /** Records each member of an object under {@code prefix}/name; {@code byName} (optional) also by raw name. */
+  private static void indexMembers(JsonParser p, String prefix, Map<String, Slot> pointers,
+                                   Map<String, Slot> byName) throws IOException {
+    if (p.currentToken() != JsonToken.START_OBJECT) {
+      p.skipChildren();
+      return;
+    }
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String name = p.currentName();
+      p.nextToken();
+      Slot s = slot(p);
+      pointers.put(prefix + "/" + SpecSource.escape(name), s);
+      if (byName != null) byName.put(name, s);
+    }
+  }
+
+  private static Slot slot(JsonParser p) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY) {
+      long start = p.currentTokenLocation().getByteOffset();
+      p.skipChildren();
+      long end = p.currentLocation().getByteOffset();
+      return new Slot(start, end, null);
+    }
+    // scalars are tiny, keep them inline
+    return new Slot(-1, -1, p.readValueAsTree());
+  }
+
+  // ================= Pass 2: on-demand loading =================
+
+  private static final class IndexedSource implements SpecSource {
+
+    private final boolean openApi3;
+    private final JsonNode consumes;
+    private final ObjectNode head;
+    private final Map<String, Slot> pointers;
+    private final FileChannel ch;
+    private final Path location;
+
+    private final Map<String, JsonNode> cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, JsonNode> eldest) {
+        return size() > COMPONENT_CACHE_SIZE;
+      }
+    };
+
+    IndexedSource(Index idx, FileChannel ch, Path location) {
+      this.openApi3 = idx.openApi3;
+      this.consumes = idx.head.path("consumes");
+      this.head = idx.head;
+      this.pointers = idx.pointers;
+      this.ch = ch;
+      this.location = location;
+    }
+
+    @Override public boolean isOpenApi3() { return openApi3; }
+    @Override public JsonNode rootConsumes() { return consumes; }
+    @Override public Path location() { return location; }
+
+    @Override
+    public JsonNode at(String pointer) {
+      return SpecSource.walk(pointer, this::load);
+    }
+
+    /** Indexed node at exactly this pointer, or null (the document root is not kept). */
+    private JsonNode load(String pointer) {
+      Slot s = pointers.get(pointer);
+      if (s == null) {
+        return pointer.lastIndexOf('/') == 0 ? head.get(pointer.substring(1)) : null;
+      }
+
+      JsonNode n = cache.get(pointer);
+      if (n != null) return n;
+
+      try {
+        n = read(s);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      cache.put(pointer, n);
+      return n;
+    }
+
+    JsonNode read(Slot s) throws IOException {
+      if (s.inline() != null) return s.inline();
+
+      ByteBuffer buf = ByteBuffer.allocate(Math.toIntExact(s.end() - s.start()));
+      while (buf.hasRemaining()) {
+        if (ch.read(buf, s.start() + buf.position()) < 0) throw new EOFException("Spec file truncated");
+      }
+      return SwaggerParser.MAPPER.readTree(buf.array());
+    }
+  }
+}
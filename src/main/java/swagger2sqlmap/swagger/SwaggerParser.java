@@ -1,27 +1,81 @@
 package swagger2sqlmap.swagger;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import swagger2sqlmap.model.EndpointRow;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class SwaggerParser {
 
-  private static final ObjectMapper MAPPER = new ObjectMapper();
+  static final ObjectMapper MAPPER = new ObjectMapper();
 
   private SwaggerParser() {}
 
+  /** Specs at least this large are ingested with {@link StreamingSwaggerParser}. */
+  public static final long STREAMING_THRESHOLD_BYTES = 32L * 1024 * 1024;
+
+  /** Path items per ForkJoin leaf task in parallel extraction. */
+  private static final int PATHS_PER_TASK = 16;
+
   public static ParseResult parse(File jsonFile) throws Exception {
-    JsonNode root = MAPPER.readTree(jsonFile);
+    return parse(jsonFile, Options.defaults(), Listener.NONE);
+  }
+
+  public static ParseResult parse(File jsonFile, Options opt) throws Exception {
+    return parse(jsonFile, opt, Listener.NONE);
+  }
+
+  /**
+   * Streaming ingestion (large files) is always sequential;
+   * {@link Options#parallelism()} applies to in-memory parsing.
+   *
+   * With {@link Options#snapshotDir()} set, an unchanged spec is loaded from its
+   * {@link SnapshotCache} entry instead of being parsed, and fresh results are stored there.
+   *
+   * @throws CancellationException when {@link Listener#isCancelled()} turns true
+   */
+  public static ParseResult parse(File jsonFile, Options opt, Listener listener) throws Exception {
+    if (opt == null) opt = Options.defaults();
+    if (listener == null) listener = Listener.NONE;
+
+    SnapshotCache snapshots = opt.snapshotDir() == null ? null : new SnapshotCache(opt.snapshotDir());
+    SnapshotCache.Key key = null;
+    if (snapshots != null) {
+      key = snapshots.key(jsonFile.toPath());
+      ParseResult cached = snapshots.load(key);
+      if (cached != null) return cached;
+      checkCancelled(listener);
+    }
 
-    String baseUrl = detectBaseUrl(root);
-    List<EndpointRow> endpoints = extractEndpoints(root);
+    ParseResult result;
+    if (jsonFile.length() >= STREAMING_THRESHOLD_BYTES) {
+      result = StreamingSwaggerParser.parse(jsonFile, listener);
+    } else {
+      JsonNode root = MAPPER.readTree(jsonFile);
+      checkCancelled(listener);
+      TemplateCache cache = new TemplateCache();
+      RefResolver refs = new RefResolver(SpecSource.of(root, jsonFile.toPath()));
 
-    return new ParseResult(baseUrl, endpoints);
+      String baseUrl = detectBaseUrl(root);
+      List<EndpointRow> endpoints = extractEndpoints(refs, root.path("paths"), cache, opt.parallelism(), listener);
+
+      result = new ParseResult(baseUrl, endpoints, cache.stats(), refs.loadedDocuments());
+    }
+
+    if (snapshots != null) snapshots.store(key, result);
+    return result;
   }
 
   /**
@@ -61,50 +115,208 @@ public final class SwaggerParser {
   }
 
   public static List<EndpointRow> extractEndpoints(JsonNode root) {
+    return extractEndpoints(root, new TemplateCache());
+  }
+
+  public static List<EndpointRow> extractEndpoints(JsonNode root, TemplateCache cache) {
+    return extractEndpoints(root, cache, 1, Listener.NONE);
+  }
+
+  public static List<EndpointRow> extractEndpoints(JsonNode root,
+                                                   TemplateCache cache,
+                                                   int parallelism,
+                                                   Listener listener) {
+    return extractEndpoints(root, null, cache, parallelism, listener);
+  }
+
+  /**
+   * location is the spec file, used to resolve relative external $refs
+   * ("common.json#/definitions/Pet"); null resolves local refs only.
+   *
+   * parallelism > 1 fans path items out over a ForkJoinPool of that size.
+   * Per-path results are joined in document order before the final sort,
+   * so the output is identical to the sequential one.
+   */
+  public static List<EndpointRow> extractEndpoints(JsonNode root,
+                                                   Path location,
+                                                   TemplateCache cache,
+                                                   int parallelism,
+                                                   Listener listener) {
     if (root == null || root.isMissingNode() || root.isNull()) return List.of();
 
-    JsonNode paths = root.path("paths");
+    return extractEndpoints(new RefResolver(SpecSource.of(root, location)), root.path("paths"), cache, parallelism, listener);
+  }
+
+  static List<EndpointRow> extractEndpoints(RefResolver refs,
+                                            JsonNode paths,
+                                            TemplateCache cache,
+                                            int parallelism,
+                                            Listener listener) {
     if (!paths.isObject()) return List.of();
 
-    boolean isOpenApi3 = root.has("openapi"); // OpenAPI 3.x marker
+    Progress progress = new Progress(listener, paths.size());
+
+    List<EndpointRow> out;
 
-    List<EndpointRow> out = new ArrayList<>();
+    if (parallelism <= 1 || paths.size() <= PATHS_PER_TASK) {
+      out = new ArrayList<>();
+      int chunkStart = 0;
+      int pathsInChunk = 0;
 
-    Iterator<Map.Entry<String, JsonNode>> it = paths.fields();
-    while (it.hasNext()) {
-      Map.Entry<String, JsonNode> p = it.next();
-      String path = p.getKey();
-      JsonNode methodsNode = p.getValue();
-      if (!methodsNode.isObject()) continue;
+      Iterator<Map.Entry<String, JsonNode>> it = paths.fields();
+      while (it.hasNext()) {
+        checkCancelled(listener);
+        Map.Entry<String, JsonNode> p = it.next();
+        extractPathItem(refs, cache, p.getKey(), p.getValue(), out);
 
-      for (Iterator<Map.Entry<String, JsonNode>> mit = methodsNode.fields(); mit.hasNext(); ) {
-        Map.Entry<String, JsonNode> m = mit.next();
-        String method = m.getKey();
-        JsonNode op = m.getValue();
+        if (++pathsInChunk == PATHS_PER_TASK || !it.hasNext()) {
+          progress.done(out.subList(chunkStart, out.size()), pathsInChunk);
+          chunkStart = out.size();
+          pathsInChunk = 0;
+        }
+      }
+    } else {
+      List<Map.Entry<String, JsonNode>> items = new ArrayList<>(paths.size());
+      paths.fields().forEachRemaining(items::add);
+
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        out = pool.invoke(new ExtractTask(refs, cache, progress, items, 0, items.size()));
+      } finally {
+        pool.shutdown();
+      }
+    }
 
-        if (!isHttpMethod(method)) continue;
+    out.sort(ENDPOINT_ORDER);
 
-        String opId = op.path("operationId").asText("");
-        String summary = op.path("summary").asText("");
-        if (summary.isEmpty()) summary = op.path("description").asText("");
+    return out;
+  }
 
-        BodyInfo body = isOpenApi3 ? extractBodyOpenApi3(root, op) : extractBodySwagger2(root, op);
+  private static final class ExtractTask extends RecursiveTask<List<EndpointRow>> {
+    private final RefResolver refs;
+    private final TemplateCache cache;
+    private final Progress progress;
+    private final List<Map.Entry<String, JsonNode>> items;
+    private final int from;
+    private final int to;
+
+    ExtractTask(RefResolver refs,
+                TemplateCache cache,
+                Progress progress,
+                List<Map.Entry<String, JsonNode>> items,
+                int from,
+                int to) {
+      this.refs = refs;
+      this.cache = cache;
+      this.progress = progress;
+      this.items = items;
+      this.from = from;
+      this.to = to;
+    }
 
-        out.add(new EndpointRow(
-            method.toUpperCase(Locale.ROOT),
-            path,
-            emptyToNull(opId),
-            emptyToNull(summary),
-            body.contentType(),
-            body.template()
-        ));
+    @Override
+    protected List<EndpointRow> compute() {
+      if (to - from <= PATHS_PER_TASK) {
+        List<EndpointRow> out = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+          checkCancelled(progress.listener);
+          Map.Entry<String, JsonNode> p = items.get(i);
+          extractPathItem(refs, cache, p.getKey(), p.getValue(), out);
+        }
+        progress.done(out, to - from);
+        return out;
       }
+
+      int mid = (from + to) >>> 1;
+      ExtractTask left = new ExtractTask(refs, cache, progress, items, from, mid);
+      left.fork();
+      List<EndpointRow> right = new ExtractTask(refs, cache, progress, items, mid, to).compute();
+      List<EndpointRow> out = left.join();
+      out.addAll(right);
+      return out;
+    }
+  }
+
+  /**
+   * Progress callback for long parses.
+   * Called from the parsing thread(s); parallel extraction calls it concurrently.
+   */
+  public interface Listener {
+    Listener NONE = (chunk, pathsDone, pathsTotal) -> {};
+
+    /**
+     * Endpoints of the path items finished since the last call (document order
+     * within a chunk, unsorted overall). The chunk is not modified afterwards.
+     */
+    void onEndpoints(List<EndpointRow> chunk, int pathsDone, int pathsTotal);
+
+    /** Polled between path items; true aborts the parse with a CancellationException. */
+    default boolean isCancelled() { return false; }
+  }
+
+  /** Path counter shared by all workers of one parse. */
+  static final class Progress {
+    final Listener listener;
+    private final int total;
+    private final AtomicInteger done = new AtomicInteger();
+
+    Progress(Listener listener, int total) {
+      this.listener = listener;
+      this.total = total;
+    }
+
+    void done(List<EndpointRow> chunk, int paths) {
+      listener.onEndpoints(List.copyOf(chunk), done.addAndGet(paths), total);
     }
+  }
 
-    out.sort(Comparator
-        .comparing(EndpointRow::path, Comparator.nullsLast(String::compareTo))
-        .thenComparing(EndpointRow::method, Comparator.nullsLast(String::compareTo)));
+  static void checkCancelled(Listener listener) {
+    if (listener.isCancelled()) throw new CancellationException("Parse cancelled");
+  }
+
+  /** Final ordering of extracted endpoints: by path, then by method. */
+  public static final Comparator<EndpointRow> ENDPOINT_ORDER = Comparator
+      .comparing(EndpointRow::path, Comparator.nullsLast(String::compareTo))
+      .thenComparing(EndpointRow::method, Comparator.nullsLast(String::compareTo));
 
+  /**
+   * Extracts every operation of a single path item.
+   * Shared by the tree parser and {@link StreamingSwaggerParser}.
+   */
+  static void extractPathItem(RefResolver refs, TemplateCache cache, String path, JsonNode methodsNode, List<EndpointRow> out) {
+    if (methodsNode == null || !methodsNode.isObject()) return;
+
+    for (Iterator<Map.Entry<String, JsonNode>> mit = methodsNode.fields(); mit.hasNext(); ) {
+      Map.Entry<String, JsonNode> m = mit.next();
+      String method = m.getKey();
+      JsonNode op = m.getValue();
+
+      if (!isHttpMethod(method)) continue;
+
+      String opId = op.path("operationId").asText("");
+      String summary = op.path("summary").asText("");
+      if (summary.isEmpty()) summary = op.path("description").asText("");
+
+      BodyInfo body = refs.root().isOpenApi3() ? extractBodyOpenApi3(refs, cache, op) : extractBodySwagger2(refs, cache, op);
+
+      out.add(new EndpointRow(
+          method.toUpperCase(Locale.ROOT),
+          path,
+          emptyToNull(opId),
+          emptyToNull(summary),
+          body.contentType(),
+          body.template(),
+          concat(extractParameters(refs, methodsNode, op), body.fields())
+      ));
+    }
+  }
+
+  private static <T> List<T> concat(List<T> a, List<T> b) {
+    if (b.isEmpty()) return a;
+    if (a.isEmpty()) return b;
+    List<T> out = new ArrayList<>(a.size() + b.size());
+    out.addAll(a);
+    out.addAll(b);
     return out;
   }
 
@@ -148,13 +360,19 @@ public final class SwaggerParser {
 
   // ================= Body extraction =================
 
-  private record BodyInfo(String contentType, String template) {}
+  /** {@code fields}: see {@link #bodyFields}. */
+  private record BodyInfo(String contentType, String template, List<EndpointRow.Param> fields) {
+    BodyInfo(String contentType, String template) {
+      this(contentType, template, List.of());
+    }
+  }
 
-  private static BodyInfo extractBodyOpenApi3(JsonNode root, JsonNode op) {
-    JsonNode rb = op.path("requestBody");
-    if (rb.isMissingNode() || rb.isNull()) return new BodyInfo(null, null);
+  private static BodyInfo extractBodyOpenApi3(RefResolver refs, TemplateCache cache, JsonNode op) {
+    // requestBody may itself be a $ref to #/components/requestBodies/X
+    RefResolver.Target rb = refs.follow(refs.root(), op.path("requestBody"));
+    if (rb.node().isMissingNode() || rb.node().isNull()) return new BodyInfo(null, null);
 
-    JsonNode content = rb.path("content");
+    JsonNode content = rb.node().path("content");
     if (!content.isObject()) return new BodyInfo(null, null);
 
     String ct = content.has("application/json") ? "application/json"
@@ -166,33 +384,39 @@ public final class SwaggerParser {
     JsonNode schema = media.path("schema");
     if (schema.isMissingNode() || schema.isNull()) return new BodyInfo(ct, null);
 
-    Object templateObj = buildValueFromOpenApi3Schema(root, schema, 0, new HashSet<>());
-    String template = serializeBody(ct, templateObj);
+    SchemaPlan plan = buildValueFromOpenApi3Schema(new TemplateBuild(refs, rb.doc(), cache), schema, 0);
+    String template = serializeBody(ct, plan);
 
-    return new BodyInfo(ct, template);
+    return new BodyInfo(ct, template, cache.fields(plan, SwaggerParser::bodyFields));
   }
 
-  private static BodyInfo extractBodySwagger2(JsonNode root, JsonNode op) {
+  private static BodyInfo extractBodySwagger2(RefResolver refs, TemplateCache cache, JsonNode op) {
     JsonNode params = op.path("parameters");
     if (!params.isArray() || params.size() == 0) return new BodyInfo(null, null);
 
+    // parameters may be $refs to #/parameters/X
+    List<RefResolver.Target> resolved = new ArrayList<>(params.size());
+    for (JsonNode p : params) resolved.add(refs.follow(refs.root(), p));
+
     // 1) body schema
-    for (JsonNode p : params) {
+    for (RefResolver.Target t : resolved) {
+      JsonNode p = t.node();
       if ("body".equalsIgnoreCase(p.path("in").asText(""))) {
         JsonNode schema = p.path("schema");
-        String ct = pickConsumes(op, root);
+        String ct = pickConsumes(op, refs);
         if (ct == null) ct = "application/json";
 
-        Object obj = buildValueFromSwagger2Schema(root, schema, 0, new HashSet<>());
-        String template = serializeBody(ct, obj);
+        SchemaPlan plan = buildValueFromSwagger2Schema(new TemplateBuild(refs, t.doc(), cache), schema, 0);
+        String template = serializeBody(ct, plan);
 
-        return new BodyInfo(ct, template);
+        return new BodyInfo(ct, template, cache.fields(plan, SwaggerParser::bodyFields));
       }
     }
 
     // 2) formData
-    var form = new LinkedHashMap<String, Object>();
-    for (JsonNode p : params) {
+    var form = new SchemaPlan.ObjBuilder();
+    for (RefResolver.Target t : resolved) {
+      JsonNode p = t.node();
       if ("formData".equalsIgnoreCase(p.path("in").asText(""))) {
         String name = p.path("name").asText("");
         if (name.isEmpty()) continue;
@@ -202,92 +426,242 @@ public final class SwaggerParser {
       }
     }
     if (!form.isEmpty()) {
-      String ct = pickConsumes(op, root);
+      String ct = pickConsumes(op, refs);
       if (ct == null) ct = "application/x-www-form-urlencoded";
 
+      SchemaPlan.Obj plan = form.build();
+
       // form -> key=value&...
       if ("application/x-www-form-urlencoded".equalsIgnoreCase(ct)) {
-        return new BodyInfo(ct, formUrlEncode(form));
+        return new BodyInfo(ct, formUrlEncode(plan), bodyFields(plan));
       }
 
       // if they claim JSON even with formData, still JSON it
-      return new BodyInfo(ct, serializeBody(ct, form));
+      return new BodyInfo(ct, serializeBody(ct, plan), bodyFields(plan));
     }
 
     return new BodyInfo(null, null);
   }
 
-  // ================= Template builders (typed, no *) =================
+  // ================= Parameters =================
+
+  /**
+   * Path, query, header and cookie parameters of an operation: the path item's list, with
+   * the operation's own entries replacing those of the same name and location.
+   */
+  private static List<EndpointRow.Param> extractParameters(RefResolver refs, JsonNode pathItem, JsonNode op) {
+    Map<String, EndpointRow.Param> byKey = new LinkedHashMap<>();
+    addParameters(refs, pathItem.path("parameters"), byKey);
+    addParameters(refs, op.path("parameters"), byKey);
+    return byKey.isEmpty() ? List.of() : new ArrayList<>(byKey.values());
+  }
+
+  private static void addParameters(RefResolver refs, JsonNode params, Map<String, EndpointRow.Param> byKey) {
+    if (!params.isArray()) return;
+
+    for (JsonNode raw : params) {
+      // parameters may be $refs to #/parameters/X or #/components/parameters/X
+      RefResolver.Target t = refs.follow(refs.root(), raw);
+      JsonNode p = t.node();
+
+      EndpointRow.In in = EndpointRow.In.of(p.path("in").asText(""));
+      String name = p.path("name").asText("");
+      if (in == null || name.isEmpty()) continue; // body / formData are the body's
+
+      SchemaPlan plan = refs.root().isOpenApi3() ? sampleOpenApi3(refs, t) : sampleSwagger2(p);
+      Object v = plan.instantiate();
+
+      String key = in + ":" + (in == EndpointRow.In.HEADER ? name.toLowerCase(Locale.ROOT) : name);
+      byKey.put(key, new EndpointRow.Param(name, in, v == null ? "" : String.valueOf(v), SchemaPlan.kindOf(plan)));
+    }
+  }
+
+  /** OpenAPI 3: scalar example on the parameter, else from its schema (array -> items). */
+  private static SchemaPlan sampleOpenApi3(RefResolver refs, RefResolver.Target param) {
+    RefResolver.Target schema = refs.follow(param.doc(), param.node().path("schema"));
+    if ("array".equals(schema.node().path("type").asText(""))) {
+      schema = refs.follow(schema.doc(), schema.node().path("items"));
+    }
+
+    SchemaPlan example = param.node().path("example").isValueNode() ? pickExample(param.node()) : null;
+    if (example == null && schema.node().path("example").isValueNode()) example = pickExample(schema.node());
+    return example != null ? typed(schema.node(), example) : scalarFromSchema(schema.node());
+  }
+
+  /**
+   * Body fields of a constrained {@link EndpointRow.Kind} under their field name (array
+   * items under the array's). A name met with two different kinds counts as STRING and
+   * is left out.
+   */
+  private static List<EndpointRow.Param> bodyFields(SchemaPlan plan) {
+    Map<String, EndpointRow.Kind> kinds = new LinkedHashMap<>();
+    collectFields(plan, null, kinds);
+
+    List<EndpointRow.Param> out = new ArrayList<>();
+    for (Map.Entry<String, EndpointRow.Kind> e : kinds.entrySet()) {
+      if (e.getValue() != EndpointRow.Kind.STRING) out.add(new EndpointRow.Param(e.getKey(), EndpointRow.In.BODY, "", e.getValue()));
+    }
+    return out.isEmpty() ? List.of() : List.copyOf(out);
+  }
+
+  private static void collectFields(SchemaPlan plan, String name, Map<String, EndpointRow.Kind> kinds) {
+    if (plan instanceof SchemaPlan.Obj o) {
+      for (int i = 0; i < o.size(); i++) collectFields(o.value(i), o.name(i), kinds);
+    } else if (plan instanceof SchemaPlan.Arr a) {
+      for (int i = 0; i < a.size(); i++) collectFields(a.item(i), name, kinds);
+    } else if (name != null) {
+      kinds.merge(name, SchemaPlan.kindOf(plan), (x, y) -> x == y ? x : EndpointRow.Kind.STRING);
+    }
+  }
+
+  /** Swagger 2: type / format / enum / default on the parameter itself (array -> items). */
+  private static SchemaPlan sampleSwagger2(JsonNode param) {
+    if ("array".equals(param.path("type").asText(""))) return scalarFromParam(param.path("items"));
+    return scalarFromParam(param);
+  }
+
+  // ================= Template plans (typed, no *) =================
+
+  /** Objects nested deeper than this are emitted as {}. */
+  static final int MAX_OBJECT_DEPTH = 8;
+
+  /**
+   * State of one body template compilation: $ref stack for cycle detection,
+   * plus what the per-parse {@link TemplateCache} needs to know whether
+   * a finished $ref plan is reusable elsewhere.
+   */
+  private static final class TemplateBuild {
+    final RefResolver refs;
+    final TemplateCache cache;
+    final boolean openApi3;
+    /** Document the schema being built lives in; nested $refs resolve against it. */
+    SpecSource doc;
+    final Set<String> refStack = new HashSet<>();
+
+    /** Cut-offs (circular ref / depth limit) so far; a cached template must have none. */
+    int truncations;
+    /** Deepest object built so far, or {@link TemplateCache#NO_OBJECTS}. */
+    int maxObjectDepth = TemplateCache.NO_OBJECTS;
+
+    TemplateBuild(RefResolver refs, SpecSource doc, TemplateCache cache) {
+      this.refs = refs;
+      this.doc = doc;
+      this.cache = cache;
+      this.openApi3 = refs.root().isOpenApi3();
+    }
+
+    SchemaPlan build(JsonNode schema, int depth) {
+      return openApi3
+          ? buildValueFromOpenApi3Schema(this, schema, depth)
+          : buildValueFromSwagger2Schema(this, schema, depth);
+    }
+
+    SchemaPlan cutOff() {
+      truncations++;
+      return SchemaPlan.EMPTY_OBJECT;
+    }
+
+    void objectAt(int depth) {
+      maxObjectDepth = Math.max(maxObjectDepth, depth);
+    }
+  }
+
+  /**
+   * Expands a $ref through the template cache.
+   * Returns null for a blank ref (caller falls through to the schema itself).
+   */
+  private static SchemaPlan expandRef(TemplateBuild b, String ref, int depth) {
+    if (ref.isBlank()) return null;
+
+    RefResolver.Target target = b.refs.resolve(b.doc, ref);
+    String key = target.key();
+    if (!b.refStack.add(key)) return b.cutOff(); // circular ref -> stop
+
+    SpecSource outerDoc = b.doc;
+    try {
+      TemplateCache.Entry hit = b.cache.lookup(key, depth);
+      if (hit != null) {
+        if (hit.objectHeight() != TemplateCache.NO_OBJECTS) b.objectAt(depth + hit.objectHeight());
+        return hit.plan();
+      }
+
+      int outerTruncations = b.truncations;
+      int outerMaxObjectDepth = b.maxObjectDepth;
+      b.maxObjectDepth = TemplateCache.NO_OBJECTS;
+
+      b.doc = target.doc();
+      SchemaPlan v = b.build(target.node(), depth + 1);
+
+      if (b.truncations == outerTruncations) {
+        int height = b.maxObjectDepth == TemplateCache.NO_OBJECTS
+            ? TemplateCache.NO_OBJECTS
+            : b.maxObjectDepth - depth;
+        b.cache.store(key, new TemplateCache.Entry(v, height));
+      }
+      b.maxObjectDepth = Math.max(outerMaxObjectDepth, b.maxObjectDepth);
+      return v;
+    } finally {
+      b.doc = outerDoc;
+      b.refStack.remove(key);
+    }
+  }
 
   /**
-   * OpenAPI 3 schema -> Java Object (Map/List/scalar)
+   * OpenAPI 3 schema -> template plan
    */
-  private static Object buildValueFromOpenApi3Schema(JsonNode root,
-                                                     JsonNode schema,
-                                                     int depth,
-                                                     Set<String> refStack) {
-    if (schema == null || schema.isMissingNode() || schema.isNull()) return "text";
+  private static SchemaPlan buildValueFromOpenApi3Schema(TemplateBuild b, JsonNode schema, int depth) {
+    if (schema == null || schema.isMissingNode() || schema.isNull()) return SchemaPlan.TEXT;
 
     // Prefer example/default/enum
-    Object example = pickExample(schema);
-    if (example != null) return example;
+    SchemaPlan example = pickExample(schema);
+    if (example != null) return typed(schema, example);
 
-    // Resolve $ref
+    // Resolve $ref "#/components/schemas/X"
     if (schema.has("$ref")) {
-      String ref = schema.path("$ref").asText("");
-      String key = ref;
-      if (!refStack.add(key)) return new LinkedHashMap<>(); // circular ref -> stop
-
-      // "#/components/schemas/X"
-      String name = lastRefName(ref);
-      if (!name.isEmpty()) {
-        JsonNode resolved = root.path("components").path("schemas").path(name);
-        Object v = buildValueFromOpenApi3Schema(root, resolved, depth + 1, refStack);
-        refStack.remove(key);
-        return v;
-      }
-      refStack.remove(key);
+      SchemaPlan v = expandRef(b, schema.path("$ref").asText(""), depth);
+      if (v != null) return v;
     }
 
     // allOf/oneOf/anyOf (take first)
     JsonNode allOf = schema.path("allOf");
     if (allOf.isArray() && allOf.size() > 0) {
-      return buildValueFromOpenApi3Schema(root, allOf.get(0), depth + 1, refStack);
+      return buildValueFromOpenApi3Schema(b, allOf.get(0), depth + 1);
     }
     JsonNode oneOf = schema.path("oneOf");
     if (oneOf.isArray() && oneOf.size() > 0) {
-      return buildValueFromOpenApi3Schema(root, oneOf.get(0), depth + 1, refStack);
+      return buildValueFromOpenApi3Schema(b, oneOf.get(0), depth + 1);
     }
     JsonNode anyOf = schema.path("anyOf");
     if (anyOf.isArray() && anyOf.size() > 0) {
-      return buildValueFromOpenApi3Schema(root, anyOf.get(0), depth + 1, refStack);
+      return buildValueFromOpenApi3Schema(b, anyOf.get(0), depth + 1);
     }
 
     String type = schema.path("type").asText("");
 
     // object
     if ("object".equals(type) || schema.has("properties")) {
-      if (depth > 8) return new LinkedHashMap<>();
-      var map = new LinkedHashMap<String, Object>();
+      if (depth > MAX_OBJECT_DEPTH) return b.cutOff();
+      b.objectAt(depth);
+      var obj = new SchemaPlan.ObjBuilder();
 
       JsonNode props = schema.path("properties");
       if (props.isObject()) {
         props.fields().forEachRemaining(e -> {
           String name = e.getKey();
           JsonNode propSchema = e.getValue();
-          map.put(name, buildValueFromOpenApi3Schema(root, propSchema, depth + 1, new HashSet<>(refStack)));
+          obj.put(name, buildValueFromOpenApi3Schema(b, propSchema, depth + 1));
         });
       }
 
       // If no properties, return empty object
-      return map;
+      return obj.isEmpty() ? SchemaPlan.EMPTY_OBJECT : obj.build();
     }
 
     // array
     if ("array".equals(type)) {
       JsonNode items = schema.path("items");
-      Object itemVal = buildValueFromOpenApi3Schema(root, items, depth + 1, refStack);
-      return List.of(itemVal);
+      SchemaPlan itemVal = buildValueFromOpenApi3Schema(b, items, depth + 1);
+      return new SchemaPlan.Arr(itemVal);
     }
 
     // scalar
@@ -295,159 +669,164 @@ public final class SwaggerParser {
   }
 
   /**
-   * Swagger2 schema -> Java Object (Map/List/scalar)
+   * Swagger2 schema -> template plan
    */
-  private static Object buildValueFromSwagger2Schema(JsonNode root,
-                                                     JsonNode schema,
-                                                     int depth,
-                                                     Set<String> refStack) {
-    if (schema == null || schema.isMissingNode() || schema.isNull()) return "text";
+  private static SchemaPlan buildValueFromSwagger2Schema(TemplateBuild b, JsonNode schema, int depth) {
+    if (schema == null || schema.isMissingNode() || schema.isNull()) return SchemaPlan.TEXT;
 
-    Object example = pickExample(schema);
-    if (example != null) return example;
+    SchemaPlan example = pickExample(schema);
+    if (example != null) return typed(schema, example);
 
     // Resolve $ref "#/definitions/X"
     if (schema.has("$ref")) {
-      String ref = schema.path("$ref").asText("");
-      String key = ref;
-      if (!refStack.add(key)) return new LinkedHashMap<>();
-
-      String name = lastRefName(ref);
-      if (!name.isEmpty()) {
-        JsonNode resolved = root.path("definitions").path(name);
-        Object v = buildValueFromSwagger2Schema(root, resolved, depth + 1, refStack);
-        refStack.remove(key);
-        return v;
-      }
-      refStack.remove(key);
+      SchemaPlan v = expandRef(b, schema.path("$ref").asText(""), depth);
+      if (v != null) return v;
     }
 
     // object
     String type = schema.path("type").asText("");
     if ("object".equals(type) || schema.has("properties")) {
-      if (depth > 8) return new LinkedHashMap<>();
-      var map = new LinkedHashMap<String, Object>();
+      if (depth > MAX_OBJECT_DEPTH) return b.cutOff();
+      b.objectAt(depth);
+      var obj = new SchemaPlan.ObjBuilder();
       JsonNode props = schema.path("properties");
       if (props.isObject()) {
         props.fields().forEachRemaining(e -> {
-          map.put(e.getKey(), buildValueFromSwagger2Schema(root, e.getValue(), depth + 1, new HashSet<>(refStack)));
+          obj.put(e.getKey(), buildValueFromSwagger2Schema(b, e.getValue(), depth + 1));
         });
       }
-      return map;
+      return obj.isEmpty() ? SchemaPlan.EMPTY_OBJECT : obj.build();
     }
 
     // array
     if ("array".equals(type)) {
       JsonNode items = schema.path("items");
-      Object itemVal = buildValueFromSwagger2Schema(root, items, depth + 1, refStack);
-      return List.of(itemVal);
+      SchemaPlan itemVal = buildValueFromSwagger2Schema(b, items, depth + 1);
+      return new SchemaPlan.Arr(itemVal);
     }
 
     return scalarFromSchema(schema);
   }
 
-  private static Object scalarFromSchema(JsonNode schema) {
+  private static final SchemaPlan DATE_TIME = new SchemaPlan.Typed(EndpointRow.Kind.DATE, new SchemaPlan.Text("2026-01-31T12:00:00Z"));
+  private static final SchemaPlan DATE = new SchemaPlan.Typed(EndpointRow.Kind.DATE, new SchemaPlan.Text("2026-01-31"));
+  private static final SchemaPlan UUID = new SchemaPlan.Typed(EndpointRow.Kind.UUID, new SchemaPlan.Text("11111111-1111-1111-1111-111111111111"));
+  private static final SchemaPlan EMAIL = new SchemaPlan.Text("user@example.com");
+  private static final SchemaPlan URI_VALUE = new SchemaPlan.Text("https:/example.com/");
+  private static final SchemaPlan PASSWORD = new SchemaPlan.Text("Passw0rd!");
+
+  private static SchemaPlan scalarFromSchema(JsonNode schema) {
     // enum wins
     JsonNode en = schema.path("enum");
     if (en.isArray() && en.size() > 0) {
-      return jsonNodeToJava(en.get(0));
+      return typed(schema, SchemaPlan.literal(en.get(0)));
     }
 
     // default wins
     JsonNode def = schema.path("default");
     if (!def.isMissingNode() && !def.isNull()) {
-      return jsonNodeToJava(def);
+      return typed(schema, SchemaPlan.literal(def));
     }
 
     String type = schema.path("type").asText("");
     String format = schema.path("format").asText("");
 
     // OpenAPI: sometimes "integer" or "number"
-    if ("integer".equals(type)) return 5;
-    if ("number".equals(type)) return 1.5;
+    if ("integer".equals(type)) return SchemaPlan.INTEGER;
+    if ("number".equals(type)) return SchemaPlan.NUMBER;
 
-    if ("boolean".equals(type)) return true;
+    if ("boolean".equals(type)) return SchemaPlan.TRUE;
 
     // date/time/email/uuid -> make plausible string
     if ("string".equals(type)) {
-      if ("date-time".equals(format)) return "2026-01-31T12:00:00Z";
-      if ("date".equals(format)) return "2026-01-31";
-      if ("uuid".equals(format)) return "11111111-1111-1111-1111-111111111111";
-      if ("email".equals(format)) return "user@example.com";
-      if ("uri".equals(format) || "url".equals(format)) return "https:/example.com/";
-      if ("password".equals(format)) return "Passw0rd!";
-      return "text";
+      if ("date-time".equals(format)) return DATE_TIME;
+      if ("date".equals(format)) return DATE;
+      if ("uuid".equals(format)) return UUID;
+      if ("email".equals(format)) return EMAIL;
+      if ("uri".equals(format) || "url".equals(format)) return URI_VALUE;
+      if ("password".equals(format)) return PASSWORD;
+      return SchemaPlan.TEXT;
     }
 
     // fallback
-    return "text";
+    return SchemaPlan.TEXT;
   }
 
-  private static Object scalarFromParam(JsonNode param) {
+  private static SchemaPlan scalarFromParam(JsonNode param) {
     // For Swagger2 formData parameter
-    Object example = pickExample(param);
-    if (example != null) return example;
+    SchemaPlan example = pickExample(param);
+    if (example != null) return typed(param, example);
 
     JsonNode en = param.path("enum");
-    if (en.isArray() && en.size() > 0) return jsonNodeToJava(en.get(0));
+    if (en.isArray() && en.size() > 0) return typed(param, SchemaPlan.literal(en.get(0)));
 
     JsonNode def = param.path("default");
-    if (!def.isMissingNode() && !def.isNull()) return jsonNodeToJava(def);
+    if (!def.isMissingNode() && !def.isNull()) return typed(param, SchemaPlan.literal(def));
 
     String type = param.path("type").asText("");
     String format = param.path("format").asText("");
 
-    if ("integer".equals(type) || "int32".equals(format) || "int64".equals(format)) return 5;
-    if ("number".equals(type) || "float".equals(format) || "double".equals(format)) return 1.5;
-    if ("boolean".equals(type)) return true;
+    if ("integer".equals(type) || "int32".equals(format) || "int64".equals(format)) return SchemaPlan.INTEGER;
+    if ("number".equals(type) || "float".equals(format) || "double".equals(format)) return SchemaPlan.NUMBER;
+    if ("boolean".equals(type)) return SchemaPlan.TRUE;
 
     if ("string".equals(type)) {
-      if ("date-time".equals(format)) return "2026-01-31T12:00:00Z";
-      if ("date".equals(format)) return "2026-01-31";
-      if ("uuid".equals(format)) return "11111111-1111-1111-1111-111111111111";
-      if ("email".equals(format)) return "user@example.com";
-      return "text";
+      if ("date-time".equals(format)) return DATE_TIME;
+      if ("date".equals(format)) return DATE;
+      if ("uuid".equals(format)) return UUID;
+      if ("email".equals(format)) return EMAIL;
+      return SchemaPlan.TEXT;
     }
 
-    return "text";
+    return SchemaPlan.TEXT;
+  }
+
+  /**
+   * What the schema (or Swagger 2 parameter) restricts a value to beyond free text;
+   * null for strings without such a format and for containers.
+   */
+  private static EndpointRow.Kind constrainedKind(JsonNode schema) {
+    JsonNode en = schema.path("enum");
+    if (en.isArray() && en.size() > 0) return EndpointRow.Kind.ENUM;
+
+    String type = schema.path("type").asText("");
+    String format = schema.path("format").asText("");
+    if ("boolean".equals(type)) return EndpointRow.Kind.BOOLEAN;
+    if ("integer".equals(type) || "number".equals(type)) return EndpointRow.Kind.NUMBER;
+    if ("uuid".equals(format)) return EndpointRow.Kind.UUID;
+    if ("date".equals(format) || "date-time".equals(format)) return EndpointRow.Kind.DATE;
+    return switch (format) {
+      case "int32", "int64", "float", "double" -> EndpointRow.Kind.NUMBER;
+      default -> null;
+    };
   }
 
-  private static Object pickExample(JsonNode schemaOrParam) {
+  /** {@code plan} tagged with the schema's {@link #constrainedKind} where its own type does not tell. */
+  private static SchemaPlan typed(JsonNode schema, SchemaPlan plan) {
+    if (plan instanceof SchemaPlan.Typed || plan instanceof SchemaPlan.Obj
+        || plan instanceof SchemaPlan.Arr || plan instanceof SchemaPlan.Null) return plan;
+
+    EndpointRow.Kind kind = constrainedKind(schema);
+    return kind == null || kind == SchemaPlan.kindOf(plan) ? plan : new SchemaPlan.Typed(kind, plan);
+  }
+
+  private static SchemaPlan pickExample(JsonNode schemaOrParam) {
     // OpenAPI 3: "example" sometimes direct
     JsonNode ex = schemaOrParam.path("example");
-    if (!ex.isMissingNode() && !ex.isNull()) return jsonNodeToJava(ex);
+    if (!ex.isMissingNode() && !ex.isNull()) return SchemaPlan.literal(ex);
 
     // OpenAPI 3: examples might be under "examples" but we ignore to keep simple
 
     return null;
   }
 
-  private static Object jsonNodeToJava(JsonNode n) {
-    if (n == null || n.isNull() || n.isMissingNode()) return null;
-    if (n.isTextual()) return n.asText();
-    if (n.isInt() || n.isLong()) return n.asLong();
-    if (n.isFloatingPointNumber() || n.isDouble() || n.isFloat() || n.isBigDecimal()) return n.asDouble();
-    if (n.isBoolean()) return n.asBoolean();
-    if (n.isArray()) {
-      List<Object> list = new ArrayList<>();
-      for (JsonNode x : n) list.add(jsonNodeToJava(x));
-      return list;
-    }
-    if (n.isObject()) {
-      Map<String, Object> map = new LinkedHashMap<>();
-      n.fields().forEachRemaining(e -> map.put(e.getKey(), jsonNodeToJava(e.getValue())));
-      return map;
-    }
-    return n.asText();
-  }
-
-  private static String serializeBody(String contentType, Object bodyObj) {
-    if (bodyObj == null) return null;
+  private static String serializeBody(String contentType, SchemaPlan plan) {
+    if (plan == null || plan instanceof SchemaPlan.Null) return null;
 
     // For JSON content types: produce JSON
     if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
       try {
-        return MAPPER.writeValueAsString(bodyObj);
+        return writeJson(plan);
       } catch (Exception ignored) {
         return "{\"value\":\"text\"}";
       }
@@ -455,46 +834,39 @@ public final class SwaggerParser {
 
     // For x-www-form-urlencoded we already build string separately
     if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("x-www-form-urlencoded")) {
-      if (bodyObj instanceof String s) return s;
-      if (bodyObj instanceof Map<?, ?> m) return formUrlEncodeUnsafe(m);
+      if (plan instanceof SchemaPlan.Text t) return t.value();
+      if (plan instanceof SchemaPlan.Obj o) return formUrlEncode(o);
     }
 
     // Otherwise fallback to JSON string (better than empty)
     try {
-      return MAPPER.writeValueAsString(bodyObj);
+      return writeJson(plan);
     } catch (Exception ignored) {
-      return String.valueOf(bodyObj);
+      return String.valueOf(plan.instantiate());
     }
   }
 
-  private static String formUrlEncode(Map<String, Object> form) {
-    // minimal encoder (no URLEncoder to keep deps minimal)
-    StringBuilder sb = new StringBuilder();
-    for (var e : form.entrySet()) {
-      if (sb.length() > 0) sb.append("&");
-      sb.append(e.getKey()).append("=").append(String.valueOf(e.getValue()));
+  private static String writeJson(SchemaPlan plan) throws IOException {
+    StringWriter sw = new StringWriter(128);
+    try (JsonGenerator g = MAPPER.getFactory().createGenerator(sw)) {
+      plan.write(g);
     }
-    return sb.toString();
+    return sw.toString();
   }
 
-  private static String formUrlEncodeUnsafe(Map<?, ?> form) {
+  private static String formUrlEncode(SchemaPlan.Obj form) {
+    // minimal encoder (no URLEncoder to keep deps minimal)
     StringBuilder sb = new StringBuilder();
-    for (var e : form.entrySet()) {
+    for (int i = 0; i < form.size(); i++) {
       if (sb.length() > 0) sb.append("&");
-      sb.append(String.valueOf(e.getKey())).append("=").append(String.valueOf(e.getValue()));
+      sb.append(form.name(i)).append("=").append(String.valueOf(form.value(i).instantiate()));
     }
     return sb.toString();
   }
 
-  private static String lastRefName(String ref) {
-    if (ref == null) return "";
-    String[] parts = ref.split("/");
-    return parts.length > 0 ? parts[parts.length - 1] : "";
-  }
-
-  private static String pickConsumes(JsonNode op, JsonNode root) {
+  private static String pickConsumes(JsonNode op, RefResolver refs) {
     JsonNode consumes = op.path("consumes");
-    if (!consumes.isArray() || consumes.size() == 0) consumes = root.path("consumes");
+    if (!consumes.isArray() || consumes.size() == 0) consumes = refs.root().rootConsumes();
     if (consumes.isArray() && consumes.size() > 0) {
       for (JsonNode c : consumes) {
         if ("application/json".equalsIgnoreCase(c.asText(""))) return "application/json";
@@ -504,7 +876,29 @@ public final class SwaggerParser {
     return null;
   }
 
-  // ================= Result record =================
+  // ================= Options & result =================
+
+  /**
+   * @param parallelism worker threads for endpoint extraction; 1 = sequential
+   * @param snapshotDir directory of the {@link SnapshotCache}; null = always parse
+   */
+  public record Options(int parallelism, Path snapshotDir) {
+    public static Options defaults() {
+      return new Options(1, null);
+    }
+  }
+
+  /**
+   * @param templateCache template cache statistics; null when loaded from a snapshot
+   * @param dependencies  external files read through $refs (a snapshot is stale once one changes)
+   */
+  public record ParseResult(String baseUrl,
+                            List<EndpointRow> endpoints,
+                            TemplateCache.Stats templateCache,
+                            List<Path> dependencies) {
 
-  public record ParseResult(String baseUrl, List<EndpointRow> endpoints) {}
+    public boolean fromSnapshot() {
+      return templateCache == null;
+    }
+  }
 }
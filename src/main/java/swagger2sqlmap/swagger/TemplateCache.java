@@ -0,0 +1,77 @@
+package swagger2sqlmap.swagger;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Per-parse cache of compiled template plans for a $ref, keyed by its JSON pointer
+ * (e.g. "#/components/schemas/Order").
+ *
+ * Only expansions that hit no cut-off (circular ref or object depth limit) are stored,
+ * so a cached plan is exactly what a fresh compilation would build. An entry also
+ * remembers how deep its objects go, and is only reused where it still fits under
+ * {@link SwaggerParser#MAX_OBJECT_DEPTH}. Plans are immutable and shared between endpoints.
+ *
+ * Thread-safe: parallel extraction shares one cache between workers.
+ */
+public final class TemplateCache {
+
+  /** Height of a template that contains no objects (never affected by the depth limit). */
+  static final int NO_OBJECTS = Integer.MIN_VALUE;
+
+  /**
+   * @param plan         compiled template
+   * @param objectHeight deepest object relative to the $ref node, or {@link #NO_OBJECTS}
+   */
+  record Entry(SchemaPlan plan, int objectHeight) {}
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  /** Plans handed out by {@link #lookup}; their body fields are worth remembering. */
+  private final Set<SchemaPlan> shared = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final Map<SchemaPlan, List<EndpointRow.Param>> fields = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** Returns a reusable plan for a $ref met at the given depth, or null. */
+  Entry lookup(String pointer, int depth) {
+    Entry e = entries.get(pointer);
+    if (e != null && (e.objectHeight() == NO_OBJECTS
+        || depth + e.objectHeight() <= SwaggerParser.MAX_OBJECT_DEPTH)) {
+      hits.increment();
+      return e;
+    }
+    misses.increment();
+    return null;
+  }
+
+  void store(String pointer, Entry e) {
+    // a clean expansion is context-free, so racing workers store equal entries
+    if (entries.putIfAbsent(pointer, e) == null) shared.add(e.plan());
+  }
+
+  /**
+   * Typed body fields of a plan; computed once for a cached plan, so endpoints sharing a
+   * $ref body share one list. Inline bodies are computed every time and not retained.
+   */
+  List<EndpointRow.Param> fields(SchemaPlan plan, Function<SchemaPlan, List<EndpointRow.Param>> compute) {
+    return shared.contains(plan) ? fields.computeIfAbsent(plan, compute) : compute.apply(plan);
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), entries.size());
+  }
+
+  public record Stats(long hits, long misses, int templates) {
+    @Override
+    public String toString() {
+      return hits + " hits / " + misses + " misses (" + templates + " plans)";
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package swagger2sqlmap.ui;
+
+import swagger2sqlmap.model.EndpointRow;
+
+import java.util.*;
+
+/**
+ * Immutable substring index over the searchable text of a row list
+ * ("method path operationId summary", lowercased).
+ *
+ * Queries of 3+ chars intersect the posting lists of their trigrams and only
+ * verify the survivors with {@link String#contains}; shorter queries scan the
+ * precomputed haystacks. Built once per table content, not per keystroke.
+ */
+final class EndpointSearchIndex {
+
+  private static final int[] NO_ROWS = new int[0];
+
+  private final String[] hay;
+  /** trigram -> ascending row numbers */
+  private final Map<Long, int[]> postings;
+
+  EndpointSearchIndex(List<EndpointRow> rows) {
+    hay = new String[rows.size()];
+
+    Map<Long, IntList> build = new HashMap<>();
+    for (int row = 0; row < hay.length; row++) {
+      hay[row] = haystack(rows.get(row));
+
+      String h = hay[row];
+      for (int i = 0; i + 3 <= h.length(); i++) {
+        IntList list = build.computeIfAbsent(trigram(h, i), k -> new IntList());
+        if (list.last() != row) list.add(row); // trigram repeated within the row
+      }
+    }
+
+    postings = new HashMap<>(build.size() * 4 / 3 + 1);
+    build.forEach((t, list) -> postings.put(t, list.toArray()));
+  }
+
+  /** Text a query is matched against. */
+  static String haystack(EndpointRow r) {
+    return (safe(r.method()) + " " + safe(r.path()) + " " + safe(r.operationId()) + " " + safe(r.summary()))
+        .toLowerCase(Locale.ROOT);
+  }
+
+  /** Rows whose haystack contains {@code q} (already lowercased). */
+  BitSet search(String q) {
+    BitSet out = new BitSet(hay.length);
+    if (q.isEmpty()) {
+      out.set(0, hay.length);
+      return out;
+    }
+
+    if (q.length() < 3) {
+      for (int row = 0; row < hay.length; row++) {
+        if (hay[row].contains(q)) out.set(row);
+      }
+      return out;
+    }
+
+    // rarest trigrams first keeps the running intersection small
+    List<int[]> lists = new ArrayList<>();
+    for (int i = 0; i + 3 <= q.length(); i++) {
+      int[] p = postings.getOrDefault(trigram(q, i), NO_ROWS);
+      if (p.length == 0) return out;
+      lists.add(p);
+    }
+    lists.sort(Comparator.comparingInt(p -> p.length));
+
+    int[] candidates = lists.get(0);
+    for (int k = 1; k < lists.size() && candidates.length > 0; k++) {
+      candidates = intersect(candidates, lists.get(k));
+    }
+
+    for (int row : candidates) {
+      if (hay[row].contains(q)) out.set(row);
+    }
+    return out;
+  }
+
+  private static long trigram(String s, int i) {
+    return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+  }
+
+  /** a is the shorter list; a much longer b is probed by binary search instead of merged. */
+  private static int[] intersect(int[] a, int[] b) {
+    int[] out = new int[a.length];
+    int n = 0;
+
+    if (b.length > a.length * 8) {
+      int from = 0;
+      for (int x : a) {
+        int at = Arrays.binarySearch(b, from, b.length, x);
+        if (at >= 0) {
+          out[n++] = x;
+          from = at + 1;
+        } else {
+          from = -at - 1;
+        }
+        if (from == b.length) break;
+      }
+      return Arrays.copyOf(out, n);
+    }
+
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      if (a[i] < b[j]) i++;
+      else if (a[i] > b[j]) j++;
+      else {
+        out[n++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(out, n);
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
+  }
+
+  /** Growable int array (avoids boxing millions of row numbers). */
+  private static final class IntList {
+    private int[] a = new int[4];
+    private int size;
+
+    int last() {
+      return size == 0 ? -1 : a[size - 1];
+    }
+
+    void add(int v) {
+      if (size == a.length) a = Arrays.copyOf(a, size * 2);
+      a[size++] = v;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(a, size);
+    }
+  }
+}
@@ -3,30 +3,172 @@ package swagger2sqlmap.ui;
 import javax.swing.table.AbstractTableModel;
 
 import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.probe.EndpointProber;
+import swagger2sqlmap.swagger.SwaggerParser;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class EndpointsTableModel extends AbstractTableModel {
 
   private final List<EndpointRow> data = new ArrayList<>();
 
+  /** Bumped when rows are replaced, removed or changed; invalidates the search index. Appends do not. */
+  private int version;
+  /** Index over the rows present when it was built; rows appended since are in {@link #appended}. */
+  private EndpointSearchIndex searchIndex;
+  private int searchIndexVersion = -1;
+  private final List<String> appended = new ArrayList<>();
+  private String lastQuery;
+  private BitSet lastMatches;
+  private int lastMatchesVersion = -1;
+
+  /** Last probe of each row; kept across re-parses for rows that did not change. */
+  private final Map<EndpointRow, EndpointProber.Result> probes = new HashMap<>();
+
   private static final String[] COLS = {
       "Method",
       "Path",
       "Operation ID",
       "Summary",
       "Content-Type",
-      "Has Body"
+      "Has Body",
+      "Status",
+      "Latency (ms)",
+      "Size"
   };
 
   public void setData(List<EndpointRow> rows) {
     data.clear();
     if (rows != null) data.addAll(rows);
+    version++;
     fireTableDataChanged();
   }
 
+  /** Appends rows at the end (used while a spec is still being parsed). */
+  public void addRows(List<EndpointRow> rows) {
+    if (rows == null || rows.isEmpty()) return;
+    int first = data.size();
+    data.addAll(rows);
+    // streamed chunks: extend the index instead of rebuilding it per chunk
+    if (searchIndexVersion == version) {
+      for (EndpointRow r : rows) appended.add(EndpointSearchIndex.haystack(r));
+    }
+    fireTableRowsInserted(first, data.size() - 1);
+  }
+
+  /** Row counts of an {@link #applyDiff} call. */
+  public record Diff(int added, int removed, int changed) {
+    public boolean isEmpty() {
+      return added == 0 && removed == 0 && changed == 0;
+    }
+  }
+
+  /**
+   * Replaces the rows with {@code next} using fine-grained insert/delete/update events,
+   * so selection and scroll position survive a re-parse. Both the current rows and
+   * {@code next} must be sorted by {@link SwaggerParser#ENDPOINT_ORDER}; a row is
+   * matched by path + method and "changed" when any other field differs.
+   */
+  public Diff applyDiff(List<EndpointRow> next) {
+    int added = 0, removed = 0, changed = 0;
+    int i = 0, j = 0;
+
+    while (i < data.size() || j < next.size()) {
+      int cmp = i == data.size() ? 1
+          : j == next.size() ? -1
+          : SwaggerParser.ENDPOINT_ORDER.compare(data.get(i), next.get(j));
+
+      if (cmp < 0) {
+        // run of rows that are gone
+        int end = i + 1;
+        while (end < data.size()
+            && (j == next.size() || SwaggerParser.ENDPOINT_ORDER.compare(data.get(end), next.get(j)) < 0)) end++;
+        data.subList(i, end).clear();
+        version++;
+        fireTableRowsDeleted(i, end - 1);
+        removed += end - i;
+
+      } else if (cmp > 0) {
+        // run of new rows
+        int end = j + 1;
+        while (end < next.size()
+            && (i == data.size() || SwaggerParser.ENDPOINT_ORDER.compare(data.get(i), next.get(end)) > 0)) end++;
+        data.addAll(i, next.subList(j, end));
+        version++;
+        fireTableRowsInserted(i, i + end - j - 1);
+        added += end - j;
+        i += end - j;
+        j = end;
+
+      } else if (data.get(i).equals(next.get(j))) {
+        i++;
+        j++;
+
+      } else {
+        // run of rows with the same key but different content
+        int start = i;
+        while (i < data.size() && j < next.size()
+            && SwaggerParser.ENDPOINT_ORDER.compare(data.get(i), next.get(j)) == 0
+            && !data.get(i).equals(next.get(j))) {
+          data.set(i++, next.get(j++));
+        }
+        version++;
+        fireTableRowsUpdated(start, i - 1);
+        changed += i - start;
+      }
+    }
+
+    return new Diff(added, removed, changed);
+  }
+
+  /**
+   * True when the row's "method path operationId summary" contains {@code query}
+   * (lowercase). Answered from a search index built once per table content (once per
+   * load: rows appended while a spec streams in are checked against their own haystack
+   * until {@link #setData} replaces them); the match set is computed once per query,
+   * so a RowFilter can call this per row.
+   */
+  public boolean matches(int row, String query) {
+    if (query.isEmpty()) return true;
+
+    if (searchIndexVersion != version) {
+      searchIndex = new EndpointSearchIndex(data);
+      searchIndexVersion = version;
+      appended.clear();
+    }
+    if (lastMatchesVersion != version || !query.equals(lastQuery)) {
+      lastMatches = searchIndex.search(query);
+      lastQuery = query;
+      lastMatchesVersion = version;
+    }
+
+    int indexed = data.size() - appended.size();
+    return row < indexed ? lastMatches.get(row) : appended.get(row - indexed).contains(query);
+  }
+
+  /** Stores probe results and repaints the probe columns. */
+  public void putProbeResults(Map<EndpointRow, EndpointProber.Result> results) {
+    if (results.isEmpty()) return;
+    probes.putAll(results);
+    if (!data.isEmpty()) fireTableRowsUpdated(0, data.size() - 1);
+  }
+
+  public void clearProbeResults() {
+    if (probes.isEmpty()) return;
+    probes.clear();
+    if (!data.isEmpty()) fireTableRowsUpdated(0, data.size() - 1);
+  }
+
+  /** Null when the row has not been probed. */
+  public EndpointProber.Result probeResult(EndpointRow r) {
+    return probes.get(r);
+  }
+
   public EndpointRow getAt(int row) {
     if (row < 0 || row >= data.size()) return null;
     return data.get(row);
@@ -56,6 +198,7 @@ public class EndpointsTableModel extends AbstractTableModel {
   public Class<?> getColumnClass(int columnIndex) {
     return switch (columnIndex) {
       case 5 -> Boolean.class; // Has Body
+      case 7, 8 -> Long.class; // Latency, Size
       default -> String.class;
     };
   }
@@ -64,6 +207,7 @@ public class EndpointsTableModel extends AbstractTableModel {
   public Object getValueAt(int rowIndex, int columnIndex) {
     EndpointRow r = getAt(rowIndex);
     if (r == null) return "";
+    EndpointProber.Result p = probes.get(r);
 
     return switch (columnIndex) {
       case 0 -> safe(r.method());
@@ -72,6 +216,9 @@ public class EndpointsTableModel extends AbstractTableModel {
       case 3 -> safe(r.summary());
       case 4 -> safe(r.contentType());
       case 5 -> r.bodyTemplate() != null && !r.bodyTemplate().isBlank();
+      case 6 -> p == null ? "" : p.status() < 0 ? "ERR" : String.valueOf(p.status());
+      case 7 -> p == null ? null : (Long) p.latencyMs();
+      case 8 -> p == null || p.bytes() < 0 ? null : (Long) p.bytes();
       default -> "";
     };
   }
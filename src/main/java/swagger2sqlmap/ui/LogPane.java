@@ -0,0 +1,259 @@
+package swagger2sqlmap.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded log view: the last N lines in a ring buffer, shown by a {@link JList}
+ * that only paints the visible rows.
+ *
+ * {@link #info}/{@link #error} may be called from any thread; lines are queued
+ * and moved into the buffer by a Swing timer every {@link #FLUSH_MS}, so a burst
+ * of log calls costs one model update. The severity filter is a view over the
+ * same buffer (an index of error lines), switching it re-renders nothing but
+ * the visible rows.
+ */
+final class LogPane extends JPanel {
+
+  enum Level { INFO, ERROR }
+
+  record Line(long seq, Level level, String text) {
+    @Override
+    public String toString() {
+      return text; // used by JList copy (Ctrl+C)
+    }
+  }
+
+  static final int DEFAULT_MAX_LINES = 10_000;
+  private static final int FLUSH_MS = 100;
+
+  private final Queue<Line> pending = new ConcurrentLinkedQueue<>();
+  private final Ring ring = new Ring(DEFAULT_MAX_LINES);
+  private final View view = new View();
+  private final JList<Line> list = new JList<>(view);
+  private final JScrollPane scroll = new JScrollPane(list);
+
+  private final JComboBox<String> levelFilter = new JComboBox<>(new String[]{"All", "Errors only"});
+  private final JSpinner maxLinesSpinner = new JSpinner(new SpinnerNumberModel(DEFAULT_MAX_LINES, 100, 1_000_000, 1_000));
+  private final JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+  private final Timer flushTimer = new Timer(FLUSH_MS, e -> flush());
+
+  private boolean errorsOnly;
+  private int maxTextWidth;
+
+  LogPane() {
+    super(new BorderLayout());
+
+    list.setFont(new Font("Monospaced", Font.PLAIN, 12));
+    list.setFixedCellHeight(list.getFontMetrics(list.getFont()).getHeight() + 2);
+    list.setCellRenderer(new DefaultListCellRenderer() {
+      @Override
+      public Component getListCellRendererComponent(JList<?> l, Object value, int index, boolean selected, boolean focus) {
+        super.getListCellRendererComponent(l, value, index, selected, focus);
+        if (!selected && value instanceof Line line && line.level() == Level.ERROR) setForeground(Color.RED);
+        return this;
+      }
+    });
+    add(scroll, BorderLayout.CENTER);
+
+    controls.add(new JLabel("Show:"));
+    controls.add(levelFilter);
+    controls.add(new JLabel("Max lines:"));
+    controls.add(maxLinesSpinner);
+
+    levelFilter.addActionListener(e -> {
+      int before = view.getSize();
+      errorsOnly = levelFilter.getSelectedIndex() == 1;
+      view.replaced(before);
+      scrollToEnd();
+    });
+    maxLinesSpinner.addChangeListener(e -> {
+      int before = view.getSize();
+      ring.resize((Integer) maxLinesSpinner.getValue());
+      view.replaced(before);
+    });
+
+    flushTimer.start();
+  }
+
+  /** Stops the flush timer; called when the extension is unloaded. */
+  void dispose() {
+    flushTimer.stop();
+  }
+
+  /** Filter and line cap, for the tab's toolbar. */
+  JComponent controls() {
+    return controls;
+  }
+
+  void info(String s) {
+    enqueue(Level.INFO, s);
+  }
+
+  void error(String s) {
+    enqueue(Level.ERROR, s);
+  }
+
+  /** EDT only. Drops queued lines as well. */
+  void clear() {
+    pending.clear();
+    int before = view.getSize();
+    ring.clear();
+    maxTextWidth = 0;
+    list.setFixedCellWidth(-1);
+    view.replaced(before);
+  }
+
+  private void enqueue(Level level, String s) {
+    // one list row per line of text (stack traces, multi-line commands)
+    for (String line : String.valueOf(s).split("\r?\n", -1)) {
+      pending.add(new Line(-1, level, line)); // seq is assigned by the ring
+    }
+  }
+
+  private void flush() {
+    if (pending.isEmpty()) return;
+
+    JScrollBar bar = scroll.getVerticalScrollBar();
+    boolean atEnd = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - list.getFixedCellHeight();
+
+    int before = view.getSize();
+    long droppedBefore = view.dropped();
+
+    FontMetrics fm = list.getFontMetrics(list.getFont());
+    int widest = maxTextWidth;
+    for (Line l; (l = pending.poll()) != null; ) {
+      ring.add(l.level(), l.text());
+      widest = Math.max(widest, fm.stringWidth(l.text()));
+    }
+
+    // fixed width: JList would otherwise measure every row on each change
+    if (widest > maxTextWidth) {
+      maxTextWidth = widest;
+      list.setFixedCellWidth(widest + 8);
+    }
+
+    view.appended(before, droppedBefore);
+    if (atEnd) scrollToEnd();
+  }
+
+  private void scrollToEnd() {
+    int n = view.getSize();
+    if (n > 0) list.ensureIndexIsVisible(n - 1);
+  }
+
+  // ================= Buffer =================
+
+  /**
+   * Last {@code capacity} lines, addressed by sequence number, plus the
+   * sequence numbers of the error lines still in the buffer.
+   */
+  private static final class Ring {
+    private Line[] lines;
+    private long first;
+    private long nextSeq;
+    private long[] errors;
+    private int errHead;
+    private int errSize;
+    /** Lines / error lines pushed out so far (monotonic, for list events). */
+    private long droppedLines;
+    private long droppedErrors;
+
+    Ring(int capacity) {
+      lines = new Line[capacity];
+      errors = new long[capacity];
+    }
+
+    long firstSeq() { return first; }
+    int size() { return (int) (nextSeq - first); }
+
+    Line at(long seq) { return lines[(int) (seq % lines.length)]; }
+    long errorSeq(int i) { return errors[(errHead + i) % errors.length]; }
+    int errorCount() { return errSize; }
+
+    void add(Level level, String text) {
+      if (size() == lines.length) {
+        if (errSize > 0 && errors[errHead] == first) {
+          errHead = (errHead + 1) % errors.length;
+          errSize--;
+          droppedErrors++;
+        }
+        first++;
+        droppedLines++;
+      }
+
+      long seq = nextSeq++;
+      lines[(int) (seq % lines.length)] = new Line(seq, level, text);
+      if (level == Level.ERROR) {
+        errors[(errHead + errSize) % errors.length] = seq;
+        errSize++;
+      }
+    }
+
+    /** Keeps the newest lines that fit; sequence numbers are preserved. */
+    void resize(int capacity) {
+      if (capacity == lines.length) return;
+
+      Ring r = new Ring(capacity);
+      r.first = r.nextSeq = Math.max(first, nextSeq - capacity);
+      for (long s = r.first; s < nextSeq; s++) {
+        Line l = at(s);
+        r.add(l.level(), l.text());
+      }
+      lines = r.lines;
+      errors = r.errors;
+      errHead = r.errHead;
+      errSize = r.errSize;
+      first = r.first;
+      // the view is replaced wholesale after a resize; the counters just stay monotonic
+    }
+
+    void clear() {
+      lines = new Line[lines.length];
+      first = 0;
+      nextSeq = 0;
+      errHead = 0;
+      errSize = 0;
+    }
+  }
+
+  // ================= List model =================
+
+  /** All lines or the error lines of {@link #ring}, oldest first. */
+  private final class View extends AbstractListModel<Line> {
+
+    @Override
+    public int getSize() {
+      return errorsOnly ? ring.errorCount() : ring.size();
+    }
+
+    @Override
+    public Line getElementAt(int index) {
+      return errorsOnly ? ring.at(ring.errorSeq(index)) : ring.at(ring.firstSeq() + index);
+    }
+
+    long dropped() {
+      return errorsOnly ? ring.droppedErrors : ring.droppedLines;
+    }
+
+    /** After appends: lines fell off the front, new ones arrived at the end. */
+    void appended(int sizeBefore, long droppedBefore) {
+      int dropped = (int) Math.min(sizeBefore, dropped() - droppedBefore);
+      if (dropped > 0) fireIntervalRemoved(this, 0, dropped - 1);
+
+      int kept = sizeBefore - dropped;
+      int size = getSize();
+      if (size > kept) fireIntervalAdded(this, kept, size - 1);
+    }
+
+    /** Whole content replaced (filter switch, resize, clear). */
+    void replaced(int sizeBefore) {
+      if (sizeBefore > 0) fireIntervalRemoved(this, 0, sizeBefore - 1);
+      int size = getSize();
+      if (size > 0) fireIntervalAdded(this, 0, size - 1);
+    }
+
+  }
+}
@@ -0,0 +1,357 @@
+package swagger2sqlmap.ui;
+
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.sqlmap.Checkpoint;
+import swagger2sqlmap.sqlmap.SqlmapCommandBuilder;
+import swagger2sqlmap.sqlmap.SqlmapRunner;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * "Runner" tab: runs sqlmap for endpoints inside the extension through {@link SqlmapRunner}.
+ *
+ * Commands are built on the EDT when queued (base URL, token and options as they are
+ * at that moment). Worker threads only flag changes; a Swing timer refreshes the job
+ * table and streams the selected job's output into the view.
+ *
+ * Finished jobs are recorded in a {@link Checkpoint} per base URL; with "Skip done"
+ * ticked, queuing skips endpoints that already succeeded in an earlier run. With
+ * "Skip dead" ticked it also skips endpoints the Targets probe found dead or unauthorized.
+ */
+final class RunnerPanel extends JPanel {
+
+  private static final int REFRESH_MS = 250;
+
+  private final Supplier<List<EndpointRow>> allRows;
+  private final Supplier<List<EndpointRow>> visibleRows;
+  private final Supplier<String> baseUrl;
+  private final Function<EndpointRow, SqlmapCommandBuilder.SqlmapCommand> commandFor;
+  private final Predicate<EndpointRow> isDead;
+  private final Consumer<String> log;
+
+  private final JButton runAllBtn = new JButton("Run all");
+  private final JButton runVisibleBtn = new JButton("Run visible");
+  private final JButton pauseBtn = new JButton("Pause");
+  private final JButton cancelJobBtn = new JButton("Cancel job");
+  private final JButton cancelAllBtn = new JButton("Cancel all");
+  private final JButton clearFinishedBtn = new JButton("Clear finished");
+  private final JCheckBox skipDoneCheck = new JCheckBox("Skip done", true);
+  private final JCheckBox skipDeadCheck = new JCheckBox("Skip dead", true);
+  private final JButton forgetProgressBtn = new JButton("Forget progress");
+  private final JSpinner workersSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 32, 1));
+  private final JSpinner timeoutSpinner = new JSpinner(new SpinnerNumberModel(30, 0, 24 * 60, 5));
+  private final JLabel status = new JLabel("Idle");
+
+  private final JobsModel jobsModel = new JobsModel();
+  private final JTable jobsTable = new JTable(jobsModel);
+  private final JTextArea outputArea = new JTextArea();
+
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private final Timer refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+  private final SqlmapRunner runner;
+
+  /** Checkpoint of the current base URL (reopened when it changes). */
+  private Checkpoint checkpoint;
+  /** Job tag: where to record the job when it finishes. */
+  private record Tracked(Checkpoint checkpoint, String endpointId) {}
+
+  /** Job shown in the output view and how much of its output is already there. */
+  private SqlmapRunner.Job shownJob;
+  private long shownLength;
+
+  RunnerPanel(Supplier<List<EndpointRow>> allRows,
+              Supplier<List<EndpointRow>> visibleRows,
+              Supplier<String> baseUrl,
+              Function<EndpointRow, SqlmapCommandBuilder.SqlmapCommand> commandFor,
+              Predicate<EndpointRow> isDead,
+              Consumer<String> log) {
+    super(new BorderLayout(8, 8));
+    this.allRows = allRows;
+    this.visibleRows = visibleRows;
+    this.baseUrl = baseUrl;
+    this.commandFor = commandFor;
+    this.isDead = isDead;
+    this.log = log;
+
+    this.runner = new SqlmapRunner(
+        new SqlmapRunner.Options((Integer) workersSpinner.getValue(), timeout()),
+        new SqlmapRunner.Listener() {
+          @Override
+          public void onState(SqlmapRunner.Job job) {
+            if (job.isFinished()) recordFinished(job);
+            dirty.set(true);
+          }
+
+          @Override
+          public void onOutput(SqlmapRunner.Job job, String line, boolean stderr) {
+            dirty.set(true);
+          }
+        }
+    );
+
+    buildUi();
+    wire();
+
+    refreshTimer.start();
+  }
+
+  /** Kills running sqlmap processes and stops the refresh timer; called when the extension is unloaded. */
+  void dispose() {
+    refreshTimer.stop();
+    runner.close();
+  }
+
+  // ================= UI =================
+
+  private void buildUi() {
+    setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+
+    JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+    top.add(runAllBtn);
+    top.add(runVisibleBtn);
+    top.add(pauseBtn);
+    top.add(cancelJobBtn);
+    top.add(cancelAllBtn);
+    top.add(clearFinishedBtn);
+    top.add(skipDoneCheck);
+    top.add(skipDeadCheck);
+    top.add(forgetProgressBtn);
+    top.add(new JLabel("Workers:"));
+    top.add(workersSpinner);
+    top.add(new JLabel("Timeout (min, 0 = none):"));
+    top.add(timeoutSpinner);
+    add(top, BorderLayout.NORTH);
+
+    jobsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    jobsTable.getColumnModel().getColumn(0).setPreferredWidth(420);
+
+    outputArea.setEditable(false);
+    outputArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+    JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(jobsTable), new JScrollPane(outputArea));
+    split.setResizeWeight(0.4);
+    split.setContinuousLayout(true);
+    add(split, BorderLayout.CENTER);
+
+    status.setForeground(new Color(0x006400));
+    add(status, BorderLayout.SOUTH);
+  }
+
+  private void wire() {
+    runAllBtn.addActionListener(e -> enqueue(allRows.get()));
+    runVisibleBtn.addActionListener(e -> enqueue(visibleRows.get()));
+
+    pauseBtn.addActionListener(e -> {
+      if (runner.isPaused()) {
+        runner.resume();
+        pauseBtn.setText("Pause");
+        log.accept("Runner resumed");
+      } else {
+        runner.pause();
+        pauseBtn.setText("Resume");
+        log.accept("Runner paused (running jobs continue, queued jobs wait)");
+      }
+    });
+
+    cancelJobBtn.addActionListener(e -> {
+      SqlmapRunner.Job job = selectedJob();
+      if (job != null) runner.cancel(job);
+    });
+    cancelAllBtn.addActionListener(e -> {
+      runner.cancelAll();
+      log.accept("Runner: all jobs cancelled");
+    });
+    clearFinishedBtn.addActionListener(e -> {
+      jobsModel.jobs.removeIf(SqlmapRunner.Job::isFinished);
+      jobsModel.fireTableDataChanged();
+      showJob(selectedJob());
+    });
+
+    forgetProgressBtn.addActionListener(e -> forgetProgress());
+
+    workersSpinner.addChangeListener(e -> runner.setWorkers((Integer) workersSpinner.getValue()));
+    timeoutSpinner.addChangeListener(e -> runner.setTimeout(timeout()));
+
+    jobsTable.getSelectionModel().addListSelectionListener(e -> {
+      if (!e.getValueIsAdjusting()) showJob(selectedJob());
+    });
+  }
+
+  private Duration timeout() {
+    int minutes = (Integer) timeoutSpinner.getValue();
+    return minutes <= 0 ? null : Duration.ofMinutes(minutes);
+  }
+
+  // ================= Jobs =================
+
+  private void enqueue(List<EndpointRow> rows) {
+    if (rows == null || rows.isEmpty()) {
+      JOptionPane.showMessageDialog(this, "No endpoints to run. Load a spec (and check the Targets filter) first.");
+      return;
+    }
+
+    Checkpoint cp = checkpoint();
+
+    int first = jobsModel.jobs.size();
+    int skipped = 0, dead = 0;
+    for (EndpointRow r : rows) {
+      if (skipDeadCheck.isSelected() && isDead.test(r)) {
+        dead++;
+        continue;
+      }
+
+      String id = Checkpoint.endpointId(r);
+      if (cp != null && skipDoneCheck.isSelected() && cp.isDone(id)) {
+        skipped++;
+        continue;
+      }
+
+      SqlmapCommandBuilder.SqlmapCommand cmd = commandFor.apply(r);
+      // tagged at submit: a job that ends at once (missing executable) is still recorded
+      SqlmapRunner.Job job = runner.submit(r.method() + " " + r.path(), cmd, cp == null ? null : new Tracked(cp, id));
+      jobsModel.jobs.add(job);
+    }
+    if (jobsModel.jobs.size() > first) jobsModel.fireTableRowsInserted(first, jobsModel.jobs.size() - 1);
+
+    log.accept("Runner: queued " + (rows.size() - skipped - dead) + " sqlmap job(s)"
+        + (skipped > 0 ? ", skipped " + skipped + " done in earlier runs (" + cp.file() + ")" : "")
+        + (dead > 0 ? ", skipped " + dead + " dead/unauthorized" : ""));
+  }
+
+  /** Null (no recording) when the checkpoint file cannot be read. */
+  private Checkpoint checkpoint() {
+    Path file = Checkpoint.defaultFile(baseUrl.get());
+    if (checkpoint == null || !checkpoint.file().equals(file)) {
+      try {
+        checkpoint = Checkpoint.open(file);
+      } catch (IOException e) {
+        log.accept("Runner: cannot read checkpoint " + file + ": " + e.getMessage());
+        checkpoint = null;
+      }
+    }
+    return checkpoint;
+  }
+
+  /** Worker thread. Cancelled jobs count as unfinished and are not recorded. */
+  private void recordFinished(SqlmapRunner.Job job) {
+    if (!(job.tag() instanceof Tracked t) || job.state() == SqlmapRunner.State.CANCELLED) return;
+
+    try {
+      t.checkpoint().record(t.endpointId(), job.state() == SqlmapRunner.State.DONE ? job.exitCode() : failureCode(job), job.label());
+    } catch (IOException e) {
+      log.accept("Runner: cannot write checkpoint " + t.checkpoint().file() + ": " + e.getMessage());
+    }
+  }
+
+  /** Timed-out jobs may have been killed with exit 0; never let them count as done. */
+  private static Integer failureCode(SqlmapRunner.Job job) {
+    Integer exit = job.exitCode();
+    return exit == null || exit == 0 ? null : exit;
+  }
+
+  private void forgetProgress() {
+    Checkpoint cp = checkpoint();
+    if (cp == null) return;
+
+    int ok = JOptionPane.showConfirmDialog(this,
+        "Forget " + cp.doneCount() + " finished endpoint(s) for " + baseUrl.get() + "?",
+        "Forget progress", JOptionPane.OK_CANCEL_OPTION);
+    if (ok != JOptionPane.OK_OPTION) return;
+
+    try {
+      cp.clear();
+      log.accept("Runner: progress cleared (" + cp.file() + ")");
+    } catch (IOException e) {
+      log.accept("Runner: cannot delete " + cp.file() + ": " + e.getMessage());
+    }
+  }
+
+  private SqlmapRunner.Job selectedJob() {
+    int row = jobsTable.getSelectedRow();
+    if (row < 0) return null;
+    return jobsModel.at(jobsTable.convertRowIndexToModel(row));
+  }
+
+  private void showJob(SqlmapRunner.Job job) {
+    shownJob = job;
+    shownLength = 0;
+    outputArea.setText("");
+    appendOutput();
+  }
+
+  private void appendOutput() {
+    if (shownJob == null) return;
+    long len = shownJob.outputLength();
+    if (len == shownLength) return;
+
+    String delta = shownJob.outputSince(shownLength);
+    shownLength = len;
+
+    // keep the view about as small as the job's own buffer
+    if (outputArea.getDocument().getLength() + delta.length() > 2 * SqlmapRunner.MAX_OUTPUT_CHARS) {
+      outputArea.setText(shownJob.outputSince(0));
+    } else {
+      outputArea.append(delta);
+    }
+    outputArea.setCaretPosition(outputArea.getDocument().getLength());
+  }
+
+  private void refresh() {
+    if (!dirty.getAndSet(false)) return;
+
+    if (!jobsModel.jobs.isEmpty()) jobsModel.fireTableRowsUpdated(0, jobsModel.jobs.size() - 1);
+    appendOutput();
+
+    int queued = 0, running = 0, done = 0, failed = 0;
+    for (SqlmapRunner.Job j : jobsModel.jobs) {
+      switch (j.state()) {
+        case QUEUED -> queued++;
+        case RUNNING -> running++;
+        case DONE -> done++;
+        default -> failed++;
+      }
+    }
+    status.setText("Running: " + running + "   Queued: " + queued + "   Done: " + done
+        + "   Failed/timed out/cancelled: " + failed + (runner.isPaused() ? "   (paused)" : ""));
+  }
+
+  private static final class JobsModel extends AbstractTableModel {
+    private static final String[] COLS = {"Endpoint", "State", "Exit", "Time (s)"};
+
+    final List<SqlmapRunner.Job> jobs = new ArrayList<>();
+
+    SqlmapRunner.Job at(int row) {
+      return row < 0 || row >= jobs.size() ? null : jobs.get(row);
+    }
+
+    @Override public int getRowCount() { return jobs.size(); }
+    @Override public int getColumnCount() { return COLS.length; }
+    @Override public String getColumnName(int column) { return COLS[column]; }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+      SqlmapRunner.Job j = at(rowIndex);
+      if (j == null) return "";
+
+      return switch (columnIndex) {
+        case 0 -> j.label();
+        case 1 -> j.state();
+        case 2 -> j.exitCode() == null ? "" : j.exitCode();
+        case 3 -> j.elapsedMs() / 1000;
+        default -> "";
+      };
+    }
+  }
+}
@@ -1,15 +1,27 @@
 package swagger2sqlmap.ui;
 
 import burp.api.montoya.MontoyaApi;
+import burp.api.montoya.core.Registration;
 import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.ui.editor.EditorOptions;
 import burp.api.montoya.ui.editor.HttpRequestEditor;
+import swagger2sqlmap.auth.CredentialIndex;
 import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.model.SampleUrl;
+import swagger2sqlmap.probe.EndpointProber;
+import swagger2sqlmap.probe.Transport;
 import swagger2sqlmap.sqlmap.SqlmapCommandBuilder;
 import swagger2sqlmap.sqlmap.SqlmapScriptExporter;
+import swagger2sqlmap.swagger.IncrementalParser;
+import swagger2sqlmap.swagger.SnapshotCache;
+import swagger2sqlmap.swagger.SpecWatcher;
 import swagger2sqlmap.swagger.SwaggerParser;
+import swagger2sqlmap.values.TemplateFiller;
+import swagger2sqlmap.values.ValueMiner;
+import swagger2sqlmap.values.ValueStore;
 
 import javax.swing.*;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
@@ -17,10 +29,21 @@ import java.awt.datatransfer.StringSelection;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 public class Swagger2SqlmapUi {
 
@@ -35,14 +58,24 @@ public class Swagger2SqlmapUi {
 
   private final JTextField swaggerFileField = new JTextField();
   private final JTextField baseUrlField = new JTextField();
+  private final JCheckBox observedValuesCheck = new JCheckBox("Use values seen in proxy traffic", true);
 
   private final JButton loadSwaggerBtn = new JButton("Import");
   private final JButton loadIntoTableBtn = new JButton("Load");
   private final JButton clearTargetsBtn = new JButton("Clear");
+  private final JButton cancelLoadBtn = new JButton("Cancel");
+  private final JCheckBox watchSpecCheck = new JCheckBox("Watch", false);
+
+  private final JButton probeBtn = new JButton("Probe");
+  private final JButton cancelProbeBtn = new JButton("Cancel probe");
+  private final JSpinner probeConcurrencySpinner = new JSpinner(new SpinnerNumberModel(8, 1, 64, 1));
+  private final JSpinner probeRateSpinner = new JSpinner(new SpinnerNumberModel(10, 0, 1000, 1));
 
   private final JLabel targetsStatus = new JLabel("Ready");
 
   private final JTextField searchField = new JTextField();
+  /** Typing restarts it; the filter runs once the user pauses. */
+  private final Timer searchDebounce = new Timer(150, e -> applyFilters());
   private final JComboBox<String> methodFilter = new JComboBox<>(
       new String[]{"ALL","GET","POST","PUT","DELETE","PATCH","HEAD","OPTIONS"}
   );
@@ -59,6 +92,7 @@ public class Swagger2SqlmapUi {
   private final JTextArea tokenArea = new JTextArea(5, 80);
   private final JButton insertFromClipboardBtn = new JButton("Insert from Clipboard");
   private final JButton loadFromHistoryBtn = new JButton("Load from Burp History");
+  private final JCheckBox followProxyTokenCheck = new JCheckBox("Follow proxy (take newer tokens for the base URL host)", true);
   private final JLabel authStatus = new JLabel("No token loaded");
 
   // ========= Command Builder tab =========
@@ -76,10 +110,19 @@ public class Swagger2SqlmapUi {
   private final JCheckBox batchCheck = new JCheckBox("--batch", true);
   private final JCheckBox randomAgentCheck = new JCheckBox("--random-agent", true);
   private final JCheckBox forceSslCheck = new JCheckBox("--force-ssl", false);
+  private final JCheckBox declaredParamsCheck = new JCheckBox("Declared parameters only", true);
+  private final Map<EndpointRow.Kind, JCheckBox> skipKindChecks = createSkipKindChecks();
 
   private final JCheckBox includeHeadersCheck = new JCheckBox("Include headers", true);
   private final JComboBox<String> headersModeCombo = new JComboBox<>(new String[]{"IMPORTANT_ONLY", "ALL"});
   private final JTextField extraArgsField = new JTextField();
+  private final JTextField sqlmapExecutableField = new JTextField("sqlmap", 24);
+  private final JSpinner exportJobsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 64, 1));
+  private final JCheckBox exportRequestFilesCheck = new JCheckBox("Export request files (-r)");
+  private final JCheckBox exportSkipDeadCheck = new JCheckBox("Skip dead", true);
+
+  // ========= Runner tab =========
+  private final RunnerPanel runnerPanel;
 
   // ========= Tamper (multi-select) =========
   private final DefaultListModel<String> tamperModel = new DefaultListModel<>();
@@ -88,7 +131,7 @@ public class Swagger2SqlmapUi {
 
   // ========= Logs tab =========
   private final JPanel logsRoot = new JPanel(new BorderLayout(8, 8));
-  private final JTextArea logArea = new JTextArea(12, 80);
+  private final LogPane logPane = new LogPane();
   private final JButton clearLogsBtn = new JButton("Clear logs");
 
   // ========= About tab =========
@@ -98,11 +141,34 @@ public class Swagger2SqlmapUi {
   // ========= State =========
   private File selectedSwaggerFile = null;
   private SwaggerParser.ParseResult parsed = null;
+  private SpecLoader specLoader = null;
+  private SpecWatcher specWatcher = null;
+  private IncrementalParser incrementalParser = null;
+  private ProbeWorker probeWorker = null;
+
+  /** Latest credentials per host, fed by a proxy handler while the extension is loaded. */
+  private final CredentialIndex credentials = new CredentialIndex();
+  private final Registration proxyRegistration;
+
+  /** Field / parameter values mined from proxy traffic for the loaded endpoints. */
+  private final ValueStore observedValues = new ValueStore();
+  private final ValueMiner valueMiner;
+  private final Registration minerRegistration;
+  private final Timer minerRetarget = new Timer(1000, e -> retargetValueMiner());
 
   public Swagger2SqlmapUi(MontoyaApi api) {
     this.api = api;
     this.requestEditor = api.userInterface().createHttpRequestEditor(EditorOptions.READ_ONLY);
 
+    this.runnerPanel = new RunnerPanel(
+        tableModel::getAll,
+        this::getVisibleEndpointRows,
+        () -> safe(baseUrlField.getText()).trim(),
+        r -> SqlmapCommandBuilder.build(r, buildHttpRequest(r), currentSqlmapOptions()),
+        this::isDead,
+        this::log
+    );
+
     this.targetsSplit = new JSplitPane(
         JSplitPane.VERTICAL_SPLIT,
         buildTargetsTableBlock(),
@@ -113,12 +179,30 @@ public class Swagger2SqlmapUi {
     buildUi();
     applyDefaults();
     wire();
+
+    credentials.addListener(c -> SwingUtilities.invokeLater(() -> onNewBearer(c)));
+    this.proxyRegistration = api.proxy().registerRequestHandler(credentials.proxyHandler());
+
+    this.valueMiner = new ValueMiner(observedValues, () -> api.proxy().history(), this::log);
+    this.minerRegistration = api.proxy().registerRequestHandler(valueMiner.proxyHandler());
   }
 
   public JComponent getRoot() {
     return root;
   }
 
+  /** Stops background work; called when the extension is unloaded. */
+  public void dispose() {
+    if (specLoader != null) specLoader.cancel(true);
+    if (probeWorker != null) probeWorker.cancel(true);
+    if (proxyRegistration != null && proxyRegistration.isRegistered()) proxyRegistration.deregister();
+    if (minerRegistration != null && minerRegistration.isRegistered()) minerRegistration.deregister();
+    valueMiner.close();
+    stopWatching();
+    runnerPanel.dispose();
+    logPane.dispose();
+  }
+
   // ================= UI build =================
 
   private void buildUi() {
@@ -127,6 +211,7 @@ public class Swagger2SqlmapUi {
     tabs.addTab("Targets", targetsRoot);
     tabs.addTab("Authorization", authRoot);
     tabs.addTab("Command Builder", cmdRoot);
+    tabs.addTab("Runner", runnerPanel);
     tabs.addTab("Logs", logsRoot);
     tabs.addTab("About", aboutRoot);
 
@@ -167,6 +252,8 @@ public class Swagger2SqlmapUi {
     btns.add(loadSwaggerBtn);
     btns.add(loadIntoTableBtn);
     btns.add(clearTargetsBtn);
+    btns.add(cancelLoadBtn);
+    btns.add(watchSpecCheck);
 
     c.gridx=2; c.weightx=0;
     top.add(btns, c);
@@ -175,9 +262,11 @@ public class Swagger2SqlmapUi {
     c.gridx=0; c.gridy=1; c.weightx=0;
     top.add(new JLabel("Base URL:"), c);
 
-    c.gridx=1; c.weightx=1; c.gridwidth=2;
+    c.gridx=1; c.weightx=1;
     top.add(baseUrlField, c);
-    c.gridwidth=1;
+
+    c.gridx=2; c.weightx=0;
+    top.add(observedValuesCheck, c);
 
     // Row 2: filters
     c.gridx=0; c.gridy=2; c.weightx=0;
@@ -192,8 +281,23 @@ public class Swagger2SqlmapUi {
     filterRight.add(methodFilter);
     top.add(filterRight, c);
 
-    // Row 3: status
+    // Row 3: liveness probe
     c.gridx=0; c.gridy=3; c.weightx=0;
+    top.add(new JLabel("Probe:"), c);
+
+    c.gridx=1; c.weightx=1; c.gridwidth=2;
+    JPanel probeRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+    probeRow.add(probeBtn);
+    probeRow.add(cancelProbeBtn);
+    probeRow.add(new JLabel("Concurrency:"));
+    probeRow.add(probeConcurrencySpinner);
+    probeRow.add(new JLabel("Requests/s per host (0 = no limit):"));
+    probeRow.add(probeRateSpinner);
+    top.add(probeRow, c);
+    c.gridwidth=1;
+
+    // Row 4: status
+    c.gridx=0; c.gridy=4; c.weightx=0;
     top.add(new JLabel("Status:"), c);
 
     c.gridx=1; c.weightx=1; c.gridwidth=2;
@@ -240,6 +344,7 @@ public class Swagger2SqlmapUi {
     JPanel btns = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
     btns.add(insertFromClipboardBtn);
     btns.add(loadFromHistoryBtn);
+    btns.add(followProxyTokenCheck);
     p.add(btns, c);
 
     c.gridx=0; c.gridy=2; c.weightx=0;
@@ -293,6 +398,12 @@ public class Swagger2SqlmapUi {
     row1.add(batchCheck);
     row1.add(randomAgentCheck);
     row1.add(forceSslCheck);
+    row1.add(declaredParamsCheck);
+
+    // Row 1b: parameter types not worth testing
+    JPanel kindsRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+    kindsRow.add(new JLabel("Skip parameter types:"));
+    skipKindChecks.values().forEach(kindsRow::add);
 
     // Row 2: headers mode
     JPanel row2 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
@@ -340,15 +451,28 @@ public class Swagger2SqlmapUi {
     row4.add(new JLabel("Extra args:"), BorderLayout.WEST);
     row4.add(extraArgsField, BorderLayout.CENTER);
 
+    // Row 5: executable (used by exports and the Runner tab)
+    JPanel row5 = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+    row5.add(new JLabel("sqlmap executable:"));
+    row5.add(sqlmapExecutableField);
+    row5.add(new JLabel("Export parallel jobs (1 = sequential):"));
+    row5.add(exportJobsSpinner);
+    row5.add(exportRequestFilesCheck);
+    row5.add(exportSkipDeadCheck);
+
     wrapper.add(row0);
     wrapper.add(Box.createVerticalStrut(6));
     wrapper.add(row1);
     wrapper.add(Box.createVerticalStrut(6));
+    wrapper.add(kindsRow);
+    wrapper.add(Box.createVerticalStrut(6));
     wrapper.add(row2);
     wrapper.add(Box.createVerticalStrut(6));
     wrapper.add(row3);
     wrapper.add(Box.createVerticalStrut(6));
     wrapper.add(row4);
+    wrapper.add(Box.createVerticalStrut(6));
+    wrapper.add(row5);
 
     return wrapper;
   }
@@ -362,14 +486,12 @@ public class Swagger2SqlmapUi {
   }
 
   private void buildLogsTab() {
-    logArea.setEditable(false);
-    logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
     JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
     top.add(clearLogsBtn);
+    top.add(logPane.controls());
 
     logsRoot.add(top, BorderLayout.NORTH);
-    logsRoot.add(new JScrollPane(logArea), BorderLayout.CENTER);
+    logsRoot.add(logPane, BorderLayout.CENTER);
   }
 
   private void buildAboutTab() {
@@ -437,6 +559,14 @@ https://github.com/afandiyevm/Swagger2Sqlmap
 
   private void applyDefaults() {
     swaggerFileField.setEditable(false);
+    searchDebounce.setRepeats(false);
+    minerRetarget.setRepeats(false);
+    observedValuesCheck.setToolTipText("Fill body fields, query and path parameters with values from matching proxied requests");
+    cancelLoadBtn.setEnabled(false);
+    cancelProbeBtn.setEnabled(false);
+    declaredParamsCheck.setToolTipText("Test only the spec's parameters and body fields: -p, plus '*' on path and header parameters");
+    exportSkipDeadCheck.setToolTipText("Leave out endpoints whose last probe answered 401/403/404/405/410/501");
+    watchSpecCheck.setToolTipText("Re-parse automatically when the file changes on disk");
 
     tokenArea.setLineWrap(true);
     tokenArea.setWrapStyleWord(true);
@@ -450,7 +580,13 @@ https://github.com/afandiyevm/Swagger2Sqlmap
 
   private void wire() {
     Runnable apply = this::applyFilters;
-    searchField.getDocument().addDocumentListener((SimpleDocumentListener) ev -> apply.run());
+    searchField.getDocument().addDocumentListener((SimpleDocumentListener) ev -> searchDebounce.restart());
+
+    // the value miner follows the loaded paths and base URL (not probe / content updates)
+    tableModel.addTableModelListener(e -> {
+      if (e.getType() != TableModelEvent.UPDATE || e.getLastRow() == Integer.MAX_VALUE) minerRetarget.restart();
+    });
+    baseUrlField.getDocument().addDocumentListener((SimpleDocumentListener) ev -> minerRetarget.restart());
     methodFilter.addActionListener(e -> apply.run());
 
     addCustomTamperBtn.addActionListener(e -> {
@@ -527,7 +663,7 @@ https://github.com/afandiyevm/Swagger2Sqlmap
         menu.addSeparator();
 
         JMenuItem copyUrl = new JMenuItem("Copy full URL");
-        copyUrl.addActionListener(ae -> copyToClipboard(joinUrlSafe(baseUrlField.getText(), r.path())));
+        copyUrl.addActionListener(ae -> copyToClipboard(buildHttpRequest(r).url()));
         menu.add(copyUrl);
 
         menu.show(e.getComponent(), e.getX(), e.getY());
@@ -549,12 +685,24 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     });
 
     clearTargetsBtn.addActionListener(e -> clearTargets());
+    cancelLoadBtn.addActionListener(e -> {
+      if (specLoader != null) specLoader.cancel(true);
+    });
+    watchSpecCheck.addActionListener(e -> {
+      if (watchSpecCheck.isSelected()) startWatching();
+      else stopWatching();
+    });
+
+    probeBtn.addActionListener(e -> startProbe());
+    cancelProbeBtn.addActionListener(e -> {
+      if (probeWorker != null) probeWorker.cancel(true);
+    });
 
     insertFromClipboardBtn.addActionListener(e -> insertTokenFromClipboard());
     loadFromHistoryBtn.addActionListener(e -> loadTokenFromBurpHistory());
 
     clearLogsBtn.addActionListener(e -> {
-      logArea.setText("");
+      logPane.clear();
       api.logging().logToOutput("Logs cleared");
     });
 
@@ -579,6 +727,12 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     ps1.addActionListener(ae -> exportAllAs("ps1"));
     menu.add(ps1);
 
+    menu.addSeparator();
+
+    JMenuItem sharded = new JMenuItem("Save sharded scripts...");
+    sharded.addActionListener(ae -> exportSharded());
+    menu.add(sharded);
+
     menu.show(anchor, 0, anchor.getHeight());
   }
 
@@ -589,26 +743,146 @@ https://github.com/afandiyevm/Swagger2Sqlmap
       return;
     }
 
-    try {
-      SqlmapCommandBuilder.Options opt = currentSqlmapOptions();
-      List<EndpointRow> all = tableModel.getAll();
+    File out = SqlmapScriptExporter.chooseScriptFile(root, kind);
+    if (out == null) return;
+
+    SqlmapScriptExporter exporter = newExporter();
+    new ExportWorker("Exporting ." + kind, l -> exporter.writeScript(out.toPath(), kind, l)).start();
+  }
+
+  /** Asks for format and shard count, then writes one script per shard plus a manifest. */
+  private void exportSharded() {
+    if (tableModel.getRowCount() == 0) {
+      log("Export blocked: table is empty (load swagger + load into table)");
+      JOptionPane.showMessageDialog(root, "Table is empty. Load Swagger and Load into Table first.");
+      return;
+    }
+
+    JComboBox<String> kindCombo = new JComboBox<>(new String[]{"sh", "py", "ps1"});
+    JSpinner shardsSpinner = new JSpinner(new SpinnerNumberModel(4, 2, 256, 1));
+    JPanel p = new JPanel(new GridLayout(0, 2, 8, 6));
+    p.add(new JLabel("Format:"));
+    p.add(kindCombo);
+    p.add(new JLabel("Shards (scanning nodes):"));
+    p.add(shardsSpinner);
+
+    int ok = JOptionPane.showConfirmDialog(root, p, "Sharded export", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    if (ok != JOptionPane.OK_OPTION) return;
+
+    File dir = SqlmapScriptExporter.chooseShardDirectory(root);
+    if (dir == null) return;
+
+    String kind = String.valueOf(kindCombo.getSelectedItem());
+    int shards = (Integer) shardsSpinner.getValue();
+    SqlmapScriptExporter exporter = newExporter();
+    new ExportWorker("Exporting " + shards + " ." + kind + " shards",
+        l -> exporter.writeSharded(dir.toPath(), kind, shards, l)).start();
+  }
+
+  /** Rows, base URL, token and options are captured here, on the EDT; the export itself runs off it. */
+  private SqlmapScriptExporter newExporter() {
+    return new SqlmapScriptExporter(
+        api, requestBuilder(), exportRows(), currentSqlmapOptions(), currentScriptOptions());
+  }
+
+  /** All rows, minus the ones a probe found dead when "Skip dead" is ticked. */
+  private List<EndpointRow> exportRows() {
+    List<EndpointRow> all = tableModel.getAll();
+    if (!exportSkipDeadCheck.isSelected()) return all;
+
+    List<EndpointRow> out = new ArrayList<>(all.size());
+    for (EndpointRow r : all) {
+      if (!isDead(r)) out.add(r);
+    }
+    if (out.size() < all.size()) log("Export: skipping " + (all.size() - out.size()) + " dead/unauthorized endpoint(s)");
+    return out;
+  }
+
+  @FunctionalInterface
+  private interface ExportTask {
+    void run(SqlmapScriptExporter.Listener listener) throws Exception;
+  }
+
+  /**
+   * Runs one export off the EDT behind a progress monitor; cancelling the monitor stops
+   * the exporter before its next row. One export at a time (the Export button is
+   * disabled meanwhile).
+   */
+  private final class ExportWorker extends SwingWorker<Void, Integer> implements SqlmapScriptExporter.Listener {
+
+    private final String title;
+    private final ExportTask task;
+    private final ProgressMonitor monitor;
+    private volatile int total;
+
+    ExportWorker(String title, ExportTask task) {
+      this.title = title;
+      this.task = task;
+      this.monitor = new ProgressMonitor(root, title, "Preparing...", 0, 1);
+      monitor.setMillisToDecideToPopup(200);
+    }
+
+    void start() {
+      exportBtn.setEnabled(false);
+      log(title + "...");
+      execute();
+    }
+
+    @Override
+    protected Void doInBackground() throws Exception {
+      task.run(this);
+      return null;
+    }
+
+    @Override
+    public void onRow(int done, int total) {
+      this.total = total;
+      publish(done);
+    }
 
-      SqlmapScriptExporter exporter = new SqlmapScriptExporter(api, this::buildHttpRequest, all, opt);
+    // isCancelled() is inherited from SwingWorker
 
-      switch (kind) {
-        case "sh" -> exporter.saveAsSh(root);
-        case "py" -> exporter.saveAsPy(root);
-        case "ps1" -> exporter.saveAsPs1(root);
-        default -> throw new IllegalArgumentException("Unknown export: " + kind);
+    @Override
+    protected void process(List<Integer> batch) {
+      if (isDone()) return;
+      if (monitor.isCanceled()) {
+        cancel(false);
+        return;
       }
+      int done = batch.get(batch.size() - 1);
+      monitor.setMaximum(Math.max(1, total));
+      monitor.setProgress(done);
+      monitor.setNote(done + " / " + total + " rows");
+    }
 
-      tabs.setSelectedComponent(logsRoot);
-    } catch (Exception ex) {
-      logErr(ex);
-      JOptionPane.showMessageDialog(root, "Export failed: " + ex.getMessage());
+    @Override
+    protected void done() {
+      monitor.close();
+      exportBtn.setEnabled(true);
+
+      if (isCancelled()) {
+        log(title + ": cancelled");
+        return;
+      }
+      try {
+        get();
+        tabs.setSelectedComponent(logsRoot);
+      } catch (Exception ex) {
+        Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+        logErr(cause instanceof Exception e ? e : ex);
+        JOptionPane.showMessageDialog(root, "Export failed: " + cause.getMessage());
+      }
     }
   }
 
+  private SqlmapScriptExporter.ScriptOptions currentScriptOptions() {
+    return new SqlmapScriptExporter.ScriptOptions(
+        (Integer) exportJobsSpinner.getValue(),
+        SqlmapScriptExporter.ScriptOptions.defaults().outputDir(),
+        exportRequestFilesCheck.isSelected()
+    );
+  }
+
   // ================= Command Builder =================
 
   private SqlmapCommandBuilder.Options currentSqlmapOptions() {
@@ -623,8 +897,10 @@ https://github.com/afandiyevm/Swagger2Sqlmap
       if (!cleaned.isEmpty()) tamper = String.join(",", cleaned);
     }
 
+    String executable = safe(sqlmapExecutableField.getText()).trim();
+
     return new SqlmapCommandBuilder.Options(
-        "sqlmap",
+        executable.isEmpty() ? "sqlmap" : executable,
         includeHeadersCheck.isSelected(),
         "ALL".equals(String.valueOf(headersModeCombo.getSelectedItem()))
             ? SqlmapCommandBuilder.Options.HeadersMode.ALL
@@ -637,10 +913,42 @@ https://github.com/afandiyevm/Swagger2Sqlmap
         tamper,
         null,
         safe(extraArgsField.getText()),
-        forceSslCheck.isSelected()
+        forceSslCheck.isSelected(),
+        declaredParamsCheck.isSelected()
+            ? SqlmapCommandBuilder.Options.ParamScope.DECLARED
+            : SqlmapCommandBuilder.Options.ParamScope.ALL,
+        selectedSkipKinds()
     );
   }
 
+  private Set<EndpointRow.Kind> selectedSkipKinds() {
+    Set<EndpointRow.Kind> kinds = EnumSet.noneOf(EndpointRow.Kind.class);
+    skipKindChecks.forEach((k, check) -> {
+      if (check.isSelected()) kinds.add(k);
+    });
+    return kinds;
+  }
+
+  /** One box per constrained kind (free text is always tested), ticked per the builder's defaults. */
+  private static Map<EndpointRow.Kind, JCheckBox> createSkipKindChecks() {
+    Map<EndpointRow.Kind, JCheckBox> checks = new EnumMap<>(EndpointRow.Kind.class);
+    for (EndpointRow.Kind k : EndpointRow.Kind.values()) {
+      if (k == EndpointRow.Kind.STRING) continue;
+      String label = switch (k) {
+        case NUMBER -> "Numbers";
+        case DATE -> "Dates";
+        case UUID -> "UUIDs";
+        case ENUM -> "Enums";
+        case BOOLEAN -> "Booleans";
+        case STRING -> "Text";
+      };
+      JCheckBox check = new JCheckBox(label, SqlmapCommandBuilder.Options.DEFAULT_SKIP_KINDS.contains(k));
+      check.setToolTipText("Do not test parameters and body fields whose schema type is " + label.toLowerCase(Locale.ROOT));
+      checks.put(k, check);
+    }
+    return checks;
+  }
+
   private void buildSqlmapCommandForSelected() {
     EndpointRow r = getSelectedEndpointRow();
     if (r == null) {
@@ -650,7 +958,7 @@ https://github.com/afandiyevm/Swagger2Sqlmap
 
     try {
       HttpRequest req = buildHttpRequest(r);
-      var cmd = SqlmapCommandBuilder.build(req, currentSqlmapOptions());
+      var cmd = SqlmapCommandBuilder.build(r, req, currentSqlmapOptions());
       String shell = SqlmapCommandBuilder.toShellCommand(cmd);
       sqlmapCommandArea.setText(shell);
       log("Built sqlmap command for: " + r.method() + " " + r.path());
@@ -678,30 +986,206 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     JFileChooser fc = new JFileChooser();
     if (fc.showOpenDialog(root) != JFileChooser.APPROVE_OPTION) return;
 
+    if (specLoader != null) specLoader.cancel(true);
+    stopWatching();
+
     selectedSwaggerFile = fc.getSelectedFile();
     swaggerFileField.setText(selectedSwaggerFile.getAbsolutePath());
 
-    try {
-      parsed = SwaggerParser.parse(selectedSwaggerFile);
+    parsed = null;
+    tableModel.setData(List.of());
+    setLoading(true);
+    setTargetsStatus("Parsing " + selectedSwaggerFile.getName() + "...", true);
 
-      if (parsed.baseUrl() != null && !parsed.baseUrl().isBlank()) {
-        baseUrlField.setText(parsed.baseUrl());
+    specLoader = new SpecLoader(selectedSwaggerFile);
+    specLoader.execute();
+  }
+
+  private void setLoading(boolean loading) {
+    loadSwaggerBtn.setEnabled(!loading);
+    loadIntoTableBtn.setEnabled(!loading);
+    cancelLoadBtn.setEnabled(loading);
+  }
+
+  private record ParseProgress(List<EndpointRow> chunk, int pathsDone, int pathsTotal) {}
+
+  /**
+   * Parses a spec off the EDT. Endpoints are appended to the table as path items
+   * finish; once parsing completes the table is replaced with the final sorted list.
+   */
+  private final class SpecLoader extends SwingWorker<SwaggerParser.ParseResult, ParseProgress>
+      implements SwaggerParser.Listener {
+
+    private final File file;
+
+    SpecLoader(File file) {
+      this.file = file;
+    }
+
+    @Override
+    protected SwaggerParser.ParseResult doInBackground() throws Exception {
+      return SwaggerParser.parse(file, parserOptions(), this);
+    }
+
+    @Override
+    public void onEndpoints(List<EndpointRow> chunk, int pathsDone, int pathsTotal) {
+      publish(new ParseProgress(chunk, pathsDone, pathsTotal));
+    }
+
+    // isCancelled() is inherited from SwingWorker
+
+    @Override
+    protected void process(List<ParseProgress> batch) {
+      // late chunks are covered by the final list set in done()
+      if (specLoader != this || isDone()) return;
+
+      ParseProgress last = null;
+      for (ParseProgress p : batch) {
+        tableModel.addRows(p.chunk());
+        last = p;
+      }
+      if (last != null) {
+        setTargetsStatus("Parsing " + file.getName() + "... paths "
+            + last.pathsDone() + " / " + last.pathsTotal(), true);
       }
+    }
+
+    @Override
+    protected void done() {
+      if (specLoader != this) return;
+      specLoader = null;
+      setLoading(false);
+
+      if (isCancelled()) {
+        parsed = null;
+        tableModel.setData(List.of());
+        setTargetsStatus("Loading cancelled: " + file.getName(), false);
+        log("Swagger loading cancelled: " + file.getName());
+        return;
+      }
+
+      try {
+        parsed = get();
 
-      setTargetsStatus("Swagger parsed OK. Endpoints found: " + parsed.endpoints().size(), true);
-      log("Parsed swagger: " + selectedSwaggerFile.getName());
-      log("Detected baseUrl: " + parsed.baseUrl());
-      log("Endpoints: " + parsed.endpoints().size());
+        if (parsed.baseUrl() != null && !parsed.baseUrl().isBlank()) {
+          baseUrlField.setText(parsed.baseUrl());
+        }
+        tableModel.setData(parsed.endpoints());
+
+        setTargetsStatus("Swagger parsed OK. Endpoints found: " + parsed.endpoints().size(), true);
+        log("Parsed swagger: " + file.getName());
+        log("Detected baseUrl: " + parsed.baseUrl());
+        log("Endpoints: " + parsed.endpoints().size());
+        if (parsed.fromSnapshot()) {
+          log("Loaded from snapshot cache (spec unchanged)");
+        } else {
+          log("Schema template cache: " + parsed.templateCache());
+        }
+        if (!parsed.dependencies().isEmpty()) {
+          log("External $ref files: " + parsed.dependencies().size());
+        }
+        if (watchSpecCheck.isSelected()) startWatching();
 
+      } catch (Exception ex) {
+        parsed = null;
+        tableModel.setData(List.of());
+        Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+        setTargetsStatus("Swagger parse failed: " + cause.getMessage(), false);
+        logErr(cause instanceof Exception e ? e : ex);
+        tabs.setSelectedComponent(logsRoot);
+      }
+    }
+  }
+
+  private static SwaggerParser.Options parserOptions() {
+    return new SwaggerParser.Options(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        SnapshotCache.defaultDirectory()
+    );
+  }
+
+  // ================= Watch mode =================
+
+  /**
+   * Watches the selected spec; every change is re-parsed on the watcher thread
+   * (only changed path items) and applied to the table as a row diff.
+   */
+  private void startWatching() {
+    stopWatching();
+    if (selectedSwaggerFile == null || specLoader != null) return;
+
+    File file = selectedSwaggerFile;
+    IncrementalParser inc = new IncrementalParser(file, parserOptions());
+    try {
+      specWatcher = new SpecWatcher(file.toPath(), () -> reparseChanged(inc));
+      incrementalParser = inc;
+      log("Watching for changes: " + file.getAbsolutePath());
+    } catch (Exception ex) {
+      watchSpecCheck.setSelected(false);
+      setTargetsStatus("Cannot watch file: " + ex.getMessage(), false);
+      logErr(ex);
+    }
+  }
+
+  private void stopWatching() {
+    if (specWatcher != null) specWatcher.close();
+    specWatcher = null;
+    incrementalParser = null;
+  }
+
+  /** Watcher thread. */
+  private void reparseChanged(IncrementalParser inc) {
+    try {
+      IncrementalParser.Update u = inc.reparse();
+      SwingUtilities.invokeLater(() -> applySpecUpdate(inc, u));
     } catch (Exception ex) {
-      parsed = null;
-      setTargetsStatus("Swagger parse failed: " + ex.getMessage(), false);
+      // typically a half-written file; the next write triggers another run
+      SwingUtilities.invokeLater(() -> {
+        if (incrementalParser != inc) return;
+        setTargetsStatus("Re-parse failed: " + ex.getMessage(), false);
+        logErr(ex);
+      });
+    }
+  }
+
+  private void applySpecUpdate(IncrementalParser inc, IncrementalParser.Update u) {
+    // stale: watch stopped, other file imported, or an import is running
+    if (incrementalParser != inc || specLoader != null) return;
+
+    parsed = u.result();
+    if (parsed.baseUrl() != null && !parsed.baseUrl().isBlank()) {
+      baseUrlField.setText(parsed.baseUrl());
+    }
+    try {
+      specWatcher.watchAlso(parsed.dependencies());
+    } catch (IOException ex) {
       logErr(ex);
-      tabs.setSelectedComponent(logsRoot);
     }
+
+    EndpointsTableModel.Diff d = tableModel.applyDiff(parsed.endpoints());
+    if (d.isEmpty()) return;
+
+    String what = "+" + d.added() + " / -" + d.removed() + " / ~" + d.changed();
+    setTargetsStatus("Spec changed: " + what + " endpoints. Total: " + parsed.endpoints().size(), true);
+    log("Spec changed on disk: " + what + " endpoints ("
+        + (u.incremental()
+            ? u.pathsReparsed() + " of " + u.pathsTotal() + " path items re-parsed"
+            : "full re-parse")
+        + ")");
   }
 
   private void clearTargets() {
+    if (specLoader != null) {
+      specLoader.cancel(true);
+      specLoader = null;
+      setLoading(false);
+    }
+    stopWatching();
+    if (probeWorker != null) {
+      probeWorker.cancel(true);
+      probeWorker = null;
+    }
+
     selectedSwaggerFile = null;
     parsed = null;
 
@@ -711,6 +1195,7 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     methodFilter.setSelectedItem("ALL");
 
     tableModel.setData(List.of());
+    tableModel.clearProbeResults();
     requestEditor.setRequest(HttpRequest.httpRequest(""));
     sqlmapCommandArea.setText("");
 
@@ -718,6 +1203,135 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     log("Targets cleared");
   }
 
+  // ================= Liveness probe =================
+
+  /** True when the row's last probe answered 401/403 or 404/405/410/501; unprobed rows are live. */
+  private boolean isDead(EndpointRow r) {
+    EndpointProber.Result p = tableModel.probeResult(r);
+    return p != null && p.verdict().isSkippable();
+  }
+
+  /** Sends every row's request once (after confirmation) and fills the Status / Latency / Size columns. */
+  private void startProbe() {
+    if (probeWorker != null) return;
+
+    List<EndpointRow> rows = tableModel.getAll();
+    if (rows.isEmpty()) {
+      JOptionPane.showMessageDialog(root, "Table is empty. Load Swagger and Load into Table first.");
+      return;
+    }
+
+    long unsafe = rows.stream().filter(r -> !"GET".equalsIgnoreCase(r.method()) && !"HEAD".equalsIgnoreCase(r.method())).count();
+    int ok = JOptionPane.showConfirmDialog(root,
+        "Send one request per endpoint (" + rows.size() + ") to " + joinUrlSafe(baseUrlField.getText(), "/") + "?\n"
+            + (unsafe > 0 ? unsafe + " of them are not GET/HEAD and may change data on the target." : ""),
+        "Probe endpoints", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE);
+    if (ok != JOptionPane.OK_OPTION) return;
+
+    EndpointProber prober = new EndpointProber(Transport.montoya(api), new EndpointProber.Options(
+        (Integer) probeConcurrencySpinner.getValue(), (Integer) probeRateSpinner.getValue()));
+    probeWorker = new ProbeWorker(prober, rows, requestBuilder());
+    probeBtn.setEnabled(false);
+    cancelProbeBtn.setEnabled(true);
+    log("Probing " + rows.size() + " endpoint(s)...");
+    probeWorker.execute();
+  }
+
+  private record Probed(EndpointRow row, EndpointProber.Result result) {}
+
+  /** Runs the prober off the EDT; results reach the table in batches through process(). */
+  private final class ProbeWorker extends SwingWorker<Map<EndpointRow, EndpointProber.Result>, Probed>
+      implements EndpointProber.Listener {
+
+    private final EndpointProber prober;
+    private final List<EndpointRow> rows;
+    private final Function<EndpointRow, HttpRequest> requestFor;
+    private int done;
+
+    ProbeWorker(EndpointProber prober, List<EndpointRow> rows, Function<EndpointRow, HttpRequest> requestFor) {
+      this.prober = prober;
+      this.rows = rows;
+      this.requestFor = requestFor;
+    }
+
+    @Override
+    protected Map<EndpointRow, EndpointProber.Result> doInBackground() throws Exception {
+      return prober.probe(rows, requestFor, this);
+    }
+
+    @Override
+    public void onResult(EndpointRow row, EndpointProber.Result result) {
+      publish(new Probed(row, result));
+    }
+
+    // isCancelled() is inherited from SwingWorker
+
+    @Override
+    protected void process(List<Probed> batch) {
+      if (probeWorker != this) return;
+      Map<EndpointRow, EndpointProber.Result> results = new HashMap<>();
+      for (Probed p : batch) results.put(p.row(), p.result());
+      tableModel.putProbeResults(results);
+      done += batch.size();
+      setTargetsStatus("Probing: " + done + " / " + rows.size(), true);
+    }
+
+    @Override
+    protected void done() {
+      probeBtn.setEnabled(true);
+      cancelProbeBtn.setEnabled(false);
+      if (probeWorker != this) return; // targets were cleared meanwhile
+      probeWorker = null;
+
+      if (isCancelled()) {
+        setTargetsStatus("Probe cancelled after " + done + " / " + rows.size(), false);
+        log("Probe cancelled after " + done + " / " + rows.size() + " endpoint(s)");
+        return;
+      }
+      try {
+        Map<EndpointRow, EndpointProber.Result> results = get();
+        tableModel.putProbeResults(results);
+
+        Map<EndpointProber.Verdict, Integer> counts = new EnumMap<>(EndpointProber.Verdict.class);
+        for (EndpointProber.Result r : results.values()) counts.merge(r.verdict(), 1, Integer::sum);
+        String summary = "alive " + counts.getOrDefault(EndpointProber.Verdict.ALIVE, 0)
+            + ", unauthorized " + counts.getOrDefault(EndpointProber.Verdict.UNAUTHORIZED, 0)
+            + ", dead " + counts.getOrDefault(EndpointProber.Verdict.DEAD, 0)
+            + ", no response " + counts.getOrDefault(EndpointProber.Verdict.ERROR, 0);
+        setTargetsStatus("Probed " + results.size() + " endpoint(s): " + summary, true);
+        log("Probe finished: " + summary);
+      } catch (Exception ex) {
+        Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+        setTargetsStatus("Probe failed: " + cause.getMessage(), false);
+        logErr(cause instanceof Exception e ? e : ex);
+      }
+    }
+  }
+
+  // ================= Observed values =================
+
+  /** Points the value miner at the loaded paths under the base URL; it re-reads history only when that changed. */
+  private void retargetValueMiner() {
+    List<EndpointRow> rows = tableModel.getAll();
+    if (rows.isEmpty()) return;
+
+    Set<String> templates = new HashSet<>();
+    for (EndpointRow r : rows) {
+      String p = safe(r.path());
+      int q = p.indexOf('?');
+      templates.add(q < 0 ? p : p.substring(0, q));
+    }
+
+    String basePath = "";
+    try {
+      String p = new URI(safe(baseUrlField.getText()).trim()).getPath();
+      if (p != null) basePath = p.endsWith("/") ? p.substring(0, p.length() - 1) : p;
+    } catch (Exception ignored) {
+      // no base path
+    }
+    valueMiner.retarget(targetHost(), basePath, templates);
+  }
+
   // ================= Authorization actions =================
 
   private void insertTokenFromClipboard() {
@@ -738,31 +1352,84 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     }
   }
 
+  /**
+   * Takes the base URL host's Bearer token from the credential index (any host's newest
+   * one when no base URL is set). Traffic proxied before the extension was loaded is not
+   * indexed; in that case the proxy history is scanned once, newest first and off the
+   * EDT, until a token turns up.
+   */
   private void loadTokenFromBurpHistory() {
-    try {
-      var history = api.proxy().history();
-      for (int i = history.size() - 1; i >= 0; i--) {
-        var entry = history.get(i);
-        var req = entry.finalRequest();
-
-        for (var h : req.headers()) {
-          if ("Authorization".equalsIgnoreCase(h.name())) {
-            String v = safe(h.value()).trim();
-            if (v.toLowerCase(Locale.ROOT).startsWith("bearer ")) {
-              String token = v.substring("bearer ".length()).trim();
-              tokenArea.setText(token);
-              setAuthStatus("Token loaded from Burp History", true);
-              log("Token loaded from history");
-              return;
-            }
+    String host = targetHost();
+    CredentialIndex.Credentials c = host.isEmpty() ? credentials.latestBearer() : credentials.forHost(host);
+    if (c != null && c.bearer() != null) {
+      applyToken(c, "Token loaded from proxy traffic");
+      return;
+    }
+
+    loadFromHistoryBtn.setEnabled(false);
+    setAuthStatus("Scanning Burp History...", true);
+
+    new SwingWorker<CredentialIndex.Credentials, Void>() {
+      @Override
+      protected CredentialIndex.Credentials doInBackground() {
+        var history = api.proxy().history();
+        for (int i = history.size() - 1; i >= 0; i--) {
+          credentials.seed(history.get(i).finalRequest());
+          CredentialIndex.Credentials found = host.isEmpty() ? credentials.latestBearer() : credentials.forHost(host);
+          if (found != null && found.bearer() != null) return found;
+        }
+        return null;
+      }
+
+      @Override
+      protected void done() {
+        loadFromHistoryBtn.setEnabled(true);
+        try {
+          CredentialIndex.Credentials found = get();
+          if (found == null) {
+            setAuthStatus("No Bearer token found in Burp History" + (host.isEmpty() ? "" : " for " + host), false);
+            log("No token found in history");
+          } else {
+            applyToken(found, "Token loaded from Burp History");
           }
+        } catch (Exception ex) {
+          Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+          setAuthStatus("History read failed: " + cause.getMessage(), false);
+          logErr(cause instanceof Exception e ? e : ex);
         }
       }
-      setAuthStatus("No Bearer token found in Burp History", false);
-      log("No token found in history");
-    } catch (Exception ex) {
-      setAuthStatus("History read failed: " + ex.getMessage(), false);
-      logErr(ex);
+    }.execute();
+  }
+
+  /** Proxy saw a new Bearer token for some host (EDT). */
+  private void onNewBearer(CredentialIndex.Credentials c) {
+    if (!followProxyTokenCheck.isSelected()) return;
+    String host = targetHost();
+    if (!host.isEmpty() && !host.equals(c.host())) return;
+    if (c.bearer().equals(safe(tokenArea.getText()).trim())) return;
+
+    applyToken(c, "Token refreshed from proxy traffic");
+  }
+
+  private void applyToken(CredentialIndex.Credentials c, String what) {
+    tokenArea.setText(c.bearer());
+
+    List<String> also = new ArrayList<>();
+    if (c.cookie() != null) also.add("Cookie");
+    also.addAll(c.apiKeys().keySet());
+    String detail = " (" + c.host() + (also.isEmpty() ? "" : "; also seen: " + String.join(", ", also)) + ")";
+
+    setAuthStatus(what + detail, true);
+    log(what + detail);
+  }
+
+  /** Lowercase host of the base URL; "" when none is set. */
+  private String targetHost() {
+    try {
+      String h = new URI(safe(baseUrlField.getText()).trim()).getHost();
+      return h == null ? "" : h.toLowerCase(Locale.ROOT);
+    } catch (Exception ignored) {
+      return "";
     }
   }
 
@@ -795,29 +1462,72 @@ https://github.com/afandiyevm/Swagger2Sqlmap
   }
 
   private HttpRequest buildHttpRequest(EndpointRow r) {
+    return requestBuilder().apply(r);
+  }
+
+  /**
+   * Binds the current base URL, token and observed-values setting (read here, on the EDT);
+   * the result is safe to use on any thread.
+   */
+  private Function<EndpointRow, HttpRequest> requestBuilder() {
     String base = safe(baseUrlField.getText()).trim();
+    String token = safe(tokenArea.getText()).trim();
+    ValueStore values = observedValuesCheck.isSelected() ? observedValues : null;
+    String host = targetHost();
+    return r -> buildHttpRequest(r, base, token, values, host);
+  }
+
+  /** {@code values}: observed values to put into the generated path and body, or null. */
+  private static HttpRequest buildHttpRequest(EndpointRow r, String base, String token, ValueStore values, String host) {
     if (base.isEmpty()) base = "http://example.com";
 
-    String full = joinUrlSafe(base, r.path());
+    String path;
+    String body = r.bodyTemplate();
+    if (values != null && !host.isEmpty()) {
+      path = SampleUrl.pathAndQuery(r, TemplateFiller.observed(values, host, r.path()));
+      body = TemplateFiller.fillBody(values, host, r.path(), r.contentType(), body);
+    } else {
+      path = SampleUrl.pathAndQuery(r);
+    }
+
+    String full = joinUrlSafe(base, path);
 
     HttpRequest req = HttpRequest.httpRequestFromUrl(full)
         .withMethod(r.method().toUpperCase(Locale.ROOT));
 
-    String token = safe(tokenArea.getText()).trim();
     if (!token.isEmpty()) {
       req = req.withAddedHeader("Authorization", "Bearer " + token);
     }
 
-    if (r.bodyTemplate() != null && !r.bodyTemplate().isBlank()) {
+    // declared header / cookie parameters with their samples
+    StringBuilder cookies = new StringBuilder();
+    for (EndpointRow.Param p : r.params()) {
+      String v = p.sample().replace('\r', ' ').replace('\n', ' ');
+      if (p.in() == EndpointRow.In.HEADER && !isReservedHeader(p.name())) {
+        req = req.withAddedHeader(p.name(), v);
+      } else if (p.in() == EndpointRow.In.COOKIE) {
+        if (cookies.length() > 0) cookies.append("; ");
+        cookies.append(p.name()).append('=').append(URLEncoder.encode(v, StandardCharsets.UTF_8));
+      }
+    }
+    if (cookies.length() > 0) req = req.withAddedHeader("Cookie", cookies.toString());
+
+    if (body != null && !body.isBlank()) {
       String ct = safe(r.contentType()).trim();
       if (ct.isEmpty()) ct = "application/json";
       req = req.withAddedHeader("Content-Type", ct);
-      req = req.withBody(r.bodyTemplate());
+      req = req.withBody(body);
     }
 
     return req;
   }
 
+  /** OpenAPI ignores header parameters that clash with what the request sets itself. */
+  private static boolean isReservedHeader(String name) {
+    return name.equalsIgnoreCase("Authorization") || name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("Accept");
+  }
+
+  /** {@code path}: already filled and encoded, see {@link SampleUrl}. */
   private static String joinUrlSafe(String base, String path) {
     try {
       String b = (base == null ? "" : base.trim());
@@ -827,8 +1537,6 @@ https://github.com/afandiyevm/Swagger2Sqlmap
       String p = (path == null ? "" : path.trim());
       if (!p.startsWith("/")) p = "/" + p;
 
-      p = p.replaceAll("\\{[^/]+}", "1");
-
       return new URI(b + p).toString();
     } catch (Exception ignored) {
       return "http://example.com/";
@@ -848,16 +1556,20 @@ https://github.com/afandiyevm/Swagger2Sqlmap
         if (r == null) return false;
 
         if (!"ALL".equals(m) && !r.method().equalsIgnoreCase(m)) return false;
-        if (q.isEmpty()) return true;
-
-        String hay = (safe(r.method()) + " " + safe(r.path()) + " " + safe(r.operationId()) + " " + safe(r.summary()))
-            .toLowerCase(Locale.ROOT);
-
-        return hay.contains(q);
+        return tableModel.matches(entry.getIdentifier(), q);
       }
     });
   }
 
+  /** Rows that pass the current search / method filter, in view order. */
+  private List<EndpointRow> getVisibleEndpointRows() {
+    List<EndpointRow> out = new ArrayList<>(table.getRowCount());
+    for (int viewRow = 0; viewRow < table.getRowCount(); viewRow++) {
+      out.add(tableModel.getAt(table.convertRowIndexToModel(viewRow)));
+    }
+    return out;
+  }
+
   private EndpointRow getSelectedEndpointRow() {
     int viewRow = table.getSelectedRow();
     if (viewRow < 0) return null;
@@ -877,16 +1589,15 @@ https://github.com/afandiyevm/Swagger2Sqlmap
     authStatus.setForeground(ok ? new Color(0x006400) : Color.RED);
   }
 
+  /** Safe from any thread; the log pane batches appends onto the EDT. */
   private void log(String s) {
-    logArea.append(s + "\n");
-    logArea.setCaretPosition(logArea.getDocument().getLength());
+    logPane.info(s);
     api.logging().logToOutput(s);
   }
 
   private void logErr(Exception ex) {
     api.logging().logToError(ex.toString());
-    logArea.append("[ERROR] " + ex + "\n");
-    logArea.setCaretPosition(logArea.getDocument().getLength());
+    logPane.error("[ERROR] " + ex);
   }
 
   private static String safe(String s) { return s == null ? "" : s; }
@@ -0,0 +1,91 @@
+package swagger2sqlmap.values;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps concrete request paths ({@code /users/42/orders}) to the spec's path templates
+ * ({@code /users/{id}/orders}) with a segment trie, so a match costs one map lookup per
+ * segment however many templates there are. Literal segments win over {name}
+ * segments. Immutable once built.
+ */
+final class PathTemplates {
+
+  /** A matched template and the raw (still percent-encoded) values of its {name} segments. */
+  record Match(String template, String[] names, String[] values) {}
+
+  private static final class Node {
+    final Map<String, Node> literals = new HashMap<>(4);
+    Node wildcard;
+    /** Set on nodes where a template ends. */
+    String template;
+    /** Segment index and name of each {name} segment of {@link #template}. */
+    int[] paramAt;
+    String[] paramNames;
+  }
+
+  private final Node root = new Node();
+
+  PathTemplates(Collection<String> templates) {
+    for (String t : templates) add(t);
+  }
+
+  private void add(String template) {
+    String[] segs = segments(template);
+    List<Integer> at = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+
+    Node n = root;
+    for (int i = 0; i < segs.length; i++) {
+      String s = segs[i];
+      if (s.indexOf('{') >= 0) {
+        if (n.wildcard == null) n.wildcard = new Node();
+        n = n.wildcard;
+        // only whole-segment parameters are captured ("{id}", not "{name}.json")
+        if (s.startsWith("{") && s.endsWith("}") && s.indexOf('{', 1) < 0) {
+          at.add(i);
+          names.add(s.substring(1, s.length() - 1));
+        }
+      } else {
+        n = n.literals.computeIfAbsent(s, k -> new Node());
+      }
+    }
+    if (n.template != null) return; // first template wins
+
+    n.template = template;
+    n.paramAt = at.stream().mapToInt(Integer::intValue).toArray();
+    n.paramNames = names.toArray(new String[0]);
+  }
+
+  /** Null when no template matches {@code path} (no query string). */
+  Match match(String path) {
+    String[] segs = segments(path);
+    Node n = find(root, segs, 0);
+    if (n == null) return null;
+
+    String[] values = new String[n.paramAt.length];
+    for (int i = 0; i < values.length; i++) values[i] = segs[n.paramAt[i]];
+    return new Match(n.template, n.paramNames, values);
+  }
+
+  private static Node find(Node n, String[] segs, int i) {
+    if (i == segs.length) return n.template != null ? n : null;
+
+    Node lit = n.literals.get(segs[i]);
+    if (lit != null) {
+      Node found = find(lit, segs, i + 1);
+      if (found != null) return found;
+    }
+    return n.wildcard != null && !segs[i].isEmpty() ? find(n.wildcard, segs, i + 1) : null;
+  }
+
+  private static String[] segments(String path) {
+    String p = path;
+    if (p.startsWith("/")) p = p.substring(1);
+    if (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+    return p.isEmpty() ? new String[0] : p.split("/", -1);
+  }
+}
@@ -0,0 +1,114 @@
+package swagger2sqlmap.values;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Puts values from a {@link ValueStore} into a row's generated request: JSON and form
+ * body fields by name here, path and query parameters through {@link #observed}. A JSON
+ * field only takes a value of the same JSON type as its generated placeholder. Fields
+ * without an observed value keep the placeholder, and an unchanged body is returned as is.
+ */
+public final class TemplateFiller {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private TemplateFiller() {}
+
+  /**
+   * @param path row path, may carry a query string; the part before '?' is the template
+   *             values are looked up under
+   */
+  public static String fillBody(ValueStore store, String host, String path, String contentType, String body) {
+    if (body == null || body.isBlank() || contentType == null) return body;
+    String ct = contentType.toLowerCase(Locale.ROOT);
+    String template = templateOf(path);
+
+    if (ct.contains("json")) {
+      try {
+        JsonNode root = MAPPER.readTree(body);
+        return fillJson(store, host, template, null, root) ? MAPPER.writeValueAsString(root) : body;
+      } catch (Exception ignored) {
+        return body;
+      }
+    }
+    if (ct.contains("x-www-form-urlencoded")) return fillPairs(store, host, template, body);
+    return body;
+  }
+
+  /**
+   * Observed value by parameter name for the row's path template, as text; for
+   * {@link swagger2sqlmap.model.SampleUrl#pathAndQuery(swagger2sqlmap.model.EndpointRow, Function)}.
+   */
+  public static Function<String, String> observed(ValueStore store, String host, String path) {
+    String template = templateOf(path);
+    return name -> {
+      JsonNode v = store.get(host, template, name, null);
+      return v == null ? null : v.asText();
+    };
+  }
+
+  private static String templateOf(String path) {
+    int q = path == null ? -1 : path.indexOf('?');
+    return q < 0 ? (path == null ? "" : path) : path.substring(0, q);
+  }
+
+  /** True when something was replaced. */
+  private static boolean fillJson(ValueStore store, String host, String template, String name, JsonNode n) {
+    boolean changed = false;
+
+    if (n instanceof ObjectNode obj) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = obj.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> e = it.next();
+        JsonNode child = e.getValue();
+        if (child.isValueNode()) {
+          JsonNode v = store.get(host, template, e.getKey(), child);
+          if (v != null && !v.equals(child)) {
+            e.setValue(v);
+            changed = true;
+          }
+        } else {
+          changed |= fillJson(store, host, template, e.getKey(), child);
+        }
+      }
+    } else if (n instanceof ArrayNode arr) {
+      for (int i = 0; i < arr.size(); i++) {
+        JsonNode child = arr.get(i);
+        if (child.isValueNode() && name != null) {
+          JsonNode v = store.get(host, template, name, child);
+          if (v != null && !v.equals(child)) {
+            arr.set(i, v);
+            changed = true;
+          }
+        } else {
+          changed |= fillJson(store, host, template, name, child);
+        }
+      }
+    }
+    return changed;
+  }
+
+  private static String fillPairs(ValueStore store, String host, String template, String s) {
+    StringBuilder out = new StringBuilder(s.length() + 16);
+    for (String pair : s.split("&", -1)) {
+      if (out.length() > 0) out.append('&');
+      int eq = pair.indexOf('=');
+      JsonNode v = eq <= 0 ? null : store.get(host, template, ValueMiner.decode(pair.substring(0, eq)), null);
+      if (v == null) {
+        out.append(pair);
+      } else {
+        out.append(pair, 0, eq + 1).append(URLEncoder.encode(v.asText(), StandardCharsets.UTF_8));
+      }
+    }
+    return out.toString();
+  }
+}
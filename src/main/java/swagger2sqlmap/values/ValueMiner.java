@@ -0,0 +1,238 @@
+package swagger2sqlmap.values;
+
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.proxy.ProxyHttpRequestResponse;
+import burp.api.montoya.proxy.http.InterceptedRequest;
+import burp.api.montoya.proxy.http.ProxyRequestHandler;
+import burp.api.montoya.proxy.http.ProxyRequestReceivedAction;
+import burp.api.montoya.proxy.http.ProxyRequestToBeSentAction;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import swagger2sqlmap.auth.CredentialIndex;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fills a {@link ValueStore} from proxied requests: JSON body fields, form fields, query
+ * parameters and {name} path segments, filed under the spec path template each request
+ * matches (or {@link ValueStore#ANY_PATH}).
+ *
+ * Everything runs on one background thread. {@link #retarget} queues a single pass over
+ * the proxy history as it is at that moment, oldest first; requests proxied afterwards
+ * arrive through {@link #proxyHandler()} and are indexed as they come, so the history is
+ * never read again until the target changes. A newer retarget aborts a pass in progress.
+ * Live requests beyond {@link #MAX_PENDING} waiting ones are dropped, and so are bodies
+ * over {@link #MAX_BODY_CHARS}.
+ */
+public final class ValueMiner implements AutoCloseable {
+
+  public static final int MAX_PENDING = 10_000;
+  public static final int MAX_BODY_CHARS = 256 * 1024;
+
+  /** Per request, so one huge JSON array cannot flood the store. */
+  private static final int MAX_VALUES_PER_REQUEST = 512;
+  private static final int MAX_JSON_DEPTH = 16;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * @param host      requests to other hosts are ignored; "" = all hosts
+   * @param basePath  stripped from request paths before matching (the base URL's path)
+   * @param templates spec path templates, relative to basePath
+   */
+  private record Target(String host, String basePath, Set<String> templates, PathTemplates matcher) {}
+
+  private final ValueStore store;
+  private final Supplier<? extends List<? extends ProxyHttpRequestResponse>> history;
+  private final Consumer<String> log;
+  private final ThreadPoolExecutor worker;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicInteger generation = new AtomicInteger();
+  private volatile Target target;
+
+  public ValueMiner(ValueStore store,
+                    Supplier<? extends List<? extends ProxyHttpRequestResponse>> history,
+                    Consumer<String> log) {
+    this.store = store;
+    this.history = history;
+    this.log = log;
+    this.worker = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread t = new Thread(r, "swagger2sqlmap-value-miner");
+      t.setDaemon(true);
+      t.setPriority(Thread.MIN_PRIORITY);
+      return t;
+    });
+    worker.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Sets what to index and, when it differs from the current target, re-reads the proxy
+   * history for it in the background. Values already in the store are kept.
+   */
+  public void retarget(String host, String basePath, Collection<String> templates) {
+    Set<String> set = Set.copyOf(templates);
+    String h = host == null ? "" : host.toLowerCase(Locale.ROOT);
+    String bp = basePath == null || basePath.equals("/") ? "" : basePath;
+
+    Target cur = target;
+    if (cur != null && cur.host().equals(h) && cur.basePath().equals(bp) && cur.templates().equals(set)) return;
+
+    Target next = new Target(h, bp, set, new PathTemplates(set));
+    target = next;
+    int gen = generation.incrementAndGet();
+    worker.execute(() -> backfill(next, gen));
+  }
+
+  /** Indexes one proxied request in the background; a no-op before the first {@link #retarget}. */
+  public void offer(HttpRequest request) {
+    if (target == null || request == null) return;
+    if (pending.incrementAndGet() > MAX_PENDING) {
+      pending.decrementAndGet();
+      return;
+    }
+    worker.execute(() -> {
+      pending.decrementAndGet();
+      index(target, request);
+    });
+  }
+
+  /** Proxy handler that passes each request to {@link #offer}; never changes or intercepts it. */
+  public ProxyRequestHandler proxyHandler() {
+    return new ProxyRequestHandler() {
+      @Override
+      public ProxyRequestReceivedAction handleRequestReceived(InterceptedRequest request) {
+        return ProxyRequestReceivedAction.continueWith(request);
+      }
+
+      @Override
+      public ProxyRequestToBeSentAction handleRequestToBeSent(InterceptedRequest request) {
+        try {
+          offer(request);
+        } catch (RuntimeException ignored) {
+          // indexing must never break proxying
+        }
+        return ProxyRequestToBeSentAction.continueWith(request);
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    generation.incrementAndGet();
+    worker.shutdownNow();
+  }
+
+  // ================= Indexing =================
+
+  private void backfill(Target t, int gen) {
+    long start = System.nanoTime();
+    List<? extends ProxyHttpRequestResponse> items = history.get();
+    int indexed = 0;
+
+    for (int i = 0; i < items.size(); i++) {
+      if (generation.get() != gen || Thread.currentThread().isInterrupted()) return; // superseded
+      try {
+        if (index(t, items.get(i).finalRequest())) indexed++;
+      } catch (RuntimeException ignored) {
+        // one odd history item must not stop the pass
+      }
+    }
+
+    log.accept("Value miner: indexed " + indexed + " of " + items.size() + " history request(s) in "
+        + (System.nanoTime() - start) / 1_000_000 + " ms, " + store.size() + " value key(s)");
+  }
+
+  /** True when the request belonged to the target host. */
+  private boolean index(Target t, HttpRequest r) {
+    if (t == null || r == null) return false;
+
+    String host = CredentialIndex.hostOf(r);
+    if (host.isEmpty() || (!t.host().isEmpty() && !t.host().equals(host))) return false;
+
+    String pathAndQuery = r.path() == null ? "" : r.path();
+    int q = pathAndQuery.indexOf('?');
+    String path = q < 0 ? pathAndQuery : pathAndQuery.substring(0, q);
+    if (!t.basePath().isEmpty() && (path.equals(t.basePath()) || path.startsWith(t.basePath() + "/"))) {
+      path = path.substring(t.basePath().length());
+    }
+
+    PathTemplates.Match m = t.matcher().match(path);
+    String template = m == null ? ValueStore.ANY_PATH : m.template();
+    if (m != null) {
+      for (int i = 0; i < m.names().length; i++) {
+        // '+' is a literal plus in a path
+        store.add(host, template, m.names()[i], TextNode.valueOf(decode(m.values()[i].replace("+", "%2B"))));
+      }
+    }
+    if (q >= 0) addPairs(host, template, pathAndQuery.substring(q + 1));
+
+    String ct = r.headerValue("Content-Type");
+    if (ct == null) return true;
+    ct = ct.toLowerCase(Locale.ROOT);
+
+    if (ct.contains("json")) {
+      String body = r.bodyToString();
+      if (body == null || body.isEmpty() || body.length() > MAX_BODY_CHARS) return true;
+      try {
+        addJson(host, template, null, MAPPER.readTree(body), 0, MAX_VALUES_PER_REQUEST);
+      } catch (Exception ignored) {
+        // not JSON after all
+      }
+    } else if (ct.contains("x-www-form-urlencoded")) {
+      String body = r.bodyToString();
+      if (body != null && body.length() <= MAX_BODY_CHARS) addPairs(host, template, body);
+    }
+    return true;
+  }
+
+  /** Leaf values under their nearest field name (array items under the array's). Returns what is left of the budget. */
+  private int addJson(String host, String template, String name, JsonNode n, int depth, int budget) {
+    if (n == null || budget <= 0 || depth > MAX_JSON_DEPTH) return budget;
+
+    if (n.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = n.fields(); it.hasNext() && budget > 0; ) {
+        Map.Entry<String, JsonNode> e = it.next();
+        budget = addJson(host, template, e.getKey(), e.getValue(), depth + 1, budget);
+      }
+    } else if (n.isArray()) {
+      for (int i = 0; i < n.size() && budget > 0; i++) budget = addJson(host, template, name, n.get(i), depth + 1, budget);
+    } else if (name != null) {
+      store.add(host, template, name, n);
+      budget--;
+    }
+    return budget;
+  }
+
+  /** a=1&b=2 (query string or form body). */
+  private void addPairs(String host, String template, String s) {
+    int budget = MAX_VALUES_PER_REQUEST;
+    for (String pair : s.split("&")) {
+      if (pair.isEmpty() || budget-- <= 0) continue;
+      int eq = pair.indexOf('=');
+      if (eq <= 0) continue;
+      store.add(host, template, decode(pair.substring(0, eq)), TextNode.valueOf(decode(pair.substring(eq + 1))));
+    }
+  }
+
+  static String decode(String s) {
+    try {
+      return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      return s;
+    }
+  }
+}
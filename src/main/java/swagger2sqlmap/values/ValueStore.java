@@ -0,0 +1,105 @@
+package swagger2sqlmap.values;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Field / parameter values seen in real traffic, per host, path template and name.
+ *
+ * Bounded on every axis: {@link #VALUES_PER_KEY} distinct values per key (newest first),
+ * values longer than {@link #MAX_VALUE_CHARS} are skipped, and beyond {@link #MAX_KEYS}
+ * keys the least recently used one is dropped. Every value is also filed under the
+ * "any path" template ({@code ""}) of its host, which lookups fall back to.
+ *
+ * Thread-safe.
+ */
+public final class ValueStore {
+
+  public static final int MAX_KEYS = 50_000;
+  public static final int VALUES_PER_KEY = 4;
+  public static final int MAX_VALUE_CHARS = 200;
+
+  /** Template key of values seen anywhere on a host. */
+  public static final String ANY_PATH = "";
+
+  private final Map<String, JsonNode[]> values = new LinkedHashMap<>(1024, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, JsonNode[]> eldest) {
+      return size() > MAX_KEYS;
+    }
+  };
+
+  /** Records a scalar (text, number or boolean) under the template and under {@link #ANY_PATH}. */
+  public void add(String host, String template, String name, JsonNode value) {
+    if (value == null || !value.isValueNode() || value.isNull() || name == null || name.isEmpty()) return;
+    if (value.isTextual() && (value.textValue().isEmpty() || value.textValue().length() > MAX_VALUE_CHARS)) return;
+
+    String h = host.toLowerCase(Locale.ROOT);
+    synchronized (values) {
+      if (template != null && !template.equals(ANY_PATH)) push(key(h, template, name), value);
+      push(key(h, ANY_PATH, name), value);
+    }
+  }
+
+  /**
+   * Newest value for the name on that template, else anywhere on the host; null when
+   * there is none of the right type.
+   *
+   * @param like placeholder being replaced: only values of the same JSON type are
+   *             returned; null accepts any scalar
+   */
+  public JsonNode get(String host, String template, String name, JsonNode like) {
+    String h = host.toLowerCase(Locale.ROOT);
+    synchronized (values) {
+      JsonNode v = template == null || template.equals(ANY_PATH) ? null : pick(values.get(key(h, template, name)), like);
+      return v != null ? v : pick(values.get(key(h, ANY_PATH, name)), like);
+    }
+  }
+
+  public int size() {
+    synchronized (values) {
+      return values.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (values) {
+      values.clear();
+    }
+  }
+
+  private void push(String key, JsonNode value) {
+    JsonNode[] cur = values.get(key);
+    if (cur == null) {
+      values.put(key, new JsonNode[]{value});
+      return;
+    }
+    if (cur[0].equals(value)) return;
+
+    // move to front, dropping an older copy or the oldest value
+    int keep = 0;
+    JsonNode[] next = new JsonNode[Math.min(VALUES_PER_KEY, cur.length + 1)];
+    next[keep++] = value;
+    for (JsonNode v : cur) {
+      if (keep == next.length) break;
+      if (!v.equals(value)) next[keep++] = v;
+    }
+    values.put(key, keep == next.length ? next : Arrays.copyOf(next, keep));
+  }
+
+  private static JsonNode pick(JsonNode[] candidates, JsonNode like) {
+    if (candidates == null) return null;
+    for (JsonNode v : candidates) {
+      if (like == null || like.getNodeType() == v.getNodeType()) return v;
+    }
+    return null;
+  }
+
+  private static String key(String host, String template, String name) {
+    return host + '\n' + template + '\n' + name;
+  }
+}
@@ -0,0 +1,203 @@
+package swagger2sqlmap.probe;
+
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Probes against a local stub server, through the JDK client transport. */
+class EndpointProberTest {
+
+  private static final long SLOW_MS = 400;
+
+  private HttpServer server;
+  private ExecutorService serverPool;
+  private String base;
+  private final AtomicInteger hits = new AtomicInteger();
+
+  @BeforeEach
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/ok", ex -> reply(ex, 200, "hello"));
+    server.createContext("/auth", ex -> reply(ex, 401, ""));
+    server.createContext("/missing", ex -> reply(ex, 404, "not found"));
+    server.createContext("/slow", ex -> {
+      try {
+        Thread.sleep(SLOW_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      reply(ex, 200, "late");
+    });
+    serverPool = Executors.newCachedThreadPool();
+    server.setExecutor(serverPool);
+    server.start();
+    base = "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void stop() {
+    server.stop(0);
+    serverPool.shutdownNow();
+  }
+
+  @Test
+  void verdictsComeBackInRowOrder() throws Exception {
+    List<EndpointRow> rows = List.of(row("/slow"), row("/ok"), row("/auth"), row("/missing"));
+    String down = "http://127.0.0.1:" + freePort();
+
+    EndpointProber prober = new EndpointProber(new HttpClientTransport(Duration.ofSeconds(5)), new EndpointProber.Options(4, 0));
+    List<EndpointRow> all = new ArrayList<>(rows);
+    EndpointRow refused = new EndpointRow("GET", "/refused", "refused", null, null, null);
+    all.add(refused);
+
+    Map<EndpointRow, EndpointProber.Result> results = prober.probe(all,
+        r -> r == refused ? request("GET", down + r.path()) : request(r.method(), base + r.path()), null);
+
+    assertEquals(all, new ArrayList<>(results.keySet()), "row order, although /slow answers last");
+
+    EndpointProber.Result slow = results.get(rows.get(0));
+    assertEquals(EndpointProber.Verdict.ALIVE, slow.verdict());
+    assertTrue(slow.latencyMs() >= SLOW_MS - 50, "latency " + slow.latencyMs());
+
+    EndpointProber.Result ok = results.get(rows.get(1));
+    assertEquals(200, ok.status());
+    assertEquals(5, ok.bytes());
+    assertEquals(EndpointProber.Verdict.ALIVE, ok.verdict());
+
+    assertEquals(EndpointProber.Verdict.UNAUTHORIZED, results.get(rows.get(2)).verdict());
+    assertEquals(EndpointProber.Verdict.DEAD, results.get(rows.get(3)).verdict());
+
+    EndpointProber.Result error = results.get(refused);
+    assertEquals(EndpointProber.Verdict.ERROR, error.verdict());
+    assertNotNull(error.error());
+    assertFalse(error.verdict().isSkippable(), "no response is never skipped");
+  }
+
+  @Test
+  void unbuildableRequestIsAnError() throws Exception {
+    EndpointRow row = row("/ok");
+    EndpointProber prober = new EndpointProber(new HttpClientTransport(Duration.ofSeconds(5)), new EndpointProber.Options(1, 0));
+
+    Map<EndpointRow, EndpointProber.Result> results = prober.probe(List.of(row), r -> {
+      throw new IllegalArgumentException("no base URL");
+    }, null);
+
+    assertEquals(EndpointProber.Verdict.ERROR, results.get(row).verdict());
+    assertEquals(0, hits.get());
+  }
+
+  @Test
+  void cancellingStopsHandingOutRows() throws Exception {
+    List<EndpointRow> rows = new ArrayList<>();
+    for (int i = 0; i < 20; i++) rows.add(row("/slow/" + i));
+
+    AtomicBoolean cancelled = new AtomicBoolean();
+    EndpointProber.Listener listener = new EndpointProber.Listener() {
+      @Override
+      public void onResult(EndpointRow row, EndpointProber.Result result) {
+        cancelled.set(true);
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return cancelled.get();
+      }
+    };
+
+    EndpointProber prober = new EndpointProber(new HttpClientTransport(Duration.ofSeconds(5)), new EndpointProber.Options(2, 0));
+    Map<EndpointRow, EndpointProber.Result> results = prober.probe(rows, r -> request("GET", base + r.path()), listener);
+
+    assertFalse(results.isEmpty());
+    assertTrue(results.size() <= 2, "only the requests in flight finish, got " + results.size());
+    assertTrue(hits.get() <= 2, "server saw " + hits.get());
+  }
+
+  /** Slot arithmetic is in HostRateLimiterTest; this only checks the prober waits for it. */
+  @Test
+  void proberWaitsForTheRateLimit() throws Exception {
+    List<EndpointRow> rows = new ArrayList<>();
+    for (int i = 0; i < 4; i++) rows.add(row("/ok/" + i));
+
+    // 10/s: the 4th slot starts 300 ms in, although 4 workers could send all at once
+    EndpointProber prober = new EndpointProber(new HttpClientTransport(Duration.ofSeconds(5)), new EndpointProber.Options(4, 10));
+    long start = System.nanoTime();
+    Map<EndpointRow, EndpointProber.Result> results = prober.probe(rows, r -> request("GET", base + r.path()), null);
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(4, results.size());
+    assertTrue(elapsedMs >= 250, "returned after " + elapsedMs + " ms");
+  }
+
+  @Test
+  void hostOfIgnoresCaseAndKeepsThePort() {
+    assertEquals("api.test:8443", EndpointProber.hostOf(request("GET", "https://API.test:8443/a?b=c")));
+    assertEquals("", EndpointProber.hostOf(request("GET", "not a url")));
+  }
+
+  // ================= helpers =================
+
+  private void reply(HttpExchange ex, int status, String body) throws IOException {
+    hits.incrementAndGet();
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    ex.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream out = ex.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static EndpointRow row(String path) {
+    return new EndpointRow("GET", path, null, null, null, null);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket s = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      return s.getLocalPort();
+    }
+  }
+
+  private static HttpRequest request(String method, String url) {
+    List<HttpHeader> headers = List.of(header("Accept", "application/json"), header("Host", "ignored"));
+    return (HttpRequest) Proxy.newProxyInstance(EndpointProberTest.class.getClassLoader(), new Class<?>[]{HttpRequest.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "method" -> method;
+          case "url" -> url;
+          case "headers" -> headers;
+          case "bodyToString" -> "";
+          case "toString" -> method + " " + url;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+
+  private static HttpHeader header(String name, String value) {
+    return (HttpHeader) Proxy.newProxyInstance(EndpointProberTest.class.getClassLoader(), new Class<?>[]{HttpHeader.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "name" -> name;
+          case "value" -> value;
+          case "toString" -> name + ": " + value;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+}
@@ -0,0 +1,64 @@
+package swagger2sqlmap.probe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** A fake clock that only moves when the limiter sleeps: no wall-clock timing. */
+class HostRateLimiterTest {
+
+  private static final long MS = 1_000_000;
+
+  private final AtomicLong clock = new AtomicLong(5_000 * MS);
+  private final List<Long> sleeps = new ArrayList<>();
+
+  private HostRateLimiter limiter(double perSecond) {
+    return new HostRateLimiter(perSecond, clock::get, nanos -> {
+      sleeps.add(nanos);
+      clock.addAndGet(nanos);
+    });
+  }
+
+  @Test
+  void callersForOneHostGetConsecutiveSlots() {
+    HostRateLimiter limiter = limiter(10);   // 100 ms apart
+
+    List<Long> waits = new ArrayList<>();
+    for (int i = 0; i < 6; i++) waits.add(limiter.reserve("api.test"));
+
+    assertEquals(List.of(0L, 100 * MS, 200 * MS, 300 * MS, 400 * MS, 500 * MS), waits);
+  }
+
+  @Test
+  void rateLimitIsPerHost() throws InterruptedException {
+    HostRateLimiter limiter = limiter(1);    // 1 s between calls to one host
+
+    limiter.acquire("a.test");
+    limiter.acquire("b.test");
+    assertEquals(List.of(), sleeps, "another host is not held up");
+
+    limiter.acquire("a.test");
+    assertEquals(List.of(1_000 * MS), sleeps, "the same host waits its turn");
+  }
+
+  @Test
+  void idleTimeIsNotSavedUp() {
+    HostRateLimiter limiter = limiter(10);
+
+    assertEquals(0, limiter.reserve("api.test"));
+    clock.addAndGet(1_000 * MS);
+    assertEquals(0, limiter.reserve("api.test"));
+    assertEquals(100 * MS, limiter.reserve("api.test"), "no burst after a quiet second");
+  }
+
+  @Test
+  void zeroRateNeverWaits() throws InterruptedException {
+    HostRateLimiter limiter = limiter(0);
+    for (int i = 0; i < 3; i++) limiter.acquire("api.test");
+    assertEquals(List.of(), sleeps);
+  }
+}
@@ -0,0 +1,168 @@
+package swagger2sqlmap.sqlmap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Round trip through the real interpreters: every argument is written as a literal in a
+ * generated script, the script prints them NUL-separated, and the output must be the
+ * arguments again. pwsh (and bash / python3 on machines without them) is skipped when absent.
+ */
+class QuotingTest {
+
+  private static final List<String> SAMPLES = List.of(
+      "",
+      "plain",
+      "-p",
+      "https://api.test/users/5*?q=a&b=c",
+      "it's",
+      "''",
+      "a\"b\"",
+      "$HOME ${PATH} $(id)",
+      "`whoami` `$x`",
+      "back\\slash \\\\ \\'",
+      "line1\nline2\n",
+      "cr\r\nlf\ttab",
+      "!history #comment ~tilde *glob? [a] {b,c} ; & | < > ( )",
+      "%PATH% ^caret",
+      "{\"name\":\"O'Brien\",\"note\":\"say \\\"hi\\\"\\n\"}",
+      "Authorization: Bearer eyJ.abc.def",
+      "caf\u00e9 \u00fc\u00df \u4e2d\u6587 \ud83d\ude00",
+      "\u2018smart\u2019 \u201aquotes\u201b \u201cdouble\u201d",
+      "\u0001\u001f\u007f",
+      " leading and trailing "
+  );
+
+  @Test
+  void bash(@TempDir Path dir) throws Exception {
+    roundTrip(dir, Quoting.BASH, "bash");
+  }
+
+  @Test
+  void python(@TempDir Path dir) throws Exception {
+    roundTrip(dir, Quoting.PYTHON, "python3");
+  }
+
+  @Test
+  void powershell(@TempDir Path dir) throws Exception {
+    roundTrip(dir, Quoting.POWERSHELL, "pwsh");
+  }
+
+  @Test
+  void bareWordsStayBare() {
+    assertEquals("sqlmap", Quoting.BASH.quote("sqlmap"));
+    assertEquals("--level=3", Quoting.BASH.quote("--level=3"));
+    assertEquals("''", Quoting.BASH.quote(null));
+    assertEquals("'it'\"'\"'s'", Quoting.BASH.quote("it's"));
+  }
+
+  private static void roundTrip(Path dir, Quoting q, String interpreter) throws Exception {
+    assumeTrue(available(interpreter), interpreter + " not installed");
+
+    List<String> args = new ArrayList<>(SAMPLES);
+    args.addAll(fuzz(200, 7L));
+
+    Path script = dir.resolve("args" + switch (q) { case BASH -> ".sh"; case PYTHON -> ".py"; case POWERSHELL -> ".ps1"; });
+    Files.writeString(script, script(q, args), StandardCharsets.UTF_8);
+
+    List<String> cmd = switch (q) {
+      case BASH -> List.of("bash", script.toString());
+      case PYTHON -> List.of("python3", script.toString());
+      case POWERSHELL -> List.of("pwsh", "-NoProfile", "-NonInteractive", "-File", script.toString());
+    };
+    assertEquals(args, run(cmd));
+  }
+
+  /** A script that prints each argument followed by NUL, UTF-8 encoded. */
+  private static String script(Quoting q, List<String> args) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    switch (q) {
+      case BASH -> {
+        sb.append("printf '%s\\0'");
+        for (String a : args) {
+          sb.append(' ');
+          q.append(sb, a);
+        }
+        sb.append('\n');
+      }
+      case PYTHON -> {
+        sb.append("import sys\nargs = [\n");
+        for (String a : args) {
+          sb.append("  ");
+          q.append(sb, a);
+          sb.append(",\n");
+        }
+        sb.append("]\nfor a in args:\n  sys.stdout.buffer.write(a.encode('utf-8') + b'\\0')\n");
+      }
+      case POWERSHELL -> {
+        sb.append("$out = [Console]::OpenStandardOutput()\n$utf8 = [Text.UTF8Encoding]::new($false)\n$items = @(\n");
+        for (int i = 0; i < args.size(); i++) {
+          sb.append("  ");
+          q.append(sb, args.get(i));
+          sb.append(i + 1 < args.size() ? ",\n" : "\n");
+        }
+        sb.append(")\nforeach ($a in $items) { $b = $utf8.GetBytes($a + [char]0); $out.Write($b, 0, $b.Length) }\n");
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Random strings over quote, escape, expansion and control characters plus non-ASCII. */
+  private static List<String> fuzz(int count, long seed) {
+    String alphabet = "ab Z09'\"\\$`!#&|;<>(){}[]*?~%^=,.-_/\n\r\t\u0007\u007f\u00e9\u2018\u2019\u201a\u201b\u4e2d";
+    Random rnd = new Random(seed);
+    List<String> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      char[] c = new char[rnd.nextInt(24)];
+      for (int j = 0; j < c.length; j++) c[j] = alphabet.charAt(rnd.nextInt(alphabet.length()));
+      out.add(new String(c));
+    }
+    return out;
+  }
+
+  private static List<String> run(List<String> cmd) throws Exception {
+    Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    byte[] stdout = readAll(p.getInputStream());
+    assertTrue(p.waitFor(60, TimeUnit.SECONDS), "interpreter timed out");
+    assertEquals(0, p.exitValue(), "exit code of " + cmd);
+
+    String s = new String(stdout, StandardCharsets.UTF_8);
+    if (s.isEmpty()) return List.of();
+    assertEquals('\0', s.charAt(s.length() - 1), "output ends with NUL");
+    return Arrays.asList(s.substring(0, s.length() - 1).split("\0", -1));
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    in.transferTo(out);
+    return out.toByteArray();
+  }
+
+  private static boolean available(String exe) {
+    try {
+      Process p = new ProcessBuilder(exe, exe.equals("pwsh") ? "-Version" : "--version")
+          .redirectErrorStream(true).start();
+      p.getInputStream().transferTo(OutputStream.nullOutputStream());
+      return p.waitFor(30, TimeUnit.SECONDS) && p.exitValue() == 0;
+    } catch (IOException | InterruptedException e) {
+      return false;
+    }
+  }
+}
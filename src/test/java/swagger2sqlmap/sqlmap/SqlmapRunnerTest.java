@@ -0,0 +1,187 @@
+package swagger2sqlmap.sqlmap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Stub commands (bash -c ...) stand in for sqlmap. */
+class SqlmapRunnerTest {
+
+  private static final long WAIT_MS = 10_000;
+
+  private final Map<SqlmapRunner.Job, AtomicInteger> endEvents = new ConcurrentHashMap<>();
+  private final SqlmapRunner.Listener listener = new SqlmapRunner.Listener() {
+    @Override
+    public void onState(SqlmapRunner.Job job) {
+      if (job.isFinished()) endEvents.computeIfAbsent(job, j -> new AtomicInteger()).incrementAndGet();
+    }
+  };
+
+  private SqlmapRunner runner;
+
+  @BeforeAll
+  static void needsBash() {
+    assumeTrue(Files.isExecutable(Path.of("/bin/bash")), "stub commands need bash");
+  }
+
+  @AfterEach
+  void close() {
+    if (runner != null) runner.close();
+  }
+
+  @Test
+  void zeroExitIsDone() throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(2, null), listener);
+    SqlmapRunner.Job job = runner.submit("GET /ok", stub("echo out; echo err >&2; exit 0"));
+
+    await(job);
+    assertEquals(SqlmapRunner.State.DONE, job.state());
+    assertEquals(0, job.exitCode());
+    assertTrue(job.outputSince(0).contains("out\n"));
+    assertTrue(job.outputSince(0).contains("err\n"));
+    assertEnded(job);
+  }
+
+  @Test
+  void nonZeroExitIsFailed() throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(2, null), listener);
+    SqlmapRunner.Job job = runner.submit("GET /fail", stub("echo boom; exit 3"));
+
+    await(job);
+    assertEquals(SqlmapRunner.State.FAILED, job.state());
+    assertEquals(3, job.exitCode());
+    assertEnded(job);
+  }
+
+  @Test
+  void slowJobTimesOut() throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(1, Duration.ofMillis(300)), listener);
+    long start = System.currentTimeMillis();
+    SqlmapRunner.Job job = runner.submit("GET /slow", stub("sleep 30"));
+
+    await(job);
+    assertEquals(SqlmapRunner.State.TIMED_OUT, job.state());
+    assertTrue(System.currentTimeMillis() - start < WAIT_MS, "killed at the timeout, not at exit");
+    assertEnded(job);
+  }
+
+  @Test
+  void cancellingQueuedJobNeverStartsIt(@TempDir Path dir) throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(1, null), listener);
+    Path started = dir.resolve("started");
+
+    SqlmapRunner.Job blocker = runner.submit("GET /block", stub("sleep 30"));
+    awaitState(blocker, SqlmapRunner.State.RUNNING);
+    SqlmapRunner.Job queued = runner.submit("GET /queued", stub("touch '" + started + "'"));
+    assertEquals(SqlmapRunner.State.QUEUED, queued.state());
+
+    runner.cancel(queued);
+    assertEquals(SqlmapRunner.State.CANCELLED, queued.state());
+
+    runner.cancel(blocker);
+    await(blocker);
+    assertEquals(SqlmapRunner.State.CANCELLED, blocker.state());
+
+    Thread.sleep(200);
+    assertFalse(Files.exists(started));
+    assertEnded(queued);
+    assertEnded(blocker);
+  }
+
+  @Test
+  void cancellingWhilePausedReleasesTheWorker(@TempDir Path dir) throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(1, null), listener);
+    Path started = dir.resolve("started");
+
+    runner.pause();
+    SqlmapRunner.Job held = runner.submit("GET /held", stub("touch '" + started + "'"));
+    Thread.sleep(200);
+    assertEquals(SqlmapRunner.State.QUEUED, held.state());
+
+    runner.cancel(held);
+    await(held);
+    assertEquals(SqlmapRunner.State.CANCELLED, held.state());
+
+    runner.resume();
+    SqlmapRunner.Job next = runner.submit("GET /next", stub("exit 0"));
+    await(next);
+    assertEquals(SqlmapRunner.State.DONE, next.state());
+
+    assertFalse(Files.exists(started));
+    assertEnded(held);
+    assertEnded(next);
+  }
+
+  @Test
+  void missingExecutableFails() throws Exception {
+    runner = new SqlmapRunner(new SqlmapRunner.Options(1, null), listener);
+    SqlmapRunner.Job job = runner.submit("GET /missing",
+        new SqlmapCommandBuilder.SqlmapCommand(List.of("/nonexistent/sqlmap-stub", "--batch")));
+
+    await(job);
+    assertEquals(SqlmapRunner.State.FAILED, job.state());
+    assertNull(job.exitCode());
+    assertTrue(job.outputSince(0).contains("cannot start /nonexistent/sqlmap-stub"));
+    assertEnded(job);
+  }
+
+  @Test
+  void tagIsThereWhenAJobEndsAtOnce() throws Exception {
+    Map<SqlmapRunner.Job, Object> tagAtEnd = new ConcurrentHashMap<>();
+    runner = new SqlmapRunner(new SqlmapRunner.Options(4, null), new SqlmapRunner.Listener() {
+      @Override
+      public void onState(SqlmapRunner.Job job) {
+        if (job.isFinished()) tagAtEnd.put(job, String.valueOf(job.tag()));
+      }
+    });
+
+    List<SqlmapRunner.Job> jobs = List.of(
+        runner.submit("GET /missing", new SqlmapCommandBuilder.SqlmapCommand(List.of("/nonexistent/sqlmap-stub")), "missing"),
+        runner.submit("GET /fail", stub("exit 1"), "fail"));
+    for (SqlmapRunner.Job job : jobs) await(job);
+
+    assertEquals("missing", tagAtEnd.get(jobs.get(0)));
+    assertEquals("fail", tagAtEnd.get(jobs.get(1)));
+  }
+
+  // ================= helpers =================
+
+  private static SqlmapCommandBuilder.SqlmapCommand stub(String script) {
+    return new SqlmapCommandBuilder.SqlmapCommand(List.of("/bin/bash", "-c", script));
+  }
+
+  private static void await(SqlmapRunner.Job job) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MS;
+    while (!job.isFinished()) {
+      assertTrue(System.currentTimeMillis() < deadline, job.label() + " did not finish, state " + job.state());
+      Thread.sleep(20);
+    }
+  }
+
+  private static void awaitState(SqlmapRunner.Job job, SqlmapRunner.State state) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MS;
+    while (job.state() != state) {
+      assertTrue(System.currentTimeMillis() < deadline, job.label() + " never reached " + state);
+      Thread.sleep(20);
+    }
+  }
+
+  /** The end state is reported exactly once (the Runner tab records a checkpoint for it). */
+  private void assertEnded(SqlmapRunner.Job job) throws InterruptedException {
+    Thread.sleep(100); // a late duplicate would arrive from a worker thread
+    AtomicInteger n = endEvents.get(job);
+    assertEquals(1, n == null ? 0 : n.get(), "end events of " + job.label());
+  }
+}
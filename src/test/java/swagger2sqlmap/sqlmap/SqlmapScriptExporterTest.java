@@ -0,0 +1,134 @@
+package swagger2sqlmap.sqlmap;
+
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swagger2sqlmap.model.EndpointRow;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Runs generated parallel .sh scripts with a stub sqlmap that records its arguments. */
+class SqlmapScriptExporterTest {
+
+  @BeforeAll
+  static void needsBash() {
+    assumeTrue(Files.isExecutable(Path.of("/bin/bash")), "generated scripts need bash");
+  }
+
+  @Test
+  void everyJobRunsItsOwnCommand(@TempDir Path dir) throws Exception {
+    List<EndpointRow> rows = new ArrayList<>();
+    for (int i = 0; i < 12; i++) rows.add(new EndpointRow(i % 2 == 0 ? "GET" : "POST", "/items/" + i, null, null, null, null));
+    SqlmapCommandBuilder.Options opt = options(stubSqlmap(dir));
+    SqlmapScriptExporter exporter = new SqlmapScriptExporter(null, SqlmapScriptExporterTest::request, rows, opt,
+        new SqlmapScriptExporter.ScriptOptions(4, "out", false));
+
+    Path script = dir.resolve("scan.sh");
+    try (var w = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+      exporter.parallelSh(w);
+    }
+    assertEquals(0, run(dir, script), "exit code");
+
+    SqlmapCommandBuilder.Template template = SqlmapCommandBuilder.compile(opt);
+    Path out = dir.resolve("out");
+    List<Path> jobDirs;
+    try (Stream<Path> s = Files.list(out)) {
+      jobDirs = s.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+    }
+    assertEquals(rows.size(), jobDirs.size());
+    for (int i = 0; i < rows.size(); i++) {
+      EndpointRow r = rows.get(i);
+      List<String> expected = new ArrayList<>(template.command(r, request(r)).args());
+      expected.remove(0);
+      expected.add("--output-dir");
+      expected.add("out/" + jobDirs.get(i).getFileName());
+      assertEquals(expected, recordedArgs(jobDirs.get(i)), "job " + (i + 1));
+    }
+  }
+
+  @Test
+  void unknownJobIsRejected(@TempDir Path dir) throws Exception {
+    List<EndpointRow> rows = List.of(new EndpointRow("GET", "/a", null, null, null, null));
+    SqlmapScriptExporter exporter = new SqlmapScriptExporter(null, SqlmapScriptExporterTest::request, rows,
+        options(stubSqlmap(dir)), new SqlmapScriptExporter.ScriptOptions(2, "out", false));
+
+    Path script = dir.resolve("scan.sh");
+    try (var w = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+      exporter.parallelSh(w);
+    }
+    assertEquals(2, run(dir, script, "--job", "2"));
+    assertEquals(2, run(dir, script, "--job", "x"));
+  }
+
+  // ================= helpers =================
+
+  /** Writes its arguments NUL-separated to args in the --output-dir it is given (the last argument). */
+  private static Path stubSqlmap(Path dir) throws IOException {
+    Path stub = dir.resolve("sqlmap-stub");
+    Files.writeString(stub, "#!/bin/bash\nfor a; do last=\"$a\"; done\nprintf '%s\\0' \"$@\" > \"$last/args\"\n");
+    assertTrue(stub.toFile().setExecutable(true));
+    return stub;
+  }
+
+  private static SqlmapCommandBuilder.Options options(Path sqlmap) {
+    SqlmapCommandBuilder.Options d = SqlmapCommandBuilder.Options.defaults();
+    return new SqlmapCommandBuilder.Options(sqlmap.toString(), d.includeHeaders(), d.headersMode(), d.batch(),
+        d.randomAgent(), d.level(), d.risk(), d.threads(), d.tamper(), d.technique(), d.extraArgs(), d.forceSsl(),
+        d.paramScope(), d.skipKinds());
+  }
+
+  private static int run(Path dir, Path script, String... args) throws Exception {
+    List<String> cmd = new ArrayList<>(List.of("bash", script.toString()));
+    cmd.addAll(Arrays.asList(args));
+    Process p = new ProcessBuilder(cmd).directory(dir.toFile()).redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    assertTrue(p.waitFor(60, TimeUnit.SECONDS), "script timed out");
+    return p.exitValue();
+  }
+
+  private static List<String> recordedArgs(Path jobDir) throws IOException {
+    String s = Files.readString(jobDir.resolve("args"), StandardCharsets.UTF_8);
+    return Arrays.asList(s.substring(0, s.length() - 1).split("\0", -1));
+  }
+
+  /** POST bodies span lines and carry quotes, so the one-line job table must keep them intact. */
+  private static HttpRequest request(EndpointRow r) {
+    String url = "https://api.test" + r.path() + "?q=it's";
+    String body = r.method().equals("POST") ? "{\n  \"name\": \"O'Brien\",\r\n  \"path\": \"" + r.path() + "\"\n}\n" : "";
+    List<HttpHeader> headers = List.of(header("Content-Type", "application/json"), header("Authorization", "Bearer $TOKEN"));
+    return (HttpRequest) Proxy.newProxyInstance(SqlmapScriptExporterTest.class.getClassLoader(), new Class<?>[]{HttpRequest.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "method" -> r.method();
+          case "url" -> url;
+          case "headers" -> headers;
+          case "bodyToString" -> body;
+          case "toString" -> r.method() + " " + url;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+
+  private static HttpHeader header(String name, String value) {
+    return (HttpHeader) Proxy.newProxyInstance(SqlmapScriptExporterTest.class.getClassLoader(), new Class<?>[]{HttpHeader.class},
+        (proxy, m, args) -> switch (m.getName()) {
+          case "name" -> name;
+          case "value" -> value;
+          case "toString" -> name + ": " + value;
+          default -> throw new UnsupportedOperationException(m.getName());
+        });
+  }
+}
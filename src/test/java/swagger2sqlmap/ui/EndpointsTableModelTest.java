@@ -0,0 +1,62 @@
+package swagger2sqlmap.ui;
+
+import org.junit.jupiter.api.Test;
+import swagger2sqlmap.model.EndpointRow;
+import swagger2sqlmap.swagger.SwaggerParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EndpointsTableModelTest {
+
+  private static final List<String> QUERIES = List.of("us", "users", "get /users", "order", "pet", "zzz", "{id}");
+
+  @Test
+  void searchWhileRowsStreamIn() {
+    EndpointsTableModel model = new EndpointsTableModel();
+    List<EndpointRow> all = new ArrayList<>();
+
+    for (int chunk = 0; chunk < 5; chunk++) {
+      List<EndpointRow> rows = rows(chunk * 10, 10);
+      model.addRows(rows);
+      all.addAll(rows);
+      for (String q : QUERIES) assertMatches(model, all, q);   // index built on chunk 0, extended after
+    }
+
+    model.setData(all);
+    for (String q : QUERIES) assertMatches(model, all, q);
+  }
+
+  @Test
+  void searchAfterDiff() {
+    EndpointsTableModel model = new EndpointsTableModel();
+    List<EndpointRow> rows = rows(0, 20);
+    model.setData(rows);
+    assertMatches(model, rows, "users");
+
+    List<EndpointRow> next = new ArrayList<>(rows.subList(5, 20));
+    next.add(new EndpointRow("GET", "/users/{id}/zz", "tail", null, null, null));
+    next.sort(SwaggerParser.ENDPOINT_ORDER);
+    model.applyDiff(next);
+    for (String q : QUERIES) assertMatches(model, next, q);
+  }
+
+  private static void assertMatches(EndpointsTableModel model, List<EndpointRow> rows, String q) {
+    for (int i = 0; i < rows.size(); i++) {
+      boolean expected = EndpointSearchIndex.haystack(rows.get(i)).contains(q);
+      assertEquals(expected, model.matches(i, q), "row " + i + " '" + q + "'");
+    }
+  }
+
+  private static List<EndpointRow> rows(int from, int n) {
+    String[] paths = {"/users/{id}", "/orders", "/pets/{petId}", "/users", "/store/order/{id}"};
+    List<EndpointRow> out = new ArrayList<>();
+    for (int i = from; i < from + n; i++) {
+      out.add(new EndpointRow(i % 3 == 0 ? "POST" : "GET", paths[i % paths.length] + "/" + i, "op" + i, "Summary " + i, null, null));
+    }
+    out.sort(SwaggerParser.ENDPOINT_ORDER);
+    return out;
+  }
+}